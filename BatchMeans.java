@@ -0,0 +1,91 @@
+/**
+ * @(#)BatchMeans.java
+ * Confidence interval for the long run mean of a simulation output, by the method of batch means. The measured part of a
+ * run is cut into batches of equal length, and the output is averaged within each. Batches long enough to outlast the
+ * correlation between nearby events give roughly independent, roughly normal batch means, so a Student t interval over
+ * them covers the true mean. The same interval serves for independent replications, with one value per replication.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+
+public class BatchMeans {
+	//the 97.5% point of Student's t distribution for 1 to 30 degrees of freedom
+	private static final double T975[] = {12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228, 2.201, 2.179,
+		2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045,
+		2.042};
+
+	private long n; //number of batch means
+	private double mean; //their running mean
+	private double m2; //their running sum of squared deviations from the mean (Welford)
+
+    public BatchMeans() {
+    	n = 0;
+    	mean = 0.0;
+    	m2 = 0.0;
+    }
+
+    //adds one batch mean
+    public void add(double x) {
+    	n++;
+    	double d = x - mean;
+    	mean += d / n;
+    	m2 += d * (x - mean);
+    }
+
+    public void save(CheckpointWriter w) throws IOException {
+    	w.putLong(n);
+    	w.putDouble(mean);
+    	w.putDouble(m2);
+    }
+
+    public void restore(CheckpointReader r) throws IOException {
+    	n = r.getLong();
+    	mean = r.getDouble();
+    	m2 = r.getDouble();
+    }
+
+    public long getCount() {
+    	return n;
+    }
+
+    //the mean of the batch means, or 0 if there are none
+    public double getMean() {
+    	return mean;
+    }
+
+    //half the width of the 95% confidence interval for the mean, or NaN with fewer than 2 batches
+    public double getHalfWidth() {
+    	if(n < 2) {
+    		return Double.NaN;
+    	}
+    	return tQuantile(n - 1) * Math.sqrt(m2 / (n - 1) / n);
+    }
+
+    //the half width as a fraction of the mean, or infinity when the mean is 0
+    public double getRelativeHalfWidth() {
+    	double h = getHalfWidth();
+    	if(mean == 0.0) {
+    		return (h == 0.0) ? 0.0 : Double.POSITIVE_INFINITY;
+    	}
+    	return h / Math.abs(mean);
+    }
+
+   /**The 97.5% point of Student's t distribution, for a two sided 95% interval
+    *
+    *@param df -- degrees of freedom, at least 1
+    *@return double -- the quantile, from the table up to 30 degrees of freedom and from the Cornish-Fisher expansion above
+    */
+    public static double tQuantile(long df) {
+    	if(df <= T975.length) {
+    		return T975[(int) df - 1];
+    	}
+    	double z = 1.959964;
+    	double z3 = z * z * z;
+    	double z5 = z3 * z * z;
+    	double v = df;
+    	return z + (z3 + z) / (4 * v) + (5 * z5 + 16 * z3 + 3 * z) / (96 * v * v);
+    }
+}
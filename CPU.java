@@ -6,32 +6,57 @@
  * @version 1.00 2016/2/23
  */
 
+import java.io.IOException;
 import java.lang.Math;
 
 public class CPU {
+	public static final long NEVER = Long.MAX_VALUE; //a quantum or burst that never runs out
+	
 	private boolean isIdle; //is this CPU currently available?
+	private int id; //this CPU's index in the simulation's cpus array
+	private IdleSet idleSet; //the simulation's set of idle CPUs, kept in step with isIdle
 	private long switchCost; //the cost of switching processes on the CPU, the context switch cost
-	private long quantum; //time quantum for pre-emption
+	private long quantum; //time quantum for pre-emption, NEVER if pre-emption is disabled
+	private boolean ioFaults; //do processes leave this CPU for I/O service?
+	private Topology topology; //where this CPU sits, for migration penalties. null if migrations cost nothing.
+	private boolean chargeLeft; //run processes for the time they have left, and stay busy until they leave? false keeps the original accounting of fcfs and rr on the global ready queue.
 	
 	//Statistics per CPU
 	private long rawActiveTime; //the time this CPU spends running processes in time units
 	private long rawIdleTime; //the time this CPU spends waiting in time units
 	private long rawSwitchTime; //the time this CPU spends switching contexts in time units
+	private long rawMigrationTime; //the time this CPU spends warming its cache for processes that last ran elsewhere
+	private long migrationsIn; //processes loaded here that last ran on another CPU
+	private long crossSocket; //those of migrationsIn that came from another socket
 	private double percActive; //percent of total time spent running
 	private double percIdle; //percent of total time spent idle
 	private double percSwitch; //percent of total time spent switching contexts
+	private double percMigration; //percent of total time spent on migration penalties
 	
 	private long lastLeft; //the time at which the last proc left this cpu for any reason. Used to calculate idle times.
+	private long lastPenalty; //the migration penalty the last loaded proc paid
 
 	
    /**Constructor which allows one to provide a context switch cost
     *
+    *@param i -- this CPU's index
+    *@param q -- the time quantum, 0 for none
     *@param sc -- the context switch cost
+    *@param io -- whether processes have I/O faults
+    *@param idle -- the set of idle CPUs this CPU reports to
+    *@param t -- the cpus' topology, or null if migrations cost nothing
+    *@param left -- true to compare the quantum and next I/O fault against the cpu and burst time the process has left,
+    *instead of its whole cpu and burst time
     */ 
-    public CPU(long q, long sc) {
+    public CPU(int i, long q, long sc, boolean io, IdleSet idle, Topology t, boolean left) {
+    	id = i;
     	isIdle = true;
-    	quantum = q;
+    	quantum = (q > 0) ? q : NEVER;
+    	ioFaults = io;
     	switchCost = sc;
+    	idleSet = idle;
+    	topology = t;
+    	chargeLeft = left;
     }
     
     //Getter methods
@@ -63,9 +88,85 @@ public class CPU {
     	return percSwitch;
     }
     
+    public long getMigrationTime() {
+    	return rawMigrationTime;
+    }
+    
+    public double getMigrationPerc() {
+    	return percMigration;
+    }
+    
+    public long getMigrationsIn() {
+    	return migrationsIn;
+    }
+    
+    public long getCrossSocket() {
+    	return crossSocket;
+    }
+    
+    public long getLastPenalty() {
+    	return lastPenalty;
+    }
+    
+    //the time at which the last loaded proc leaves this cpu
+    public long getLastLeft() {
+    	return lastLeft;
+    }
+    
     //method to reset a CPU's isIdle to true when a proc exits.
     public void procLeft() {
-    	isIdle = true;	
+    	setIdle(true);
+    }
+    
+    //changes isIdle, and tells the idle set
+    private void setIdle(boolean idle) {
+    	isIdle = idle;
+    	if(idle) {
+    		idleSet.set(id);
+    	}
+    	else {
+    		idleSet.clear(id);
+    	}
+    }
+    
+    //forgets the time measured before t, at the end of a warm-up period. A process still running at t keeps the part of
+    //its run after t.
+    public void resetStats(long t) {
+    	rawActiveTime = Math.max(0, lastLeft - t);
+    	rawSwitchTime = 0;
+    	rawIdleTime = 0;
+    	rawMigrationTime = 0;
+    	migrationsIn = 0;
+    	crossSocket = 0;
+    	if(lastLeft < t) {
+    		lastLeft = t;
+    	}
+    }
+    
+    //writes whether the CPU is busy, when it is next free, and its stats, to a checkpoint
+    public void save(CheckpointWriter w) throws IOException {
+    	w.putBoolean(isIdle);
+    	w.putLong(lastLeft);
+    	w.putLong(lastPenalty);
+    	w.putLong(rawActiveTime);
+    	w.putLong(rawIdleTime);
+    	w.putLong(rawSwitchTime);
+    	w.putLong(rawMigrationTime);
+    	w.putLong(migrationsIn);
+    	w.putLong(crossSocket);
+    }
+    
+    //takes up the state save wrote. The idle set is told, as it always is.
+    public void restore(CheckpointReader r) throws IOException {
+    	setIdle(r.getBoolean());
+    	lastLeft = r.getLong();
+    	lastPenalty = r.getLong();
+    	rawActiveTime = r.getLong();
+    	rawIdleTime = r.getLong();
+    	rawSwitchTime = r.getLong();
+    	rawMigrationTime = r.getLong();
+    	migrationsIn = r.getLong();
+    	crossSocket = r.getLong();
     }
     
     //Calculates the percentages for each corresponding CPU stat
@@ -73,11 +174,15 @@ public class CPU {
     	percActive = (rawActiveTime*1.0) / (timeUnits*1.0);
     	percIdle = (rawIdleTime * 1.0) / (timeUnits * 1.0);
     	percSwitch = (rawSwitchTime * 1.0) / (timeUnits * 1.0);
+    	percMigration = (rawMigrationTime * 1.0) / (timeUnits * 1.0);
     }
     
     //returns a printable string of CPU stats in batch form
     public String batchString() {
     	String s = rawActiveTime + " " + rawSwitchTime + " " + rawIdleTime + " ";
+    	if(topology != null) {
+    		s += rawMigrationTime + " " + migrationsIn + " " + crossSocket + " ";
+    	}
     	return s;
     }
     
@@ -87,155 +192,79 @@ public class CPU {
     	String i = String.format("%.3f",percIdle);
     	String c = String.format("%.3f",percSwitch);
     	String s = (rawActiveTime + " active (" + a + "%), " + rawSwitchTime + " context switch (" + c + "%), " + 
-    		rawIdleTime + " idle (" + i + "%).\n");
-    	return s;
+    		rawIdleTime + " idle (" + i + "%)");
+    	if(topology != null) {
+    		String m = String.format("%.3f",percMigration);
+    		s += ", " + rawMigrationTime + " migration penalty (" + m + "%), " + migrationsIn + " migrations in (" + 
+    			crossSocket + " across sockets)";
+    	}
+    	return s + ".\n";
     }
     
-    //The following methods are all the different variants of loadProc. loadProc loads a particular process into a CPU, and then creates and returns the corresponding event
-    //A process will exit a CPU at the lowest time value. 
-       
-    //IO FAULTS AND PRE-EMPTION ENABLED
-    public Event loadProc_IOandPreemption(Proc p, long timestamp, long eid) {
+    //loadProc loads a particular process into a CPU, and then returns the kind code (see Event) of the event that ends its run.
+    //That event happens at getLastLeft(). A process will exit a CPU at the lowest time value of its quantum, its burst until
+    //the next I/O fault, and its service time. Without pre-emption the quantum is NEVER, and without I/O faults the burst is.
+    //A quantum or burst only ends the run when it is strictly the lowest. Any tie lets the process run to completion.
+    //A process that ran before on another cpu also pays the topology's warm-up penalty for the move, after the switch.
+    public int loadProc(ProcTable procs, int slot, long timestamp) {
     	//idle time will be the time from when the last left, until the present proc arrives here
     	rawIdleTime += Math.abs(timestamp - lastLeft);
-    	isIdle = false;
-    	long burst = p.getBurstTime();
-    	long length = p.getCPUtime();
-    	Event ret = null;
+    	setIdle(false);
+    	lastPenalty = 0;
+    	if(topology != null && procs.getResponseTime(slot) >= 0 && procs.getcpuInd(slot) != id) {
+    		int distance = topology.distance(procs.getcpuInd(slot), id);
+    		lastPenalty = topology.getCost(distance);
+    		migrationsIn++;
+    		if(distance == Topology.CROSS_SOCKET) {
+    			crossSocket++;
+    		}
+    	}
+    	long burst = ioFaults ? (chargeLeft ? procs.getBurstLeft(slot) : procs.getBurstTime(slot)) : NEVER;
+    	long length = chargeLeft ? procs.getServiceLeft(slot) : procs.getCPUtime(slot);
+    	long run; //how long the process stays on the cpu, not counting the switch
+    	int ret;
     	
-    	//possible event strings in this variant
-    	String iofault = "I/O Fault";
-		String procdone = "Proc Complete";
-		String quantumUp = "Quantum Expired";
-		
-    	//quantum expires, update burst and service
-    	if(quantum < burst && quantum < length) {
-    		long t = timestamp + quantum + switchCost;
-    		//active time is from when this process entered the cpu, until the time it's slated to leave
-    		rawActiveTime += (t - timestamp);
-    		//remember the last time at which a proc left the cpu. CPU is idle until the next arrives
-    		lastLeft = t;
-    		p.updateCPUtime(quantum);
-    		p.updateBurstTime(quantum);
-    		ret = new Event(t, p, quantumUp, eid);
+    	//whatever runs out first ends the run. Completing wins a tie, then the io fault.
+    	if(chargeLeft) {
+    		run = Math.min(quantum, Math.min(burst, length));
+    		ret = (run == length) ? Event.PROCDONE : (run == burst) ? Event.IOFAULT : Event.QUANTUM_UP;
+    	}
+    	else if(quantum < burst && quantum < length) {
+    		run = quantum;
+    		ret = Event.QUANTUM_UP;
     	}
-    	//io fault, update service time. reset burst
     	else if(burst < quantum && burst < length) {
-    		long t = timestamp + burst + switchCost;
-    		lastLeft = t;
-   			rawActiveTime += (t - timestamp);
-   			p.updateCPUtime(burst);
-   			p.resetBurst();
-   			ret = new Event(t, p, iofault, eid);
-   		}
-   		//service time is lowest, proc completes
-   		else {
-   			long t = timestamp + length + switchCost;
-   			lastLeft = t;
-   			rawActiveTime += (t - timestamp);
-   			ret = new Event(t, p, procdone, eid);
-   		}
-   		
-   		//switch cost will never change. Each time this method is called, add the switchCost
-    	rawSwitchTime += switchCost;
-   		
-   		return ret;
-    }
-    
-    //IO FAULTS DISABLED PRE-EMPTION ENABLED
-    public Event loadProc_noIO(Proc p, long timestamp, long eid) {
-    	rawIdleTime += Math.abs(timestamp - lastLeft);
-    	isIdle = false;
-    	long length = p.getCPUtime();
-    	
-    	Event ret = null; //returning event
-    	
-    	//possible event strings in this variant
-		String procdone = "Proc Complete";
-		String quantumUp = "Quantum Expired";
-    	
-    	//quantum expires, update service time
-    	if(quantum < length) {
-    		long t = timestamp + quantum + switchCost;
-    		rawActiveTime += (t - timestamp);
-    		lastLeft = t;
-    		p.updateCPUtime(quantum);
-    		ret = new Event(t, p, quantumUp, eid);
-    		
+    		run = burst;
+    		ret = Event.IOFAULT;
     	}
-    	//process completes
     	else {
-    		long t = timestamp + length + switchCost;
-    		rawActiveTime += (t - timestamp);
-    		lastLeft = t;
-    		ret = new Event(t, p, procdone, eid);
-    		isIdle = true;
+    		run = length;
+    		ret = Event.PROCDONE;
     	}
-    	
-    	//switch cost will never change. Each time this method is called, add the switchCost
-    	rawSwitchTime += switchCost;
-    	
-    	return ret;	
-    }
-    
-    //IO FAULTS ENABLED PRE-EMPTION DISABLED
-    public Event loadProc_noPreemption(Proc p, long timestamp, long eid) {
-    	rawIdleTime += Math.abs(timestamp - lastLeft);
-    	isIdle = false;
-    	long burst = p.getBurstTime();
-    	long length = p.getCPUtime();
-    	
-    	Event ret = null; //returning Event
-    	
-    	//possible event strings in this variant
-    	String iofault = "I/O Fault";
-		String procdone = "Proc Complete";
-    	
-    	//io fault, update service time, and reset burst
-    	if(burst < length) {
-    		long t = timestamp + burst + switchCost;
-    		//t is when the proc leaves the cpu, while timestamp is when it entered.  The active time of the CPU is the difference of those times.
-    		rawActiveTime += (t - timestamp);
-    		lastLeft = t;
-    		p.updateCPUtime(burst);
-    		p.resetBurst();
-    		ret = new Event(t, p, iofault, eid);
+
+    	//quantum expires, update burst and service
+    	if(ret == Event.QUANTUM_UP) {
+    		procs.updateCPUtime(slot, quantum);
+    		procs.updateBurstTime(slot, quantum);
     	}
-    	//proc completes on cpu
-    	else {
-    		long t = timestamp + length + switchCost;
-    		rawActiveTime += (t - timestamp);
-    		lastLeft = t;
-    		ret = new Event(t, p, procdone, eid);
+    	//io fault, update service time. reset burst
+    	else if(ret == Event.IOFAULT) {
+    		procs.updateCPUtime(slot, burst);
+    		procs.resetBurst(slot);
+    	}
+    	//service time is lowest, proc completes. With pre-emption but no I/O faults, the original accounting frees the cpu as
+    	//soon as its process is slated to complete.
+    	else if(!ioFaults && quantum != NEVER && !chargeLeft) {
+    		setIdle(true);
     	}
     	
-    	//switch cost will never change. Each time this method is called, add the switchCost
-    	rawSwitchTime += switchCost;
-    	
-    	return ret;
-    }
-    
-    //IO FAULTS AND PRE-EMPTION DISABLED
-    public Event loadProc_noIOnoPreemption(Proc p, long timestamp, long eid) {
-    	
-    	Event ret = null;
-    	
-    	rawIdleTime += Math.abs(timestamp - lastLeft);
-    	isIdle = false;
-    	
-    	//get proc's service time
-    	long length = p.getCPUtime();
-    	
-    	//possible event strings in this variant
-		String procdone = "Proc Complete";
-    	
-    	long t = timestamp + length + switchCost;
-    	rawActiveTime += (t - timestamp);
-    	lastLeft = t;
-    	ret = new Event(t, p, procdone, eid);
-    	
-    	//switch cost will never change. Each time this method is called, add the switchCost
+    	//remember the last time at which a proc left the cpu. CPU is idle until the next arrives
+    	lastLeft = timestamp + run + switchCost + lastPenalty;
+    	//active time is from when this process entered the cpu, until the time it's slated to leave
+    	rawActiveTime += run + switchCost + lastPenalty;
+    	//switch cost will never change. Each time this method is called, add the switchCost. The migration penalty is kept apart.
     	rawSwitchTime += switchCost;
+    	rawMigrationTime += lastPenalty;
     	
     	return ret;
     }
@@ -0,0 +1,360 @@
+/**
+ * @(#)CalendarQueue.java
+ * An EventSet implemented as a calendar queue (R. Brown, "Calendar Queues", CACM 1988). Time is divided into buckets of a
+ * fixed width, like the days of a year, and each event goes in the bucket for its timestamp modulo the length of the year.
+ * Each bucket is a short sorted list, so adding and removing events takes amortized constant time as long as the bucket
+ * width matches the spacing of the events. The number of buckets doubles or halves as the set grows or shrinks, and the
+ * width is re-estimated from the spacing of the earliest events every time it does.
+ *
+ * Events live in parallel primitive arrays linked through next[], and freed nodes are reused, so steady-state operation
+ * doesn't allocate.
+ *
+ * The calendar is laid out on a key that packs the timestamp and the kind code together, (timestamp << KIND_BITS) | kind,
+ * so ordering by key and then event id is exactly Event.before. Events with the same timestamp and kind are then added in
+ * event id order, and always go on the end of their bucket. Timestamps must be below 2^60 for the key to fit.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class CalendarQueue implements EventSet {
+	private static final int MIN_BUCKETS = 16; //the calendar never shrinks below this many buckets
+	private static final int SAMPLE = 25; //number of earliest events used to estimate a new bucket width
+	private static final int KIND_BITS = 3; //low bits of a key holding the kind code
+	private static final long KIND_MASK = (1L << KIND_BITS) - 1;
+	public static final long MAX_TIME = (1L << (63 - KIND_BITS)) - 1; //latest timestamp the calendar can hold
+
+	//event nodes
+	private long keys[]; //(timestamp << KIND_BITS) | kind of each event
+	private int procs[]; //process table slot of each event's process
+	private long eids[]; //event id of each event
+	private int next[]; //next node in the same bucket, or the next free node. -1 ends a list.
+	private int freeHead; //first free node
+	private int used; //number of nodes ever handed out
+
+	//the calendar
+	private int buckets[]; //first node of each bucket's sorted list, -1 if the bucket is empty
+	private int tails[]; //last node of each bucket's sorted list
+	private int mask; //number of buckets - 1. The number of buckets is always a power of two.
+	private long width; //range of keys covered by one bucket
+	private int size; //number of events in the set
+
+	//where the search for the next event left off
+	private int lastBucket; //bucket the last event came out of
+	private long bucketTop; //end of the current year's window for lastBucket. Every event is at or after bucketTop - width.
+	private int minBucket; //bucket holding the next event, or -1 if it has to be searched for again
+	private int misses; //searches that went a whole year without finding an event since the width was last estimated
+	private long sampleTimes[]; //scratch space for width estimates
+
+    public CalendarQueue() {
+    	clear();
+    }
+
+    //empties the set, back to how it was built
+    private void clear() {
+    	int cap = 64;
+    	keys = new long[cap];
+    	procs = new int[cap];
+    	eids = new long[cap];
+    	next = new int[cap];
+    	freeHead = -1;
+    	used = 0;
+
+    	buckets = new int[MIN_BUCKETS];
+    	Arrays.fill(buckets, -1);
+    	tails = new int[MIN_BUCKETS];
+    	mask = MIN_BUCKETS - 1;
+    	width = 1;
+    	size = 0;
+    	lastBucket = 0;
+    	bucketTop = width;
+    	minBucket = -1;
+    	misses = 0;
+    	sampleTimes = new long[SAMPLE];
+    }
+
+    //Getter methods
+    public int size() {
+    	return size;
+    }
+
+    public boolean isEmpty() {
+    	return size == 0;
+    }
+
+    public long peekTime() {
+    	return keys[head()] >>> KIND_BITS;
+    }
+
+    public int peekKind() {
+    	return (int) (keys[head()] & KIND_MASK);
+    }
+
+    public int peekProc() {
+    	return procs[head()];
+    }
+
+    public long peekEid() {
+    	return eids[head()];
+    }
+
+    //the node of the next event. locate() can rebuild the bucket array, so it has to run before buckets is read.
+    private int head() {
+    	int b = locate();
+    	return buckets[b];
+    }
+
+    //true if node a should come out of the set before node b
+    private boolean before(int a, int b) {
+    	if(keys[a] != keys[b]) {
+    		return keys[a] < keys[b];
+    	}
+    	return eids[a] < eids[b];
+    }
+
+    //the bucket a key belongs in
+    private int bucketOf(long key) {
+    	return (int) ((key / width) & mask);
+    }
+
+    //gets a node from the free list, or a new one
+    private int newNode() {
+    	if(freeHead >= 0) {
+    		int n = freeHead;
+    		freeHead = next[n];
+    		return n;
+    	}
+    	if(used == keys.length) {
+    		int cap = used * 2;
+    		keys = Arrays.copyOf(keys, cap);
+    		procs = Arrays.copyOf(procs, cap);
+    		eids = Arrays.copyOf(eids, cap);
+    		next = Arrays.copyOf(next, cap);
+    	}
+    	int n = used;
+    	used++;
+    	return n;
+    }
+
+    //links a node into its bucket's sorted list
+    private void insert(int n) {
+    	int b = bucketOf(keys[n]);
+    	int cur = buckets[b];
+    	if(cur < 0) {
+    		next[n] = -1;
+    		buckets[b] = n;
+    		tails[b] = n;
+    		return;
+    	}
+    	if(!before(n, tails[b])) {
+    		next[n] = -1;
+    		next[tails[b]] = n;
+    		tails[b] = n;
+    		return;
+    	}
+    	if(before(n, cur)) {
+    		next[n] = cur;
+    		buckets[b] = n;
+    		return;
+    	}
+    	//somewhere in the middle. The tail check above means this walk always stops before the end of the list.
+    	while(!before(n, next[cur])) {
+    		cur = next[cur];
+    	}
+    	next[n] = next[cur];
+    	next[cur] = n;
+    }
+
+    public void add(long time, int kind, int proc, long eid) {
+    	if(time < 0 || time > MAX_TIME) {
+    		throw new IllegalArgumentException("Event time " + time + " is outside what a calendar queue can hold.");
+    	}
+    	long key = (time << KIND_BITS) | kind;
+    	int n = newNode();
+    	keys[n] = key;
+    	procs[n] = proc;
+    	eids[n] = eid;
+    	insert(n);
+    	size++;
+
+    	//an event before the current window moves the search back to it
+    	if(key < bucketTop - width) {
+    		lastBucket = bucketOf(key);
+    		bucketTop = ((key / width) + 1) * width;
+    	}
+    	minBucket = -1;
+
+    	if(size > 2 * (mask + 1)) {
+    		resize((mask + 1) * 2);
+    	}
+    }
+
+    public void remove() {
+    	int b = locate();
+    	int n = buckets[b];
+    	buckets[b] = next[n];
+    	next[n] = freeHead;
+    	freeHead = n;
+    	size--;
+    	minBucket = -1;
+
+    	if(size < (mask + 1) / 2 && mask + 1 > MIN_BUCKETS) {
+    		resize((mask + 1) / 2);
+    	}
+    }
+
+    //finds the bucket holding the next event. Walks forward one bucket per step of the current year, and falls back to
+    //checking the head of every bucket if a whole year passes without an event.
+    private int locate() {
+    	if(minBucket >= 0) {
+    		return minBucket;
+    	}
+    	int b = lastBucket;
+    	long top = bucketTop;
+    	for(int i = 0; i <= mask; i++) {
+    		int h = buckets[b];
+    		if(h >= 0 && keys[h] < top) {
+    			lastBucket = b;
+    			bucketTop = top;
+    			minBucket = b;
+    			return b;
+    		}
+    		b = (b + 1) & mask;
+    		top += width;
+    	}
+
+    	//no event within a year of the last one. If that keeps happening the buckets are too narrow, so re-estimate the width.
+    	misses++;
+    	if(misses > mask + 1) {
+    		resize(mask + 1);
+    		return locate();
+    	}
+
+    	//jump straight to the earliest bucket head
+    	int best = -1;
+    	for(int i = 0; i <= mask; i++) {
+    		int h = buckets[i];
+    		if(h >= 0 && (best < 0 || before(h, buckets[best]))) {
+    			best = i;
+    		}
+    	}
+    	long k = keys[buckets[best]];
+    	lastBucket = best;
+    	bucketTop = ((k / width) + 1) * width;
+    	minBucket = best;
+    	return best;
+    }
+
+    //estimates a bucket width from the spacing of the earliest events: three times their average separation, after
+    //throwing out separations more than twice the first average
+    private long estimateWidth() {
+    	//keep the SAMPLE earliest keys seen, in order. Costs O(size) like the rebuild that follows it.
+    	int n = 0;
+    	for(int i = 0; i <= mask; i++) {
+    		for(int c = buckets[i]; c >= 0; c = next[c]) {
+    			long t = keys[c];
+    			if(n == SAMPLE && t >= sampleTimes[n - 1]) {
+    				continue;
+    			}
+    			int j = (n < SAMPLE) ? n++ : n - 1;
+    			while(j > 0 && sampleTimes[j - 1] > t) {
+    				sampleTimes[j] = sampleTimes[j - 1];
+    				j--;
+    			}
+    			sampleTimes[j] = t;
+    		}
+    	}
+    	if(n < 2 || sampleTimes[n - 1] == sampleTimes[0]) {
+    		return width;
+    	}
+    	double avg = (sampleTimes[n - 1] - sampleTimes[0]) / (double) (n - 1);
+    	double sum = 0;
+    	int count = 0;
+    	for(int i = 1; i < n; i++) {
+    		long sep = sampleTimes[i] - sampleTimes[i - 1];
+    		if(sep <= 2 * avg) {
+    			sum += sep;
+    			count++;
+    		}
+    	}
+    	if(count > 0 && sum > 0) {
+    		avg = sum / count;
+    	}
+    	return Math.max(1, (long) Math.ceil(3 * avg));
+    }
+
+    //rebuilds the calendar with a new number of buckets and a freshly estimated width. Nodes are relinked, not copied.
+    private void resize(int numBuckets) {
+    	long newWidth = estimateWidth();
+    	int old[] = buckets;
+    	buckets = new int[numBuckets];
+    	Arrays.fill(buckets, -1);
+    	tails = new int[numBuckets];
+    	mask = numBuckets - 1;
+    	width = newWidth;
+
+    	long earliest = Long.MAX_VALUE;
+    	for(int i = 0; i < old.length; i++) {
+    		int c = old[i];
+    		while(c >= 0) {
+    			int nx = next[c];
+    			if(keys[c] < earliest) {
+    				earliest = keys[c];
+    			}
+    			insert(c);
+    			c = nx;
+    		}
+    	}
+    	if(earliest == Long.MAX_VALUE) {
+    		earliest = 0;
+    	}
+    	lastBucket = bucketOf(earliest);
+    	bucketTop = ((earliest / width) + 1) * width;
+    	minBucket = -1;
+    	misses = 0;
+    }
+
+    //walks the buckets without moving the search, so saving changes nothing about what comes out next
+    public void save(CheckpointWriter w) throws IOException {
+    	long times[] = new long[size];
+    	int kinds[] = new int[size];
+    	int slots[] = new int[size];
+    	long ids[] = new long[size];
+    	int n = 0;
+    	for(int i = 0; i <= mask; i++) {
+    		for(int c = buckets[i]; c >= 0; c = next[c]) {
+    			times[n] = keys[c] >>> KIND_BITS;
+    			kinds[n] = (int) (keys[c] & KIND_MASK);
+    			slots[n] = procs[c];
+    			ids[n] = eids[c];
+    			n++;
+    		}
+    	}
+    	w.putInt(n);
+    	w.putLongs(times, n);
+    	w.putInts(kinds, n);
+    	w.putInts(slots, n);
+    	w.putLongs(ids, n);
+    }
+
+    //the calendar is rebuilt by adding the events again. Its buckets may come out another size than before, but the events
+    //come out in the same order whatever the buckets are.
+    public void restore(CheckpointReader r) throws IOException {
+    	int n = r.getInt();
+    	long times[] = new long[n];
+    	int kinds[] = new int[n];
+    	int slots[] = new int[n];
+    	long ids[] = new long[n];
+    	r.getLongs(times, n);
+    	r.getInts(kinds, n);
+    	r.getInts(slots, n);
+    	r.getLongs(ids, n);
+    	clear();
+    	for(int i = 0; i < n; i++) {
+    		add(times[i], kinds[i], slots[i], ids[i]);
+    	}
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * @(#)Checkpoint.java
+ * Saves the complete state of a running simulation to a checkpoint file, and restores it into a new one, so a long run
+ * that dies can be resumed from its last checkpoint, and any number of what-if runs can start from one warmed-up state.
+ * A run resumed from a checkpoint goes on exactly as the run that saved it would have: the process table comes back slot
+ * for slot, every queue in its order, every random number stream at its exact state and every statistic bit for bit, so
+ * it ends with the same output the uninterrupted run would have printed.
+ *
+ * A checkpoint is taken between two events. It holds the run's command line, which a resumed run starts from, then each
+ * part of the simulation in turn, written by that part's own save method. All numbers are big-endian (see
+ * CheckpointWriter), and CheckpointReader maps the file to read it.
+ *   the 8 bytes "SCHDCKP1"
+ *   int number of arguments, then each argument as an int length and UTF-8 bytes
+ *   long seed, int cpus, int process types, the policy and run queues names, and whether processes are replayed
+ *   where the event loop has got to: long time, int iteration, long event and ready queue length sums, long samples,
+ *   boolean warmed up, int batches checked for convergence, then long events made and long events processed
+ *   the root random number stream, the process table, the pending events, each cpu, each process generator, the shared
+ *   ready queue's policy, the per-cpu run queues if there are any, the steady-state statistics, and for a replayed trace
+ *   long records read and long arrival time of the last
+ *   the 8 bytes "SCHDCKPE"
+ *
+ * Parameters given after --resume override the saved command line, like the quantum, switch time, migration costs or
+ * balance interval, for a what-if from the saved state, and --branch gives a resumed run random numbers of its own. What
+ * the state is made of can't change: the cpus, process types, policy, run queues, stop time, warm-up and batches must match.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class Checkpoint {
+	public static final byte MAGIC[] = "SCHDCKP1".getBytes(StandardCharsets.US_ASCII);
+	public static final byte END[] = "SCHDCKPE".getBytes(StandardCharsets.US_ASCII);
+
+   /**The command line a checkpoint saves: the run's own, less --resume and --branch, which only apply to the run they are
+    *given to
+    *
+    *@param args -- the command line parameters
+    *@return String[] -- the parameters to save
+    */
+    public static String[] runArgs(String args[]) {
+    	List<String> kept = new ArrayList<String>();
+    	for(int i = 0; i < args.length; i++) {
+    		if(args[i].equals("--resume") || args[i].equals("--branch")) {
+    			i++;
+    			continue;
+    		}
+    		kept.add(args[i]);
+    	}
+    	return kept.toArray(new String[0]);
+    }
+
+    //reads the command line a checkpoint was saved with, before anything is built to restore it into
+    public static String[] readArgs(File f) throws IOException {
+    	try(CheckpointReader r = new CheckpointReader(f, 0)) {
+    		return getArgs(r);
+    	}
+    	catch(BufferUnderflowException e) {
+    		throw new IOException(f + " is damaged, or from another version");
+    	}
+    }
+
+    private static String[] getArgs(CheckpointReader r) {
+    	String args[] = new String[r.getInt()];
+    	for(int i = 0; i < args.length; i++) {
+    		args[i] = r.getString();
+    	}
+    	return args;
+    }
+
+   /**Saves a simulation between two events. The checkpoint replaces the file only once it is complete.
+    *
+    *@param sim -- the simulation, with its event loop's position in its loop fields
+    *@param f -- the checkpoint file
+    */
+    public static void save(Simulation sim, File f) throws IOException {
+    	CheckpointWriter w = new CheckpointWriter(f);
+    	try {
+    		w.putInt(sim.runArgs.length);
+    		for(String a : sim.runArgs) {
+    			w.putString(a);
+    		}
+    		w.putLong(sim.seed);
+    		w.putInt(sim.numcpus);
+    		w.putInt(sim.procgens.length);
+    		w.putString(sim.policyName);
+    		w.putString(sim.runQueueMode);
+    		w.putBoolean(sim.replay != null);
+
+    		w.putLong(sim.loopTime);
+    		w.putInt(sim.loopIteration);
+    		w.putLong(sim.loopSumEventQ);
+    		w.putLong(sim.loopSumReadyQ);
+    		w.putLong(sim.loopSamples);
+    		w.putBoolean(sim.loopWarmedUp);
+    		w.putInt(sim.loopChecked);
+    		w.putLong(sim.eventsMade);
+    		w.putLong(sim.eventsProcessed);
+
+    		w.putRandom(sim.rng);
+    		sim.procTable.save(w);
+    		sim.eventQueue.save(w);
+    		for(CPU cpu : sim.cpus) {
+    			cpu.save(w);
+    		}
+    		for(ProcGenerator pg : sim.procgens) {
+    			pg.save(w);
+    		}
+    		sim.readyQueue.save(w);
+    		if(sim.runQueues != null) {
+    			sim.runQueues.save(w);
+    		}
+    		sim.steady.save(w);
+    		if(sim.replay != null) {
+    			w.putLong(sim.replay.getRead());
+    			w.putLong(sim.replay.getArrival());
+    		}
+    		w.close();
+    	}
+    	catch(IOException | RuntimeException e) {
+    		w.abort();
+    		throw e;
+    	}
+    }
+
+   /**Restores a checkpoint into a simulation that has been set up from the checkpoint's command line, but hasn't made any
+    *processes or events. Throws an IOException if the checkpoint doesn't fit it.
+    *
+    *@param sim -- the simulation
+    *@param f -- the checkpoint file
+    *@param branch -- 0 to go on exactly as the saved run would have, or the branch to move every random number stream to
+    */
+    public static void restore(Simulation sim, File f, long branch) throws IOException {
+    	try(CheckpointReader r = new CheckpointReader(f, branch)) {
+    		getArgs(r);
+    		sim.seed = r.getLong();
+    		r.expect("cpus", r.getInt(), sim.numcpus);
+    		r.expect("process types", r.getInt(), sim.procgens.length);
+    		r.expect("policy", r.getString(), sim.policyName);
+    		r.expect("run queues", r.getString(), sim.runQueueMode);
+    		r.expect("processes", r.getBoolean() ? "replayed" : "generated", (sim.replay != null) ? "replayed" : "generated");
+
+    		sim.loopTime = r.getLong();
+    		sim.loopIteration = r.getInt();
+    		sim.loopSumEventQ = r.getLong();
+    		sim.loopSumReadyQ = r.getLong();
+    		sim.loopSamples = r.getLong();
+    		sim.loopWarmedUp = r.getBoolean();
+    		sim.loopChecked = r.getInt();
+    		sim.eventsMade = r.getLong();
+    		sim.eventsProcessed = r.getLong();
+
+    		r.getRandom(sim.rng);
+    		sim.procTable.restore(r);
+    		sim.eventQueue.restore(r);
+    		for(CPU cpu : sim.cpus) {
+    			cpu.restore(r);
+    		}
+    		for(ProcGenerator pg : sim.procgens) {
+    			pg.restore(r);
+    		}
+    		sim.readyQueue.restore(r);
+    		if(sim.runQueues != null) {
+    			sim.runQueues.restore(r);
+    		}
+    		sim.steady.restore(r);
+    		if(sim.replay != null) {
+    			long read = r.getLong();
+    			sim.replay.seek(read, r.getLong());
+    		}
+    		r.end();
+    	}
+    	catch(BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+    		throw new IOException(f + " is damaged, or from another version");
+    	}
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * @(#)CheckpointReader.java
+ * Reads a checkpoint written by CheckpointWriter. The whole file is mapped into memory with a MappedByteBuffer and
+ * decoded in place, so there is no read buffering: arrays come out of the mapping with one bulk copy each, and the pages
+ * of a checkpoint that many runs resume from at once are shared by all of them through the operating system's cache.
+ *
+ * A reader can also branch: with a branch number other than 0, every random number stream read is moved to an unrelated
+ * stream picked by that number, so runs resumed from one checkpoint under different branch numbers go their own ways from
+ * the same state.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+public class CheckpointReader implements Closeable {
+	private File file;
+	private FileChannel channel;
+	private MappedByteBuffer buf; //the whole checkpoint
+	private long branch; //0 to read random number streams as they were saved, or the branch to move them to
+
+   /**Constructor which maps a checkpoint and checks that it is one
+    *
+    *@param f -- the checkpoint file
+    *@param b -- the branch number, 0 for none
+    */
+    public CheckpointReader(File f, long b) throws IOException {
+    	file = f;
+    	branch = b;
+    	channel = FileChannel.open(f.toPath());
+    	try {
+    		long size = channel.size();
+    		if(size > Integer.MAX_VALUE) {
+    			throw new IOException(f + " is too large to map at once");
+    		}
+    		buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    		byte magic[] = new byte[Checkpoint.MAGIC.length];
+    		if(buf.remaining() < magic.length) {
+    			throw new IOException(f + " is too short to be a checkpoint");
+    		}
+    		buf.get(magic);
+    		if(!java.util.Arrays.equals(magic, Checkpoint.MAGIC)) {
+    			throw new IOException(f + " is not a checkpoint");
+    		}
+    	}
+    	catch(IOException | RuntimeException e) {
+    		channel.close();
+    		throw e;
+    	}
+    }
+
+    public File getFile() {
+    	return file;
+    }
+
+    public long getLong() {
+    	return buf.getLong();
+    }
+
+    public int getInt() {
+    	return buf.getInt();
+    }
+
+    public double getDouble() {
+    	return buf.getDouble();
+    }
+
+    public boolean getBoolean() {
+    	return buf.get() != 0;
+    }
+
+    public String getString() {
+    	return new String(getBytes(), StandardCharsets.UTF_8);
+    }
+
+    public byte[] getBytes() {
+    	byte b[] = new byte[buf.getInt()];
+    	buf.get(b);
+    	return b;
+    }
+
+    //restores a random number stream's state, moved to the branch if there is one
+    public void getRandom(FastRandom r) {
+    	long s[] = new long[4];
+    	for(int i = 0; i < 4; i++) {
+    		s[i] = buf.getLong();
+    	}
+    	r.setState(s);
+    	if(branch != 0) {
+    		r.reseed(branch);
+    	}
+    }
+
+   /**Reads n values written by putLongs into the start of an array
+    *
+    *@param a -- the array, at least n long
+    *@param n -- the number of values
+    */
+    public void getLongs(long a[], int n) {
+    	buf.asLongBuffer().get(a, 0, n);
+    	buf.position(buf.position() + n * 8);
+    }
+
+    public void getInts(int a[], int n) {
+    	buf.asIntBuffer().get(a, 0, n);
+    	buf.position(buf.position() + n * 4);
+    }
+
+    public void getDoubles(double a[], int n) {
+    	buf.asDoubleBuffer().get(a, 0, n);
+    	buf.position(buf.position() + n * 8);
+    }
+
+   /**Checks that a setting the checkpoint was saved with matches this run's, since the saved state only fits a simulation
+    *built the same way
+    *
+    *@param what -- the setting, as the message should name it
+    *@param saved -- its value in the checkpoint
+    *@param now -- its value in this run
+    */
+    public void expect(String what, Object saved, Object now) throws IOException {
+    	if(!saved.equals(now)) {
+    		throw new IOException(file + " was saved with " + what + " " + saved + ", not " + now);
+    	}
+    }
+
+    //checks for the end of the checkpoint, which is only there if every value before it was read back as it was written
+    public void end() throws IOException {
+    	byte end[] = new byte[Checkpoint.END.length];
+    	if(buf.remaining() != end.length) {
+    		throw new IOException(file + " is damaged, or from another version");
+    	}
+    	buf.get(end);
+    	if(!java.util.Arrays.equals(end, Checkpoint.END)) {
+    		throw new IOException(file + " is damaged, or from another version");
+    	}
+    }
+
+    public void close() throws IOException {
+    	buf = null;
+    	channel.close();
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * @(#)CheckpointWriter.java
+ * Writes a checkpoint, a binary snapshot of a whole simulation (see Checkpoint for what is in one). Values go straight
+ * into a direct buffer that is written out whenever it fills, and arrays are copied in bulk, so saving a table of a million
+ * processes is a handful of large writes. All numbers are big-endian, and doubles are written as their exact bits.
+ *
+ * The checkpoint is written to a temporary file beside it and only renamed over the old checkpoint once it is complete
+ * and on disk, so a run that dies while writing one still leaves the last good checkpoint behind.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+public class CheckpointWriter implements Closeable {
+	public static final int BUFFER_BYTES = 1 << 20;
+
+	private File file; //the checkpoint
+	private File temp; //where it is written until it is complete
+	private FileChannel channel;
+	private ByteBuffer buf; //values not yet written to the file
+
+   /**Constructor which starts a checkpoint
+    *
+    *@param f -- the checkpoint file, replaced once the new checkpoint is complete
+    */
+    public CheckpointWriter(File f) throws IOException {
+    	file = f;
+    	temp = new File(f.getPath() + ".tmp");
+    	channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+    		StandardOpenOption.TRUNCATE_EXISTING);
+    	buf = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    	buf.put(Checkpoint.MAGIC);
+    }
+
+    //writes out the buffer
+    private void flush() throws IOException {
+    	buf.flip();
+    	while(buf.hasRemaining()) {
+    		channel.write(buf);
+    	}
+    	buf.clear();
+    }
+
+    //makes room in the buffer for a value
+    private void room(int bytes) throws IOException {
+    	if(buf.remaining() < bytes) {
+    		flush();
+    	}
+    }
+
+    public void putLong(long v) throws IOException {
+    	room(8);
+    	buf.putLong(v);
+    }
+
+    public void putInt(int v) throws IOException {
+    	room(4);
+    	buf.putInt(v);
+    }
+
+    public void putDouble(double v) throws IOException {
+    	room(8);
+    	buf.putDouble(v);
+    }
+
+    public void putBoolean(boolean v) throws IOException {
+    	room(1);
+    	buf.put((byte) (v ? 1 : 0));
+    }
+
+    //an int length, then the string's UTF-8 bytes
+    public void putString(String s) throws IOException {
+    	putBytes(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void putBytes(byte b[]) throws IOException {
+    	putInt(b.length);
+    	for(int i = 0; i < b.length; ) {
+    		room(1);
+    		int k = Math.min(b.length - i, buf.remaining());
+    		buf.put(b, i, k);
+    		i += k;
+    	}
+    }
+
+    //a random number stream's state
+    public void putRandom(FastRandom r) throws IOException {
+    	for(long s : r.getState()) {
+    		putLong(s);
+    	}
+    }
+
+   /**Writes the first n values of an array, without their count. The reader has to know it from something written before.
+    *
+    *@param a -- the array
+    *@param n -- the number of values
+    */
+    public void putLongs(long a[], int n) throws IOException {
+    	for(int i = 0; i < n; ) {
+    		room(8);
+    		int k = Math.min(n - i, buf.remaining() / 8);
+    		buf.asLongBuffer().put(a, i, k);
+    		buf.position(buf.position() + k * 8);
+    		i += k;
+    	}
+    }
+
+    public void putInts(int a[], int n) throws IOException {
+    	for(int i = 0; i < n; ) {
+    		room(4);
+    		int k = Math.min(n - i, buf.remaining() / 4);
+    		buf.asIntBuffer().put(a, i, k);
+    		buf.position(buf.position() + k * 4);
+    		i += k;
+    	}
+    }
+
+    public void putDoubles(double a[], int n) throws IOException {
+    	for(int i = 0; i < n; ) {
+    		room(8);
+    		int k = Math.min(n - i, buf.remaining() / 8);
+    		buf.asDoubleBuffer().put(a, i, k);
+    		buf.position(buf.position() + k * 8);
+    		i += k;
+    	}
+    }
+
+    //ends the checkpoint, waits for it to reach the disk, and puts it in place of the last one
+    public void close() throws IOException {
+    	if(channel == null) {
+    		return;
+    	}
+    	try {
+    		room(Checkpoint.END.length);
+    		buf.put(Checkpoint.END);
+    		flush();
+    		channel.force(false);
+    	}
+    	finally {
+    		channel.close();
+    		channel = null;
+    	}
+    	try {
+    		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    	}
+    	catch(AtomicMoveNotSupportedException e) {
+    		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    	}
+    }
+
+    //gives up on a checkpoint that couldn't be written, leaving the last one as it was
+    public void abort() {
+    	try {
+    		if(channel != null) {
+    			channel.close();
+    		}
+    	}
+    	catch(IOException e) {
+    		//the temporary file is deleted either way
+    	}
+    	channel = null;
+    	temp.delete();
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * @(#)ColumnarResultWriter.java
+ * Writes results as a compact columnar binary file, so one statistic across thousands of trials can be read without
+ * parsing the rest. Records are held back and written in blocks of up to BLOCK_ROWS records with the same fields. A
+ * record whose fields differ from the block's, and closing the file, end the block. All numbers are big-endian.
+ *
+ *   file header (once, at the start of the file):  "SCHDRES1"
+ *   block:    int rows, int columns, then each column in turn:
+ *   column:   short name length, UTF-8 name, byte kind (see ResultRecord), then its value in every row:
+ *             LONG an 8 byte long, DOUBLE an 8 byte double, STRING a short length and UTF-8 bytes
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+public class ColumnarResultWriter extends ResultWriter {
+	public static final byte MAGIC[] = "SCHDRES1".getBytes(StandardCharsets.US_ASCII);
+	public static final int BLOCK_ROWS = 1024; //most records in one block
+
+	private ResultRecord fields; //the field names and kinds of the block, or null if no records are held
+	private long values[][]; //per column and row: a LONG, or a DOUBLE's bits
+	private String strings[][]; //per column and row: a STRING, null for other kinds
+	private int rows; //records held
+
+    public ColumnarResultWriter(File f) throws IOException {
+    	super(f, "columnar");
+    	fields = null;
+    	rows = 0;
+    }
+
+    //whichever writer finds the file empty starts it with the file header. Blocks don't depend on what comes before them.
+    protected void fileChanged(long size) {
+    	if(size == 0) {
+    		ensure(MAGIC.length);
+    		System.arraycopy(MAGIC, 0, buf, len, MAGIC.length);
+    		len += MAGIC.length;
+    	}
+    }
+
+    protected void encode(ResultRecord r) {
+    	if(fields != null && (rows == BLOCK_ROWS || !fields.sameFields(r))) {
+    		finish();
+    	}
+    	if(fields == null) {
+    		//copy the field names and kinds, since the caller may reuse its record
+    		fields = new ResultRecord();
+    		for(int i = 0; i < r.size(); i++) {
+    			switch(r.getKind(i)) {
+    				case ResultRecord.LONG:
+    					fields.add(r.getName(i), 0L);
+    					break;
+    				case ResultRecord.DOUBLE:
+    					fields.add(r.getName(i), 0.0);
+    					break;
+    				default:
+    					fields.add(r.getName(i), "");
+    					break;
+    			}
+    		}
+    		values = new long[r.size()][BLOCK_ROWS];
+    		strings = new String[r.size()][];
+    		for(int i = 0; i < r.size(); i++) {
+    			if(r.getKind(i) == ResultRecord.STRING) {
+    				strings[i] = new String[BLOCK_ROWS];
+    			}
+    		}
+    	}
+    	for(int i = 0; i < r.size(); i++) {
+    		switch(fields.getKind(i)) {
+    			case ResultRecord.LONG:
+    				values[i][rows] = r.getLong(i);
+    				break;
+    			case ResultRecord.DOUBLE:
+    				values[i][rows] = Double.doubleToRawLongBits(r.getDouble(i));
+    				break;
+    			default:
+    				strings[i][rows] = r.getString(i);
+    				break;
+    		}
+    	}
+    	rows++;
+    }
+
+    //encodes the held records as one block
+    protected void finish() {
+    	if(fields == null) {
+    		return;
+    	}
+    	appendRawInt(rows);
+    	appendRawInt(fields.size());
+    	for(int c = 0; c < fields.size(); c++) {
+    		appendShortString(fields.getName(c));
+    		appendByte(fields.getKind(c));
+    		for(int row = 0; row < rows; row++) {
+    			if(fields.getKind(c) == ResultRecord.STRING) {
+    				appendShortString(strings[c][row]);
+    			}
+    			else {
+    				appendRawLong(values[c][row]);
+    			}
+    		}
+    	}
+    	fields = null;
+    	values = null;
+    	strings = null;
+    	rows = 0;
+    }
+
+    //appends a string as a short length and its UTF-8 bytes
+    private void appendShortString(String s) {
+    	int start = len;
+    	ensure(2);
+    	len += 2;
+    	appendUtf8(s);
+    	int n = len - start - 2;
+    	if(n > 0xFFFF) {
+    		throw new IllegalArgumentException("string too long for a results file: " + n + " bytes");
+    	}
+    	buf[start] = (byte) (n >>> 8);
+    	buf[start + 1] = (byte) n;
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * @(#)CsvResultWriter.java
+ * Writes results as CSV, one line per record, under a header line of the field names. A record whose fields differ from the
+ * header's gets a new header line first, so a file mixing, say, different numbers of cpus can be split at its header lines.
+ * Strings are quoted when they hold a comma, quote or line break. An existing file is appended to, and every writer starts
+ * with a header line of its own, as it does again after another run has appended to the file, since the header in effect
+ * at the end of the file may not be this writer's.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+
+public class CsvResultWriter extends ResultWriter {
+	private String header[]; //field names of the current header line, or null before there is one
+
+    public CsvResultWriter(File f) throws IOException {
+    	super(f, "csv");
+    	header = null;
+    }
+
+    //the next record needs a header line of its own
+    protected void fileChanged(long size) {
+    	header = null;
+    }
+
+    //true if the current header names the record's fields
+    private boolean headerMatches(ResultRecord r) {
+    	if(header == null || header.length != r.size()) {
+    		return false;
+    	}
+    	for(int i = 0; i < header.length; i++) {
+    		if(!header[i].equals(r.getName(i))) {
+    			return false;
+    		}
+    	}
+    	return true;
+    }
+
+    protected void encode(ResultRecord r) {
+    	if(!headerMatches(r)) {
+    		header = new String[r.size()];
+    		for(int i = 0; i < header.length; i++) {
+    			header[i] = r.getName(i);
+    			if(i > 0) {
+    				appendByte(',');
+    			}
+    			appendField(header[i]);
+    		}
+    		appendByte('\n');
+    	}
+    	for(int i = 0; i < r.size(); i++) {
+    		if(i > 0) {
+    			appendByte(',');
+    		}
+    		switch(r.getKind(i)) {
+    			case ResultRecord.LONG:
+    				appendLong(r.getLong(i));
+    				break;
+    			case ResultRecord.DOUBLE:
+    				appendDouble(r.getDouble(i));
+    				break;
+    			default:
+    				appendField(r.getString(i));
+    				break;
+    		}
+    	}
+    	appendByte('\n');
+    }
+
+    //appends a string, quoted if it needs to be
+    private void appendField(String s) {
+    	boolean quote = false;
+    	for(int i = 0; i < s.length() && !quote; i++) {
+    		char c = s.charAt(i);
+    		quote = (c == ',' || c == '"' || c == '\n' || c == '\r');
+    	}
+    	if(!quote) {
+    		appendUtf8(s);
+    		return;
+    	}
+    	appendByte('"');
+    	appendUtf8(s.replace("\"", "\"\""));
+    	appendByte('"');
+    }
+}
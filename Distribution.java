@@ -0,0 +1,28 @@
+/**
+ * @(#)Distribution.java
+ * A probability distribution for one of a process type's random times: cpu time, burst, interarrival or I/O service time.
+ * Every distribution is set up from the average the procgen file gives for that time, plus whatever shape parameters it
+ * takes, so swapping distributions changes the spread of the times but not their mean.
+ *
+ * In a procgen file, a process type line may end with declarations like cpu=pareto:1.5 or arrival=hyperexp:4, one per time.
+ * Times that aren't declared keep the original distributions: exponential, and uniform for bursts. See
+ * Simulation.createDistribution for every distribution and its parameters.
+ *
+ * Sampling has to be cheap, since it happens several times per process. No distribution calls a transcendental function
+ * on every sample.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+public interface Distribution {
+	public static final double MAX_SAMPLE = 1L << 40; //samples are capped here so heavy tails can't overflow the clock
+
+	//draws a value using the given random number stream
+	public double sample(FastRandom r);
+
+	public double getMean();
+
+	//the declaration this distribution was made from, like pareto:1.5
+	public String toString();
+}
@@ -0,0 +1,111 @@
+/**
+ * @(#)EmpiricalDistribution.java
+ * Empirical distribution taken from a file of observed values, like times measured from a production trace. The values give
+ * the shape of the distribution, and are scaled so their average is the mean from the procgen file, so one file can describe
+ * several times of different sizes. Samples are drawn with Walker's alias method: each distinct value gets a column holding
+ * its own share of probability topped up with one other value's, so a sample takes one random column and one coin flip
+ * no matter how many distinct values there are.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.util.*;
+import java.io.*;
+
+public class EmpiricalDistribution implements Distribution {
+	private double mean;
+	private String source; //the file the values came from
+	private double values[]; //the distinct values, already scaled
+	private double prob[]; //chance that column i gives values[i] instead of values[alias[i]]
+	private int alias[];
+
+   /**Constructor which reads the values from a file
+    *
+    *@param m -- the mean to scale the values to
+    *@param file -- whitespace separated values, at least one of them above 0
+    */
+    public EmpiricalDistribution(double m, File file) throws IOException {
+    	mean = m;
+    	source = file.getPath();
+    	TreeMap<Double, Integer> counts = new TreeMap<Double, Integer>();
+    	double sum = 0;
+    	int n = 0;
+    	try(Scanner s = new Scanner(file)) {
+    		while(s.hasNext()) {
+    			double v = Double.parseDouble(s.next());
+    			if(v < 0 || Double.isNaN(v) || Double.isInfinite(v)) {
+    				throw new IllegalArgumentException(source + " has a value that isn't a time: " + v);
+    			}
+    			counts.merge(v, 1, Integer::sum);
+    			sum += v;
+    			n++;
+    		}
+    	}
+    	if(sum <= 0) {
+    		throw new IllegalArgumentException(source + " needs at least one value above 0");
+    	}
+    	double scale = m / (sum / n);
+
+    	//Vose's construction of the alias table
+    	int k = counts.size();
+    	values = new double[k];
+    	prob = new double[k];
+    	alias = new int[k];
+    	double scaled[] = new double[k]; //each value's probability times k
+    	int i = 0;
+    	for(Map.Entry<Double, Integer> e : counts.entrySet()) {
+    		values[i] = e.getKey() * scale;
+    		scaled[i] = (double) e.getValue() * k / n;
+    		i++;
+    	}
+    	int small[] = new int[k];
+    	int large[] = new int[k];
+    	int numSmall = 0;
+    	int numLarge = 0;
+    	for(i = 0; i < k; i++) {
+    		if(scaled[i] < 1.0) {
+    			small[numSmall++] = i;
+    		}
+    		else {
+    			large[numLarge++] = i;
+    		}
+    	}
+    	while(numSmall > 0 && numLarge > 0) {
+    		int l = small[--numSmall];
+    		int g = large[--numLarge];
+    		prob[l] = scaled[l];
+    		alias[l] = g;
+    		scaled[g] = (scaled[g] + scaled[l]) - 1.0;
+    		if(scaled[g] < 1.0) {
+    			small[numSmall++] = g;
+    		}
+    		else {
+    			large[numLarge++] = g;
+    		}
+    	}
+    	//whatever is left over is a full column, up to rounding
+    	while(numLarge > 0) {
+    		prob[large[--numLarge]] = 1.0;
+    	}
+    	while(numSmall > 0) {
+    		prob[small[--numSmall]] = 1.0;
+    	}
+    }
+
+    public double sample(FastRandom r) {
+    	int i = r.nextInt(values.length);
+    	if(r.nextDouble() >= prob[i]) {
+    		i = alias[i];
+    	}
+    	return Math.min(values[i], MAX_SAMPLE);
+    }
+
+    public double getMean() {
+    	return mean;
+    }
+
+    public String toString() {
+    	return "empirical:" + source;
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * @(#)ErlangDistribution.java
+ * Erlang distribution: the sum of k exponential stages, each with mean mean/k. Less variable than an exponential with the
+ * same mean. Its coefficient of variation is 1/sqrt(k).
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+public class ErlangDistribution implements Distribution {
+	private double mean;
+	private int k; //number of stages
+	private double stageMean;
+
+    public ErlangDistribution(double m, int stages) {
+    	if(stages < 1) {
+    		throw new IllegalArgumentException("erlang needs at least 1 stage, not " + stages);
+    	}
+    	mean = m;
+    	k = stages;
+    	stageMean = m / stages;
+    }
+
+    public double sample(FastRandom r) {
+    	double sum = 0;
+    	for(int i = 0; i < k; i++) {
+    		sum += ExponentialDistribution.standard(r);
+    	}
+    	return Math.min(sum * stageMean, MAX_SAMPLE);
+    }
+
+    public double getMean() {
+    	return mean;
+    }
+
+    public String toString() {
+    	return "erlang:" + k;
+    }
+}
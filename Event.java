@@ -1,87 +1,45 @@
 /**
  * @(#)Event.java
- * Class representing an event within our simulation. Whenever anything happens to a process, or a process does anything, that is an event.
- * Types: new process, I/O fault, I/O complete, process complete. 
+ * The kinds of event within our simulation, and the order events happen in. Whenever anything happens to a process, or a process does anything, that is an event.
+ * Kinds: new process, I/O fault, I/O complete, process complete, quantum expired, and for per-cpu run queues steal and load balance.
+ * Events themselves are kept as primitive columns by the EventSet implementations, so there are no Event objects.
  *
  * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
  * @version 1.00 2016/2/23
  */
 
-import java.util.*;
-
-public class Event implements Comparable<Event> {
-	private long eid; //event id of this event
-	private Proc myProc; //the process with which an event is associated
-	private String procType; //process type name
-	private String eventType; //short descriptor of what generated this event
-	private long timestamp; //the timestamp (in time units) for this event
+public class Event {
+	//event kind codes. Every event carries one of these, and the event loop dispatches on it with a switch.
+	//A new kind needs a code here, a name in KIND_NAMES, and a case in Simulation.processEvent.
+	public static final int NEWPROC = 0;
+	public static final int IOFAULT = 1;
+	public static final int IODONE = 2;
+	public static final int PROCDONE = 3;
+	public static final int QUANTUM_UP = 4;
+	public static final int STEAL = 5; //per-cpu run queues only: an idle cpu looks for a process to steal. Its slot is the cpu.
+	public static final int BALANCE = 6; //per-cpu run queues only: the loads of the cpus are evened out
 	
-   /**
-    *Constructor method which takes all information necessary to create an Event
-    *
-    *@param time -- the timestamp for this new event
-    *@param proc -- the associated process
-    *@param type -- short descriptor for what is generating this event
-    *@param event -- this event's id
-    *@param verbose
-    *@return Event -- a new Event with its data set to the parameters
-    */
-    public Event(long time, Proc proc, String type, long event) {
-    	timestamp = time;
-    	myProc = proc;
-    	eid = event;
-    	eventType = type;
-    }
-    	
-    //Getter methods
-    public long getpid() {
-    	return myProc.getpid();
-    }
-    
-    public long geteid() {
-    	return eid;
-    }
-    
-    public long getTimestamp() {
-    	return timestamp;
-    }
-    
-    public String getType() {
-    	return eventType;
-    }
-    
-    public Proc getProc() {
-    	return myProc;
-    }
-    
-    //VERBOSE MODE -- print creation message for a new process.
-    public void verboseCreateProc() {
-    	String s = ("Created Proc(" + myProc.getpid() + ") Type: " + myProc.getType());
-    	s += (" at time: " + timestamp + " CPU service time: " + myProc.getCPUtime() + " Burst time: " + myProc.getBurstTime());
-    	s += (" I/O time: " + myProc.getIOTime());
-    	System.out.println(s);
-    }
-
-    //VERBOSE MODE -- prints confirmation of Event creation
-    public void verboseEventPrint() {
-    	System.out.println("New Event: EventID(" + eid + "), Type: " + eventType + " of type " + myProc.getType() + "(" + myProc.getTypeInd() +
-    		"), Timestamp: " + timestamp);	
-    }
-    
-    //VERBOSE MODE -- prints confirmation of initial Event creation at the start of the simulation
-    public void verboseInitEventPrint() {
-    	System.out.println("Added initial process generation event for type " + myProc.getType() + "(" + myProc.getTypeInd() + ") at time " + timestamp);
-    }
-    
-    public String toString() {
-    	String s = ("Event ID:" +eid + ", Type: " + eventType + ", Process: " + myProc.getpid() + ", Timestamp: " + timestamp);
-    	return s;
-    }
-    
-    //comparison method to complete Comparable implementation. Events are stored in a priority queue, and should be ordered by their timestamps
-    @Override
-    public int compareTo(Event other) {
-    	return (int)(timestamp - other.timestamp);
+	//type string for each event kind code, in code order
+	private static final String KIND_NAMES[] = {"New Proc", "I/O Fault", "I/O Complete", "Proc Complete", "Quantum Expired", "Steal", "Load Balance"};
+	
+    //returns the type string for an event kind code
+    public static String kindName(int kind) {
+    	return KIND_NAMES[kind];
     }
     
-}
\ No newline at end of file
+   /**The order events are processed in, shared by every event queue so they all produce the same trace. Events are ordered
+    *by timestamp, then by kind code, then by event id. Event ids are unique, so no two events are ever tied. Timestamps are
+    *compared directly rather than subtracted, so the order holds over the whole range of long.
+    *
+    *@return boolean -- true if the first event comes before the second
+    */
+    public static boolean before(long time1, int kind1, long eid1, long time2, int kind2, long eid2) {
+    	if(time1 != time2) {
+    		return time1 < time2;
+    	}
+    	if(kind1 != kind2) {
+    		return kind1 < kind2;
+    	}
+    	return eid1 < eid2;
+    }
+}
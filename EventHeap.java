@@ -0,0 +1,178 @@
+/**
+ * @(#)EventHeap.java
+ * The default EventSet. Events are stored in parallel primitive arrays (timestamp, event kind code, process slot and
+ * event id) arranged as a 4-ary min heap, so adding and removing events never allocates once the arrays have grown to the
+ * largest queue length seen. Array positions freed by removed events are reused by the next events added.
+ * Events are ordered by Event.before: timestamp, then kind code, then event id.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class EventHeap implements EventSet {
+	private static final int D = 4; //children per heap node. A wider node means a shallower heap, and siblings share a cache line.
+
+	private long times[]; //timestamp of each queued event
+	private int kinds[]; //event kind code of each queued event, see Event
+	private int procs[]; //process table slot of each queued event's process
+	private long eids[]; //event id of each queued event
+	private int size; //number of events in the queue
+
+   /**Constructor which allows one to provide the starting capacity
+    *
+    *@param capacity -- how many events fit before the arrays have to grow
+    */
+    public EventHeap(int capacity) {
+    	if(capacity < D) {
+    		capacity = D;
+    	}
+    	times = new long[capacity];
+    	kinds = new int[capacity];
+    	procs = new int[capacity];
+    	eids = new long[capacity];
+    	size = 0;
+    }
+
+    public EventHeap() {
+    	this(64);
+    }
+
+    //Getter methods
+    public int size() {
+    	return size;
+    }
+
+    public boolean isEmpty() {
+    	return size == 0;
+    }
+
+    //the following getters describe the next event to be removed. Only valid while the queue isn't empty.
+    public long peekTime() {
+    	return times[0];
+    }
+
+    public int peekKind() {
+    	return kinds[0];
+    }
+
+    public int peekProc() {
+    	return procs[0];
+    }
+
+    public long peekEid() {
+    	return eids[0];
+    }
+
+    //copy the event in position from into position to
+    private void move(int from, int to) {
+    	times[to] = times[from];
+    	kinds[to] = kinds[from];
+    	procs[to] = procs[from];
+    	eids[to] = eids[from];
+    }
+
+    //double the size of every array
+    private void grow() {
+    	int cap = times.length * 2;
+    	times = Arrays.copyOf(times, cap);
+    	kinds = Arrays.copyOf(kinds, cap);
+    	procs = Arrays.copyOf(procs, cap);
+    	eids = Arrays.copyOf(eids, cap);
+    }
+
+   /**Adds an event to the queue
+    *
+    *@param time -- the event's timestamp
+    *@param kind -- the event's kind code
+    *@param proc -- process table slot of the event's process
+    *@param eid -- the event's id
+    */
+    public void add(long time, int kind, int proc, long eid) {
+    	if(size == times.length) {
+    		grow();
+    	}
+    	//sift a hole up from the end until the parent comes first, then put the event in the hole
+    	int i = size;
+    	size++;
+    	while(i > 0) {
+    		int parent = (i - 1) / D;
+    		if(Event.before(times[parent], kinds[parent], eids[parent], time, kind, eid)) {
+    			break;
+    		}
+    		move(parent, i);
+    		i = parent;
+    	}
+    	times[i] = time;
+    	kinds[i] = kind;
+    	procs[i] = proc;
+    	eids[i] = eid;
+    }
+
+    //removes the next event from the queue. Read it with the peek methods first.
+    public void remove() {
+    	size--;
+    	if(size == 0) {
+    		return;
+    	}
+    	//the last event has to go somewhere. Sift a hole down from the root until the last event fits in it.
+    	siftDown(size, 0);
+    }
+
+    //puts the event in position from into the hole at position i, or below it, wherever it fits among the first size events
+    private void siftDown(int from, int i) {
+    	long time = times[from];
+    	int kind = kinds[from];
+    	int proc = procs[from];
+    	long eid = eids[from];
+    	while(true) {
+    		int first = (i * D) + 1;
+    		if(first >= size) {
+    			break;
+    		}
+    		int last = Math.min(first + D, size);
+    		int min = first;
+    		for(int c = first + 1; c < last; c++) {
+    			if(Event.before(times[c], kinds[c], eids[c], times[min], kinds[min], eids[min])) {
+    				min = c;
+    			}
+    		}
+    		if(Event.before(time, kind, eid, times[min], kinds[min], eids[min])) {
+    			break;
+    		}
+    		move(min, i);
+    		i = min;
+    	}
+    	times[i] = time;
+    	kinds[i] = kind;
+    	procs[i] = proc;
+    	eids[i] = eid;
+    }
+
+    public void save(CheckpointWriter w) throws IOException {
+    	w.putInt(size);
+    	w.putLongs(times, size);
+    	w.putInts(kinds, size);
+    	w.putInts(procs, size);
+    	w.putLongs(eids, size);
+    }
+
+    //the events are loaded in bulk, then made into a heap from the bottom up. A heap saved by an EventHeap is already one,
+    //so it comes back exactly as it was.
+    public void restore(CheckpointReader r) throws IOException {
+    	int n = r.getInt();
+    	while(times.length < n) {
+    		grow();
+    	}
+    	r.getLongs(times, n);
+    	r.getInts(kinds, n);
+    	r.getInts(procs, n);
+    	r.getLongs(eids, n);
+    	size = n;
+    	for(int i = (size - 2) / D; i >= 0; i--) {
+    		siftDown(i, i);
+    	}
+    }
+}
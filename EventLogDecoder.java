@@ -0,0 +1,107 @@
+/**
+ * @(#)EventLogDecoder.java
+ * Turns a binary event log written with --event-log back into the text verbose mode prints (see EventLogWriter for the
+ * layout). The log is streamed, so a log of any length decodes in the same memory.
+ *
+ * Usage: java EventLogDecoder events.log [output.txt]
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+public class EventLogDecoder {
+
+   /**Reads a log and prints each record as verbose mode would have
+    *
+    *@param file -- the event log
+    *@param out -- the stream to print the text to
+    *@return long -- the number of records read
+    */
+    public static long decode(File file, PrintStream out) throws IOException {
+    	long count = 0;
+    	try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+    		byte magic[] = new byte[EventLogWriter.MAGIC.length];
+    		in.readFully(magic);
+    		if(!java.util.Arrays.equals(magic, EventLogWriter.MAGIC)) {
+    			throw new IOException(file + " is not an event log");
+    		}
+    		String types[] = new String[in.readInt()];
+    		for(int i = 0; i < types.length; i++) {
+    			types[i] = in.readUTF();
+    		}
+    		EventSink sink = new VerboseEventSink(out, types);
+
+    		byte record[] = new byte[EventLogWriter.RECORD_BYTES];
+    		ByteBuffer r = ByteBuffer.wrap(record);
+    		while(in.read(record, 0, 1) == 1) {
+    			in.readFully(record, 1, record.length - 1);
+    			r.clear();
+    			int code = r.get();
+    			int kind = r.get();
+    			r.getShort();
+    			int i = r.getInt();
+    			long a = r.getLong();
+    			long b = r.getLong();
+    			long c = r.getLong();
+    			long d = r.getLong();
+    			long e = r.getLong();
+    			switch(code) {
+    				case EventLogWriter.INITIAL_ARRIVAL:
+    					sink.initialArrival(i, a);
+    					break;
+    				case EventLogWriter.EVENT_ADDED:
+    					sink.eventAdded(a, kind, i, b);
+    					break;
+    				case EventLogWriter.EVENT_PROCESSED:
+    					sink.eventProcessed(i, a, b, c, kind, d);
+    					break;
+    				case EventLogWriter.PROC_READY:
+    					sink.procReady(a, i, b, c, d, e);
+    					break;
+    				case EventLogWriter.QUEUED:
+    					sink.queued(a);
+    					break;
+    				case EventLogWriter.REQUEUED:
+    					sink.requeued(a);
+    					break;
+    				case EventLogWriter.MIGRATED:
+    					sink.migrated(a, (int) c, i, b);
+    					break;
+    				case EventLogWriter.ASSIGNED:
+    					sink.assigned(a, i, b);
+    					break;
+    				default:
+    					throw new IOException(file + " record " + count + " has an unknown code " + code);
+    			}
+    			count++;
+    		}
+    		sink.close();
+    	}
+    	return count;
+    }
+
+    public static void main(String args[]) {
+    	if(args.length < 1 || args.length > 2) {
+    		System.out.println("Usage: java EventLogDecoder events.log [output.txt]");
+    		return;
+    	}
+    	try {
+    		PrintStream out;
+    		if(args.length == 2) {
+    			out = new PrintStream(new BufferedOutputStream(new FileOutputStream(args[1]), 1 << 16));
+    		}
+    		else {
+    			out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16));
+    		}
+    		decode(new File(args[0]), out);
+    		out.close();
+    	}
+    	catch(IOException e) {
+    		System.err.println(e.getMessage());
+    		System.exit(1);
+    	}
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * @(#)EventLogWriter.java
+ * Writes the details of a running simulation to a binary event log, for runs far too long to print in verbose mode.
+ * Each detail is one fixed-width record put straight into a direct buffer, with no strings built. Full buffers are handed
+ * to a background thread that writes them to the file while the simulation fills the next one. There are RING buffers,
+ * reused in turn, so memory stays bounded: if the disk falls behind, the simulation waits for a buffer to come back.
+ *
+ * EventLogDecoder turns a log back into verbose mode's text. All numbers are big-endian.
+ *   header: the 8 bytes "SCHDEVL1", int number of process types, then each type's name as written by DataOutput.writeUTF
+ *   records, RECORD_BYTES each: byte record code, byte event kind code, short 0, int, then five longs. Which fields a
+ *   record uses depends on its code, see the record methods below.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+
+public class EventLogWriter implements EventSink {
+	public static final byte MAGIC[] = "SCHDEVL1".getBytes(StandardCharsets.US_ASCII);
+	public static final int RECORD_BYTES = 48;
+	public static final int BUFFER_RECORDS = 8192; //records per buffer
+	public static final int RING = 8; //number of buffers
+
+	//record codes, one for each EventSink method
+	public static final int INITIAL_ARRIVAL = 0;
+	public static final int EVENT_ADDED = 1;
+	public static final int EVENT_PROCESSED = 2;
+	public static final int PROC_READY = 3;
+	public static final int QUEUED = 4;
+	public static final int REQUEUED = 5;
+	public static final int ASSIGNED = 6;
+	public static final int MIGRATED = 7;
+
+	private static final ByteBuffer END = ByteBuffer.allocate(0); //handed to the writer thread to stop it
+
+	private FileChannel channel;
+	private ByteBuffer current; //the buffer being filled
+	private ArrayBlockingQueue<ByteBuffer> full; //buffers waiting to be written, in order
+	private ArrayBlockingQueue<ByteBuffer> free; //buffers ready to be filled again
+	private Thread writer;
+	private volatile IOException failure; //set by the writer thread if a write fails
+
+   /**Constructor which creates the log, writes its header, and starts the writer thread
+    *
+    *@param file -- the log file, replaced if it exists
+    *@param types -- the process type names, by type index
+    */
+    public EventLogWriter(File file, String types[]) throws IOException {
+    	channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+    		StandardOpenOption.TRUNCATE_EXISTING);
+    	try {
+    		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    		DataOutputStream header = new DataOutputStream(bytes);
+    		header.write(MAGIC);
+    		header.writeInt(types.length);
+    		for(String t : types) {
+    			header.writeUTF(t);
+    		}
+    		ByteBuffer b = ByteBuffer.wrap(bytes.toByteArray());
+    		while(b.hasRemaining()) {
+    			channel.write(b);
+    		}
+    	}
+    	catch(IOException e) {
+    		channel.close();
+    		throw e;
+    	}
+    	full = new ArrayBlockingQueue<ByteBuffer>(RING + 1);
+    	free = new ArrayBlockingQueue<ByteBuffer>(RING);
+    	for(int i = 1; i < RING; i++) {
+    		free.add(ByteBuffer.allocateDirect(RECORD_BYTES * BUFFER_RECORDS));
+    	}
+    	current = ByteBuffer.allocateDirect(RECORD_BYTES * BUFFER_RECORDS);
+    	writer = new Thread(this::writeBuffers, "event-log-writer");
+    	writer.setDaemon(true);
+    	writer.start();
+    }
+
+    //the writer thread. After a failed write it keeps returning buffers unwritten, so the simulation never waits forever.
+    private void writeBuffers() {
+    	try {
+    		while(true) {
+    			ByteBuffer b = full.take();
+    			if(b == END) {
+    				return;
+    			}
+    			try {
+    				while(failure == null && b.hasRemaining()) {
+    					channel.write(b);
+    				}
+    			}
+    			catch(IOException e) {
+    				failure = e;
+    			}
+    			b.clear();
+    			free.put(b);
+    		}
+    	}
+    	catch(InterruptedException e) {
+    		Thread.currentThread().interrupt();
+    	}
+    }
+
+    //hands the current buffer to the writer thread and takes a free one
+    private void handOff() {
+    	if(failure != null) {
+    		throw new UncheckedIOException("Can't write the event log", failure);
+    	}
+    	current.flip();
+    	try {
+    		full.put(current);
+    		current = free.take();
+    	}
+    	catch(InterruptedException e) {
+    		Thread.currentThread().interrupt();
+    		throw new UncheckedIOException(new InterruptedIOException("Interrupted writing the event log"));
+    	}
+    }
+
+   /**Adds one record
+    *
+    *@param code -- the record code
+    *@param kind -- an event kind code, or 0
+    *@param i -- the record's int field
+    *@param a, b, c, d, e -- the record's long fields
+    */
+    private void record(int code, int kind, int i, long a, long b, long c, long d, long e) {
+    	if(!current.hasRemaining()) {
+    		handOff();
+    	}
+    	current.put((byte) code);
+    	current.put((byte) kind);
+    	current.putShort((short) 0);
+    	current.putInt(i);
+    	current.putLong(a);
+    	current.putLong(b);
+    	current.putLong(c);
+    	current.putLong(d);
+    	current.putLong(e);
+    }
+
+    //int: type. longs: time.
+    public void initialArrival(int type, long time) {
+    	record(INITIAL_ARRIVAL, 0, type, time, 0, 0, 0, 0);
+    }
+
+    //kind. int: type. longs: eid, time.
+    public void eventAdded(long eid, int kind, int type, long time) {
+    	record(EVENT_ADDED, kind, type, eid, time, 0, 0, 0);
+    }
+
+    //kind. int: iteration. longs: time, sinceLast, eid, pid.
+    public void eventProcessed(int iteration, long time, long sinceLast, long eid, int kind, long pid) {
+    	record(EVENT_PROCESSED, kind, iteration, time, sinceLast, eid, pid, 0);
+    }
+
+    //int: type. longs: pid, time, cpu, burst, io.
+    public void procReady(long pid, int type, long time, long cpu, long burst, long io) {
+    	record(PROC_READY, 0, type, pid, time, cpu, burst, io);
+    }
+
+    //longs: pid.
+    public void queued(long pid) {
+    	record(QUEUED, 0, 0, pid, 0, 0, 0, 0);
+    }
+
+    //longs: pid.
+    public void requeued(long pid) {
+    	record(REQUEUED, 0, 0, pid, 0, 0, 0, 0);
+    }
+
+    //int: to cpu. longs: pid, time, from cpu.
+    public void migrated(long pid, int from, int to, long time) {
+    	record(MIGRATED, 0, to, pid, time, from, 0, 0);
+    }
+
+    //int: cpu. longs: pid, time.
+    public void assigned(long pid, int cpu, long time) {
+    	record(ASSIGNED, 0, cpu, pid, time, 0, 0, 0);
+    }
+
+    //writes out the last records and waits for the writer thread to finish
+    public void close() throws IOException {
+    	if(writer == null) {
+    		return;
+    	}
+    	try {
+    		if(current.position() > 0) {
+    			handOff();
+    		}
+    		full.put(END);
+    		writer.join();
+    	}
+    	catch(InterruptedException e) {
+    		Thread.currentThread().interrupt();
+    		throw new InterruptedIOException("Interrupted closing the event log");
+    	}
+    	finally {
+    		writer = null;
+    		channel.close();
+    	}
+    	if(failure != null) {
+    		throw failure;
+    	}
+    }
+}
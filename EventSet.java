@@ -0,0 +1,45 @@
+/**
+ * @(#)EventSet.java
+ * The pending event set of a simulation. An event is a timestamp, an event kind code (see Event), the process table slot of
+ * the process it happens to, and an event id. Events come out in the order given by Event.before, which is a total order, so
+ * every implementation produces exactly the same sequence of events.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+
+public interface EventSet {
+
+   /**Adds an event to the set
+    *
+    *@param time -- the event's timestamp
+    *@param kind -- the event's kind code
+    *@param proc -- process table slot of the event's process
+    *@param eid -- the event's id
+    */
+	public void add(long time, int kind, int proc, long eid);
+
+	//removes the next event from the set. Read it with the peek methods first.
+	public void remove();
+
+	//the following getters describe the next event to be removed. Only valid while the set isn't empty.
+	public long peekTime();
+
+	public int peekKind();
+
+	public int peekProc();
+
+	public long peekEid();
+
+	public int size();
+
+	public boolean isEmpty();
+
+	//writes every pending event to a checkpoint: the count, then columns of timestamps, kind codes, slots and event ids
+	public void save(CheckpointWriter w) throws IOException;
+
+	//replaces every pending event with those of a checkpoint, written by the save of any EventSet
+	public void restore(CheckpointReader r) throws IOException;
+}
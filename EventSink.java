@@ -0,0 +1,65 @@
+/**
+ * @(#)EventSink.java
+ * Where the details of a running simulation go: every event added and processed, and every time a process tries to get a
+ * cpu. Verbose mode prints them as text (VerboseEventSink). --event-log writes them as fixed-width binary records instead
+ * (EventLogWriter), which EventLogDecoder turns back into the same text. Everything is passed as primitives so a sink
+ * never needs the process table or Event objects, and a disabled sink costs nothing but a null check.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+
+public interface EventSink extends Closeable {
+
+   /**The first arrival of a process type was queued at the start of the simulation
+    *
+    *@param type -- the process type's index
+    *@param time -- the arrival time
+    */
+	public void initialArrival(int type, long time);
+
+   /**An event was added to the event set
+    *
+    *@param eid -- the event's id
+    *@param kind -- the event's kind code
+    *@param type -- the type index of the event's process, or -1 for an event with no process
+    *@param time -- the event's timestamp
+    */
+	public void eventAdded(long eid, int kind, int type, long time);
+
+   /**An event was removed from the event set to be processed
+    *
+    *@param iteration -- the number of events processed before it
+    *@param time -- the event's timestamp
+    *@param sinceLast -- time since the previous event
+    *@param eid -- the event's id
+    *@param kind -- the event's kind code
+    *@param pid -- the event's process, or -1 for an event with no process
+    */
+	public void eventProcessed(int iteration, long time, long sinceLast, long eid, int kind, long pid);
+
+   /**A process is trying to get on a cpu
+    *
+    *@param pid -- the process
+    *@param type -- its type index
+    *@param time -- the current time
+    *@param cpu -- its cpu service time
+    *@param burst -- its burst time
+    *@param io -- its I/O service time
+    */
+	public void procReady(long pid, int type, long time, long cpu, long burst, long io);
+
+	//a process was added to the ready queue
+	public void queued(long pid);
+
+	//a process popped from the ready queue was put back, because the policy preferred another
+	public void requeued(long pid);
+
+	//a waiting process was moved to another cpu's run queue, or stolen by an idle cpu
+	public void migrated(long pid, int from, int to, long time);
+
+	//a process was put on a cpu
+	public void assigned(long pid, int cpu, long time);
+}
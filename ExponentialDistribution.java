@@ -0,0 +1,81 @@
+/**
+ * @(#)ExponentialDistribution.java
+ * Exponential distribution, sampled with Marsaglia and Tsang's ziggurat method. The density is covered by 256 layers of equal
+ * area. A sample picks a layer and a point across it, and about 98.9% of the time the point is inside the density and is
+ * returned after one multiply. Only the rest need an exp() or log() call. The layer tables are shared by every instance.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+public class ExponentialDistribution implements Distribution {
+	private static final double R = 7.69711747013104972; //start of the tail, the right edge of the bottom layer
+	private static final double V = 3.949659822581572e-3; //area of each layer
+
+	private static final long K[] = new long[256]; //a point in layer i is inside the density if its 32 bits are below K[i]
+	private static final double W[] = new double[256]; //scales 32 random bits to a point across layer i
+	private static final double F[] = new double[256]; //density at the right edge of layer i
+
+	static {
+		final double m = 4294967296.0; //2^32
+		double d = R;
+		double t = d;
+		double q = V / Math.exp(-d);
+		K[0] = (long) ((d / q) * m);
+		K[1] = 0;
+		W[0] = q / m;
+		W[255] = d / m;
+		F[0] = 1.0;
+		F[255] = Math.exp(-d);
+		for(int i = 254; i >= 1; i--) {
+			d = -Math.log(V / d + Math.exp(-d));
+			K[i + 1] = (long) ((d / t) * m);
+			t = d;
+			F[i] = Math.exp(-d);
+			W[i] = d / m;
+		}
+	}
+
+	private double mean;
+
+    public ExponentialDistribution(double m) {
+    	mean = m;
+    }
+
+   /**Draws from the exponential distribution with mean 1
+    *
+    *@param r -- the random number stream
+    *@return double -- the sample
+    */
+    public static double standard(FastRandom r) {
+    	while(true) {
+    		long bits = r.nextLong();
+    		int i = (int) (bits & 255); //layer
+    		long j = bits >>> 32; //point across the layer
+    		double x = j * W[i];
+    		if(j < K[i]) {
+    			return x;
+    		}
+    		//the bottom layer's overhang is the tail beyond R, which is R plus another exponential
+    		if(i == 0) {
+    			return R - Math.log(1.0 - r.nextDouble());
+    		}
+    		//the point is in the wedge between layers. Accept it if it is under the density.
+    		if(F[i] + r.nextDouble() * (F[i - 1] - F[i]) < Math.exp(-x)) {
+    			return x;
+    		}
+    	}
+    }
+
+    public double sample(FastRandom r) {
+    	return Math.min(standard(r) * mean, MAX_SAMPLE);
+    }
+
+    public double getMean() {
+    	return mean;
+    }
+
+    public String toString() {
+    	return "exp";
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * @(#)FastRandom.java
+ * Seedable pseudo-random number generator, xoshiro256** by Blackman and Vigna. It is much faster than java.util.Random,
+ * allocates nothing per sample, and has a period of 2^256 - 1. Seeds are spread over the 256 bits of state with SplitMix64,
+ * so nearby seeds give unrelated streams. split() hands out generators whose streams never overlap: the new generator
+ * continues from this one's current state, and this one jumps 2^128 steps ahead.
+ *
+ * Not thread safe. Give every thread its own generator with split(). The state can be read and restored, so a
+ * simulation can be saved and continued with exactly the same random numbers.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+public class FastRandom {
+	private static final long JUMP[] = {0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL};
+
+	private long s0, s1, s2, s3; //the generator's state. Never all zero.
+
+   /**Constructor which seeds the generator
+    *
+    *@param seed -- any value. The same seed always gives the same stream.
+    */
+    public FastRandom(long seed) {
+    	long x = seed;
+    	x += 0x9e3779b97f4a7c15L;
+    	s0 = mix(x);
+    	x += 0x9e3779b97f4a7c15L;
+    	s1 = mix(x);
+    	x += 0x9e3779b97f4a7c15L;
+    	s2 = mix(x);
+    	x += 0x9e3779b97f4a7c15L;
+    	s3 = mix(x);
+    }
+
+    //a generator continuing from saved state (see getState)
+    public FastRandom(long state[]) {
+    	setState(state);
+    }
+
+    //SplitMix64's output function
+    private static long mix(long z) {
+    	z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    	z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    	return z ^ (z >>> 31);
+    }
+
+    //a seed that differs from run to run, for when the user doesn't supply one
+    public static long randomSeed() {
+    	return mix(System.nanoTime() ^ mix(Thread.currentThread().getId()));
+    }
+
+    public long nextLong() {
+    	long result = Long.rotateLeft(s1 * 5, 7) * 9;
+    	long t = s1 << 17;
+    	s2 ^= s0;
+    	s3 ^= s1;
+    	s1 ^= s2;
+    	s0 ^= s3;
+    	s2 ^= t;
+    	s3 = Long.rotateLeft(s3, 45);
+    	return result;
+    }
+
+    //uniform in [0, 1), with 53 random bits
+    public double nextDouble() {
+    	return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+   /**Uniform in [0, bound), by Lemire's multiply and shift, which only needs a second draw in rare cases
+    *
+    *@param bound -- the upper bound, which must be positive
+    *@return int -- the random value
+    */
+    public int nextInt(int bound) {
+    	if(bound <= 0) {
+    		throw new IllegalArgumentException("bound must be positive, was " + bound);
+    	}
+    	long m = (nextLong() >>> 32) * bound;
+    	long low = m & 0xffffffffL;
+    	if(low < bound) {
+    		long threshold = (0x100000000L - bound) % bound;
+    		while(low < threshold) {
+    			m = (nextLong() >>> 32) * bound;
+    			low = m & 0xffffffffL;
+    		}
+    	}
+    	return (int) (m >>> 32);
+    }
+
+    //returns a generator for the next 2^128 values of this stream, and moves this generator past them
+    public FastRandom split() {
+    	FastRandom child = new FastRandom(getState());
+    	jump();
+    	return child;
+    }
+
+    //advances the generator 2^128 steps
+    private void jump() {
+    	long t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+    	for(long j : JUMP) {
+    		for(int b = 0; b < 64; b++) {
+    			if((j & (1L << b)) != 0) {
+    				t0 ^= s0;
+    				t1 ^= s1;
+    				t2 ^= s2;
+    				t3 ^= s3;
+    			}
+    			nextLong();
+    		}
+    	}
+    	s0 = t0;
+    	s1 = t1;
+    	s2 = t2;
+    	s3 = t3;
+    }
+
+   /**Moves the generator to an unrelated stream, seeded from its state and a number, so a saved simulation can be
+    *continued down any number of different random paths. A jump would land on a stream split() already handed out.
+    *
+    *@param n -- which stream. The same state and number always give the same stream.
+    */
+    public void reseed(long n) {
+    	FastRandom f = new FastRandom(mix(s0 ^ mix(s1 ^ mix(s2 ^ mix(s3 ^ mix(n))))));
+    	setState(f.getState());
+    }
+
+    //the generator's state, four longs
+    public long[] getState() {
+    	return new long[] {s0, s1, s2, s3};
+    }
+
+    public void setState(long state[]) {
+    	if(state.length != 4 || (state[0] | state[1] | state[2] | state[3]) == 0) {
+    		throw new IllegalArgumentException("state must be four longs, not all zero");
+    	}
+    	s0 = state[0];
+    	s1 = state[1];
+    	s2 = state[2];
+    	s3 = state[3];
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * @(#)FifoPolicy.java
+ * First come first served. Waiting processes get a cpu in the order they became ready. With a quantum this is round robin.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+
+public class FifoPolicy implements SchedulingPolicy {
+	private ReadyQueue queue; //process slots in the order they became ready
+	private String name; //fcfs or rr
+
+    public FifoPolicy(String n) {
+    	name = n;
+    	queue = new ReadyQueue();
+    }
+
+    public void add(int slot) {
+    	queue.add(slot);
+    }
+
+    public int poll() {
+    	if(queue.isEmpty()) {
+    		return -1;
+    	}
+    	return queue.pop();
+    }
+
+    public void dispatched(int slot, int kind, long ran) {
+    }
+
+    public void save(CheckpointWriter w) throws IOException {
+    	queue.save(w);
+    }
+
+    public void restore(CheckpointReader r) throws IOException {
+    	queue.restore(r);
+    }
+
+    //Getter methods
+    public int size() {
+    	return queue.size();
+    }
+
+    public boolean isEmpty() {
+    	return queue.isEmpty();
+    }
+
+    public int getHighWater() {
+    	return queue.getHighWater();
+    }
+
+    public String getName() {
+    	return name;
+    }
+}
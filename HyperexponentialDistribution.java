@@ -0,0 +1,42 @@
+/**
+ * @(#)HyperexponentialDistribution.java
+ * Two-phase hyperexponential distribution: with probability p the sample is exponential with mean mean/(2p), otherwise it
+ * is exponential with mean mean/(2(1-p)). Splitting the mean evenly between the phases ("balanced means") makes p depend
+ * only on the coefficient of variation, which must be at least 1. A cv of 1 is a plain exponential.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+public class HyperexponentialDistribution implements Distribution {
+	private double mean;
+	private double cv; //coefficient of variation, standard deviation / mean
+	private double p; //probability of the first phase
+	private double mean1; //mean of the first phase
+	private double mean2; //mean of the second phase
+
+    public HyperexponentialDistribution(double m, double c) {
+    	if(!(c >= 1.0)) {
+    		throw new IllegalArgumentException("hyperexp needs a coefficient of variation of at least 1, not " + c);
+    	}
+    	mean = m;
+    	cv = c;
+    	double c2 = c * c;
+    	p = 0.5 * (1.0 + Math.sqrt((c2 - 1.0) / (c2 + 1.0)));
+    	mean1 = m / (2.0 * p);
+    	mean2 = m / (2.0 * (1.0 - p));
+    }
+
+    public double sample(FastRandom r) {
+    	double phaseMean = (r.nextDouble() < p) ? mean1 : mean2;
+    	return Math.min(ExponentialDistribution.standard(r) * phaseMean, MAX_SAMPLE);
+    }
+
+    public double getMean() {
+    	return mean;
+    }
+
+    public String toString() {
+    	return "hyperexp:" + cv;
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * @(#)IdleSet.java
+ * The set of idle CPUs, kept as a hierarchical bitset. Level 0 has one bit per CPU, and every bit of a higher level says
+ * whether the matching 64-bit word of the level below has any bit set. Finding the lowest idle CPU walks down from the
+ * single top word with Long.numberOfTrailingZeros, so it takes one step per level (two levels cover 4096 CPUs) no matter
+ * how many CPUs are busy. CPUs update the set themselves whenever they become idle or busy.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+public class IdleSet {
+	private long levels[][]; //levels[0] holds one bit per CPU, levels[levels.length - 1] is a single word
+	private int count; //number of idle CPUs
+
+   /**Constructor for a set of CPUs where every CPU starts out idle
+    *
+    *@param n -- the number of CPUs
+    */
+    public IdleSet(int n) {
+    	int levelCount = 1;
+    	for(int words = (n + 63) >>> 6; words > 1; words = (words + 63) >>> 6) {
+    		levelCount++;
+    	}
+    	levels = new long[levelCount][];
+    	int bits = n;
+    	for(int l = 0; l < levelCount; l++) {
+    		levels[l] = new long[Math.max(1, (bits + 63) >>> 6)];
+    		bits = levels[l].length;
+    	}
+    	count = 0;
+    	for(int i = 0; i < n; i++) {
+    		set(i);
+    	}
+    }
+
+    //marks a CPU as idle
+    public void set(int cpu) {
+    	if(isIdle(cpu)) {
+    		return;
+    	}
+    	count++;
+    	int i = cpu;
+    	for(int l = 0; l < levels.length; l++) {
+    		int w = i >>> 6;
+    		long before = levels[l][w];
+    		levels[l][w] = before | (1L << (i & 63));
+    		//the levels above already knew this word had a bit set
+    		if(before != 0) {
+    			return;
+    		}
+    		i = w;
+    	}
+    }
+
+    //marks a CPU as busy
+    public void clear(int cpu) {
+    	if(!isIdle(cpu)) {
+    		return;
+    	}
+    	count--;
+    	int i = cpu;
+    	for(int l = 0; l < levels.length; l++) {
+    		int w = i >>> 6;
+    		long after = levels[l][w] & ~(1L << (i & 63));
+    		levels[l][w] = after;
+    		//the word still has a bit set, so the levels above don't change
+    		if(after != 0) {
+    			return;
+    		}
+    		i = w;
+    	}
+    }
+
+    //the number of idle CPUs
+    public int size() {
+    	return count;
+    }
+
+    public boolean isIdle(int cpu) {
+    	return (levels[0][cpu >>> 6] & (1L << (cpu & 63))) != 0;
+    }
+
+   /**Finds the lowest numbered idle CPU
+    *
+    *@return int -- the index of the lowest idle CPU, or -1 if every CPU is busy
+    */
+    public int first() {
+    	int top = levels.length - 1;
+    	if(levels[top][0] == 0) {
+    		return -1;
+    	}
+    	int i = 0;
+    	for(int l = top; l >= 0; l--) {
+    		i = (i << 6) + Long.numberOfTrailingZeros(levels[l][i]);
+    	}
+    	return i;
+    }
+
+   /**Finds the lowest numbered idle CPU in a range, looking only at the bottom level, one word of 64 CPUs at a time
+    *
+    *@param from -- the first CPU of the range
+    *@param to -- one past the last CPU of the range
+    *@return int -- the index of the lowest idle CPU in the range, or -1 if every CPU in it is busy
+    */
+    public int firstIn(int from, int to) {
+    	if(from >= to) {
+    		return -1;
+    	}
+    	long bits[] = levels[0];
+    	int last = (to - 1) >>> 6;
+    	for(int w = from >>> 6; w <= last; w++) {
+    		long word = bits[w];
+    		if(w == (from >>> 6)) {
+    			word &= -1L << (from & 63);
+    		}
+    		if(w == last && (to & 63) != 0) {
+    			word &= (1L << (to & 63)) - 1;
+    		}
+    		if(word != 0) {
+    			return (w << 6) + Long.numberOfTrailingZeros(word);
+    		}
+    	}
+    	return -1;
+    }
+}
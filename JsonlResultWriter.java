@@ -0,0 +1,71 @@
+/**
+ * @(#)JsonlResultWriter.java
+ * Writes results as JSON lines: each record is one JSON object on its own line, with a member per field in the record's
+ * order. NaN and the infinities, which JSON has no numbers for, are written as null.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+
+public class JsonlResultWriter extends ResultWriter {
+	private static final byte HEX[] = {'0','1','2','3','4','5','6','7','8','9','a','b','c','d','e','f'};
+
+    public JsonlResultWriter(File f) throws IOException {
+    	super(f, "jsonl");
+    }
+
+    protected void encode(ResultRecord r) {
+    	appendByte('{');
+    	for(int i = 0; i < r.size(); i++) {
+    		if(i > 0) {
+    			appendByte(',');
+    		}
+    		appendString(r.getName(i));
+    		appendByte(':');
+    		switch(r.getKind(i)) {
+    			case ResultRecord.LONG:
+    				appendLong(r.getLong(i));
+    				break;
+    			case ResultRecord.DOUBLE:
+    				double v = r.getDouble(i);
+    				if(Double.isNaN(v) || Double.isInfinite(v)) {
+    					appendAscii("null");
+    				}
+    				else {
+    					appendDouble(v);
+    				}
+    				break;
+    			default:
+    				appendString(r.getString(i));
+    				break;
+    		}
+    	}
+    	appendAscii("}\n");
+    }
+
+    //appends a JSON string, escaping quotes, backslashes and control characters
+    private void appendString(String s) {
+    	appendByte('"');
+    	int start = 0;
+    	for(int i = 0; i < s.length(); i++) {
+    		char c = s.charAt(i);
+    		if(c == '"' || c == '\\' || c < 0x20) {
+    			appendUtf8(s.substring(start, i));
+    			appendByte('\\');
+    			if(c == '"' || c == '\\') {
+    				appendByte(c);
+    			}
+    			else {
+    				appendAscii("u00");
+    				appendByte(HEX[c >> 4]);
+    				appendByte(HEX[c & 0xF]);
+    			}
+    			start = i + 1;
+    		}
+    	}
+    	appendUtf8(start == 0 ? s : s.substring(start));
+    	appendByte('"');
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * @(#)KeyedPolicy.java
+ * Policies that always run the waiting process with the smallest key. Waiting processes are kept in a binary heap of slots,
+ * keyed by a long and then by the order they became ready, so processes with equal keys run first come first served and
+ * adding or polling takes O(log n).
+ *
+ * SJF keys on total cpu time, SRTF on the cpu time still needed, PRIORITY on the process' type index in the procgen file,
+ * and FAIR on virtual runtime, the cpu time the process has been given so far. A process that becomes ready with less
+ * virtual runtime than the largest one polled so far is moved up to it, so a new or long-blocked process can't hold the
+ * cpus until it catches up.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class KeyedPolicy implements SchedulingPolicy {
+	//what the key is
+	public static final int SJF = 0;
+	public static final int SRTF = 1;
+	public static final int PRIORITY = 2;
+	public static final int FAIR = 3;
+
+	private int order; //one of the key constants above
+	private ProcTable procs; //where the keys come from
+	private String name;
+
+	//the heap, as parallel arrays
+	private int slots[];
+	private long keys[];
+	private long seqs[]; //order in which each entry became ready, breaks key ties
+	private int size;
+	private int highWater;
+	private long seq; //next sequence number
+
+	private long minVruntime; //FAIR only: the largest virtual runtime polled so far
+
+   /**Constructor
+    *
+    *@param o -- what the key is, one of the key constants
+    *@param n -- the policy's name
+    *@param t -- the process table the keys are read from
+    */
+    public KeyedPolicy(int o, String n, ProcTable t) {
+    	order = o;
+    	name = n;
+    	procs = t;
+    	slots = new int[64];
+    	keys = new long[64];
+    	seqs = new long[64];
+    	size = 0;
+    	highWater = 0;
+    	seq = 0;
+    	minVruntime = 0;
+    }
+
+    //the key of a process under this policy
+    private long key(int slot) {
+    	switch(order) {
+    		case SJF:
+    			return procs.getCPUtime(slot);
+    		case SRTF:
+    			return procs.getServiceLeft(slot);
+    		case PRIORITY:
+    			return procs.getTypeInd(slot);
+    		default:
+    			return procs.getPolicyState(slot);
+    	}
+    }
+
+    public void add(int slot) {
+    	if(order == FAIR && procs.getPolicyState(slot) < minVruntime) {
+    		procs.setPolicyState(slot, minVruntime);
+    	}
+    	if(size == slots.length) {
+    		slots = Arrays.copyOf(slots, size * 2);
+    		keys = Arrays.copyOf(keys, size * 2);
+    		seqs = Arrays.copyOf(seqs, size * 2);
+    	}
+    	long k = key(slot);
+    	long s = seq++;
+    	//sift the hole up from the bottom
+    	int i = size++;
+    	while(i > 0) {
+    		int parent = (i - 1) >>> 1;
+    		if(!before(k, s, keys[parent], seqs[parent])) {
+    			break;
+    		}
+    		move(parent, i);
+    		i = parent;
+    	}
+    	slots[i] = slot;
+    	keys[i] = k;
+    	seqs[i] = s;
+    	if(size > highWater) {
+    		highWater = size;
+    	}
+    }
+
+    public int poll() {
+    	if(size == 0) {
+    		return -1;
+    	}
+    	int top = slots[0];
+    	if(order == FAIR && keys[0] > minVruntime) {
+    		minVruntime = keys[0];
+    	}
+    	size--;
+    	if(size > 0) {
+    		//sift the last entry down from the root
+    		int lastSlot = slots[size];
+    		long k = keys[size];
+    		long s = seqs[size];
+    		int i = 0;
+    		while(true) {
+    			int child = 2 * i + 1;
+    			if(child >= size) {
+    				break;
+    			}
+    			if(child + 1 < size && before(keys[child + 1], seqs[child + 1], keys[child], seqs[child])) {
+    				child++;
+    			}
+    			if(!before(keys[child], seqs[child], k, s)) {
+    				break;
+    			}
+    			move(child, i);
+    			i = child;
+    		}
+    		slots[i] = lastSlot;
+    		keys[i] = k;
+    		seqs[i] = s;
+    	}
+    	return top;
+    }
+
+    //FAIR charges the process for the cpu time it is about to get
+    public void dispatched(int slot, int kind, long ran) {
+    	if(order == FAIR) {
+    		procs.setPolicyState(slot, procs.getPolicyState(slot) + ran);
+    	}
+    }
+
+    //the heap exactly as it is laid out, with its sequence numbers, so ties are broken afterwards as they would have been
+    public void save(CheckpointWriter w) throws IOException {
+    	w.putInt(size);
+    	w.putInt(highWater);
+    	w.putLong(seq);
+    	w.putLong(minVruntime);
+    	w.putInts(slots, size);
+    	w.putLongs(keys, size);
+    	w.putLongs(seqs, size);
+    }
+
+    public void restore(CheckpointReader r) throws IOException {
+    	int n = r.getInt();
+    	highWater = r.getInt();
+    	seq = r.getLong();
+    	minVruntime = r.getLong();
+    	if(n > slots.length) {
+    		slots = new int[n];
+    		keys = new long[n];
+    		seqs = new long[n];
+    	}
+    	r.getInts(slots, n);
+    	r.getLongs(keys, n);
+    	r.getLongs(seqs, n);
+    	size = n;
+    }
+
+    private static boolean before(long k1, long s1, long k2, long s2) {
+    	return k1 < k2 || (k1 == k2 && s1 < s2);
+    }
+
+    private void move(int from, int to) {
+    	slots[to] = slots[from];
+    	keys[to] = keys[from];
+    	seqs[to] = seqs[from];
+    }
+
+    //Getter methods
+    public int size() {
+    	return size;
+    }
+
+    public boolean isEmpty() {
+    	return size == 0;
+    }
+
+    public int getHighWater() {
+    	return highWater;
+    }
+
+    public String getName() {
+    	return name;
+    }
+}
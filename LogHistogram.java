@@ -0,0 +1,140 @@
+/**
+ * @(#)LogHistogram.java
+ * Histogram of non-negative whole numbers with log-sized buckets, in the style of HdrHistogram. Values below 2 * HALF are
+ * counted exactly. Above that, each power of two is split into HALF equal buckets, so a value is known to within 1 part in
+ * HALF of itself. Recording is one shift and one array increment, and the memory is the same however many values are
+ * recorded or how large they get.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class LogHistogram {
+	public static final int SUB_BITS = 6;
+	public static final int HALF = 1 << SUB_BITS; //buckets per power of two
+	public static final int BUCKETS = (64 - SUB_BITS) * HALF; //enough for every non-negative long
+
+	private long counts[];
+	private long count; //number of values recorded
+	private long sum; //their sum, for the exact mean
+	private long max; //the largest value recorded
+
+    public LogHistogram() {
+    	counts = new long[BUCKETS];
+    	count = 0;
+    	sum = 0;
+    	max = 0;
+    }
+
+    //the bucket a value is counted in
+    private static int bucket(long v) {
+    	int shift = (63 - SUB_BITS) - Long.numberOfLeadingZeros(v | (2 * HALF - 1));
+    	return (shift << SUB_BITS) + (int) (v >>> shift);
+    }
+
+    //the largest value counted in a bucket
+    private static long highest(int b) {
+    	if(b < 2 * HALF) {
+    		return b;
+    	}
+    	int shift = (b >>> SUB_BITS) - 1;
+    	long sub = (b & (HALF - 1)) + HALF;
+    	return ((sub + 1) << shift) - 1;
+    }
+
+    //records one value. Negative values are counted as 0.
+    public void record(long v) {
+    	if(v < 0) {
+    		v = 0;
+    	}
+    	counts[bucket(v)]++;
+    	count++;
+    	sum += v;
+    	if(v > max) {
+    		max = v;
+    	}
+    }
+
+    //adds every value recorded in another histogram to this one
+    public void add(LogHistogram other) {
+    	for(int i = 0; i < BUCKETS; i++) {
+    		counts[i] += other.counts[i];
+    	}
+    	count += other.count;
+    	sum += other.sum;
+    	if(other.max > max) {
+    		max = other.max;
+    	}
+    }
+
+    //writes the histogram to a checkpoint. Buckets past the last one used are all 0, so they are left out.
+    public void save(CheckpointWriter w) throws IOException {
+    	int n = BUCKETS;
+    	while(n > 0 && counts[n - 1] == 0) {
+    		n--;
+    	}
+    	w.putLong(count);
+    	w.putLong(sum);
+    	w.putLong(max);
+    	w.putInt(n);
+    	w.putLongs(counts, n);
+    }
+
+    //replaces everything recorded with a histogram written by save
+    public void restore(CheckpointReader r) throws IOException {
+    	count = r.getLong();
+    	sum = r.getLong();
+    	max = r.getLong();
+    	int n = r.getInt();
+    	if(n < 0 || n > BUCKETS) {
+    		throw new IOException(r.getFile() + " has a damaged histogram");
+    	}
+    	Arrays.fill(counts, 0);
+    	r.getLongs(counts, n);
+    }
+
+    public long getCount() {
+    	return count;
+    }
+
+    public long getMax() {
+    	return max;
+    }
+
+    //the mean of the recorded values, or 0 if there are none
+    public double getMean() {
+    	if(count == 0) {
+    		return 0.0;
+    	}
+    	return (sum * 1.0) / count;
+    }
+
+   /**The value at a percentile: the smallest recorded value that at least that fraction of the values are no larger than,
+    *rounded up to the top of its bucket
+    *
+    *@param q -- the percentile as a fraction, like 0.99
+    *@return long -- the value, or 0 if nothing was recorded
+    */
+    public long percentile(double q) {
+    	if(count == 0) {
+    		return 0;
+    	}
+    	long rank = Math.max(1, (long) Math.ceil(q * count));
+    	long seen = 0;
+    	for(int i = 0; i < BUCKETS; i++) {
+    		seen += counts[i];
+    		if(seen >= rank) {
+    			return Math.min(highest(i), max);
+    		}
+    	}
+    	return max;
+    }
+
+    //p50, p99 and p99.9, separated by s
+    public String percentiles(String s) {
+    	return percentile(0.5) + s + percentile(0.99) + s + percentile(0.999);
+    }
+}
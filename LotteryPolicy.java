@@ -0,0 +1,130 @@
+/**
+ * @(#)LotteryPolicy.java
+ * Lottery scheduling. Each waiting process holds tickets according to its procgen type: with n types, the first type in the
+ * file gets n tickets per process and the last gets 1. The next process is the holder of a ticket drawn at random.
+ * Waiting processes are kept in one unordered bag per type, so a draw picks a type by its share of the tickets, then a
+ * process uniformly from that type's bag, and takes time proportional to the number of types.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class LotteryPolicy implements SchedulingPolicy {
+	private int bags[][]; //bags[t] holds the slots of waiting processes of type t
+	private int counts[]; //number of slots in each bag
+	private long tickets[]; //tickets per process of each type
+	private long totalTickets; //tickets held by all waiting processes
+	private int size;
+	private int highWater;
+	private FastRandom r; //draws the tickets
+	private ProcTable procs; //where the processes' types come from
+
+   /**Constructor
+    *
+    *@param numTypes -- the number of process types in the procgen file
+    *@param rand -- the random number stream for ticket draws
+    *@param pt -- the process table
+    */
+    public LotteryPolicy(int numTypes, FastRandom rand, ProcTable pt) {
+    	procs = pt;
+    	bags = new int[numTypes][16];
+    	counts = new int[numTypes];
+    	tickets = new long[numTypes];
+    	for(int t = 0; t < numTypes; t++) {
+    		tickets[t] = numTypes - t;
+    	}
+    	totalTickets = 0;
+    	size = 0;
+    	highWater = 0;
+    	r = rand;
+    }
+
+    public void add(int slot) {
+    	int t = procs.getTypeInd(slot);
+    	if(counts[t] == bags[t].length) {
+    		bags[t] = Arrays.copyOf(bags[t], counts[t] * 2);
+    	}
+    	bags[t][counts[t]++] = slot;
+    	totalTickets += tickets[t];
+    	size++;
+    	if(size > highWater) {
+    		highWater = size;
+    	}
+    }
+
+    public int poll() {
+    	if(size == 0) {
+    		return -1;
+    	}
+    	//draw a ticket and find the type holding it
+    	long ticket = (long) (r.nextDouble() * totalTickets);
+    	int t = 0;
+    	while(t < counts.length - 1 && ticket >= counts[t] * tickets[t]) {
+    		ticket -= counts[t] * tickets[t];
+    		t++;
+    	}
+    	//rounding can leave the draw on an empty bag at the end, so fall back to the last non-empty one
+    	while(counts[t] == 0) {
+    		t--;
+    	}
+    	//every process of a type holds the same tickets, so any of them is equally likely. Swap the winner out of the bag.
+    	int i = (int) (ticket / tickets[t]);
+    	if(i >= counts[t]) {
+    		i = counts[t] - 1;
+    	}
+    	int slot = bags[t][i];
+    	bags[t][i] = bags[t][--counts[t]];
+    	totalTickets -= tickets[t];
+    	size--;
+    	return slot;
+    }
+
+    public void dispatched(int slot, int kind, long ran) {
+    }
+
+    //the ticket stream, and every bag in its current order, since a draw picks a process by its place in its bag
+    public void save(CheckpointWriter w) throws IOException {
+    	w.putRandom(r);
+    	w.putInt(size);
+    	w.putInt(highWater);
+    	w.putLong(totalTickets);
+    	for(int t = 0; t < bags.length; t++) {
+    		w.putInt(counts[t]);
+    		w.putInts(bags[t], counts[t]);
+    	}
+    }
+
+    public void restore(CheckpointReader rd) throws IOException {
+    	rd.getRandom(r);
+    	size = rd.getInt();
+    	highWater = rd.getInt();
+    	totalTickets = rd.getLong();
+    	for(int t = 0; t < bags.length; t++) {
+    		counts[t] = rd.getInt();
+    		if(counts[t] > bags[t].length) {
+    			bags[t] = new int[counts[t]];
+    		}
+    		rd.getInts(bags[t], counts[t]);
+    	}
+    }
+
+    //Getter methods
+    public int size() {
+    	return size;
+    }
+
+    public boolean isEmpty() {
+    	return size == 0;
+    }
+
+    public int getHighWater() {
+    	return highWater;
+    }
+
+    public String getName() {
+    	return "lottery";
+    }
+}
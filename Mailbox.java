@@ -0,0 +1,82 @@
+/**
+ * @(#)Mailbox.java
+ * A lock-free single-producer single-consumer ring of fixed-width records of longs, which is how the partitions of a
+ * PartitionedSimulation pass processes to each other, and how its generator passes them arrivals. Records are written and
+ * read in place in the ring's array, so sending one allocates nothing.
+ *
+ * Exactly one thread may write and one may read. The producer fills the record at reserve()'s offset, then publish() makes
+ * it visible by bumping the volatile tail; the consumer reads the record at peek()'s offset, then release() hands its space
+ * back by bumping the volatile head. The volatile writes order the record's plain writes before the other side sees them.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+public class Mailbox {
+	private long buf[]; //the records, one after another
+	private int width; //longs per record
+	private int mask; //capacity - 1. The capacity is a power of two.
+	private volatile long head; //records read so far. Only the consumer writes it.
+	private volatile long tail; //records published so far. Only the producer writes it.
+	private long cachedHead; //the producer's last look at head, so a ring with room doesn't read it every time
+	private long cachedTail; //the consumer's last look at tail
+
+   /**Constructor
+    *
+    *@param capacity -- the most records the ring holds, rounded up to a power of two
+    *@param w -- longs per record
+    */
+    public Mailbox(int capacity, int w) {
+    	int c = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+    	buf = new long[c * w];
+    	width = w;
+    	mask = c - 1;
+    	head = 0;
+    	tail = 0;
+    }
+
+    //the array records are read from and written to
+    public long[] buffer() {
+    	return buf;
+    }
+
+    public int capacity() {
+    	return mask + 1;
+    }
+
+    //Producer side
+    //the offset to write the next record at, or -1 if the ring is full
+    public int reserve() {
+    	long t = tail;
+    	if(t - cachedHead > mask) {
+    		cachedHead = head;
+    		if(t - cachedHead > mask) {
+    			return -1;
+    		}
+    	}
+    	return (int) (t & mask) * width;
+    }
+
+    //makes the record written at reserve()'s offset visible to the consumer
+    public void publish() {
+    	tail = tail + 1;
+    }
+
+    //Consumer side
+    //the offset of the next record to read, or -1 if the ring is empty
+    public int peek() {
+    	long h = head;
+    	if(h == cachedTail) {
+    		cachedTail = tail;
+    		if(h == cachedTail) {
+    			return -1;
+    		}
+    	}
+    	return (int) (h & mask) * width;
+    }
+
+    //gives the space of the record at peek()'s offset back to the producer
+    public void release() {
+    	head = head + 1;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * @(#)MlfqPolicy.java
+ * Multilevel feedback queue. Every process starts in the top level. A process that uses up its whole quantum drops one level,
+ * and a process that leaves the cpu for I/O or completion keeps its level. The next process always comes from the highest
+ * level that has one waiting, first come first served within a level. Needs a quantum to demote anything.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+
+public class MlfqPolicy implements SchedulingPolicy {
+	public static final int LEVELS = 3; //number of queues
+
+	private ReadyQueue levels[]; //levels[0] is the highest priority. A process' level is its policy state.
+	private ProcTable procs; //where the levels are kept
+	private int size;
+	private int highWater;
+
+    public MlfqPolicy(ProcTable t) {
+    	procs = t;
+    	levels = new ReadyQueue[LEVELS];
+    	for(int i = 0; i < LEVELS; i++) {
+    		levels[i] = new ReadyQueue();
+    	}
+    	size = 0;
+    	highWater = 0;
+    }
+
+    public void add(int slot) {
+    	levels[(int) procs.getPolicyState(slot)].add(slot);
+    	size++;
+    	if(size > highWater) {
+    		highWater = size;
+    	}
+    }
+
+    public int poll() {
+    	for(int i = 0; i < LEVELS; i++) {
+    		if(!levels[i].isEmpty()) {
+    			size--;
+    			return levels[i].pop();
+    		}
+    	}
+    	return -1;
+    }
+
+    //a process that will use its whole quantum is demoted
+    public void dispatched(int slot, int kind, long ran) {
+    	if(kind == Event.QUANTUM_UP && procs.getPolicyState(slot) < LEVELS - 1) {
+    		procs.setPolicyState(slot, procs.getPolicyState(slot) + 1);
+    	}
+    }
+
+    //every level in turn. A process' level is kept in the process table, which is saved with it.
+    public void save(CheckpointWriter w) throws IOException {
+    	w.putInt(size);
+    	w.putInt(highWater);
+    	for(ReadyQueue q : levels) {
+    		q.save(w);
+    	}
+    }
+
+    public void restore(CheckpointReader r) throws IOException {
+    	size = r.getInt();
+    	highWater = r.getInt();
+    	for(ReadyQueue q : levels) {
+    		q.restore(r);
+    	}
+    }
+
+    //Getter methods
+    public int size() {
+    	return size;
+    }
+
+    public boolean isEmpty() {
+    	return size == 0;
+    }
+
+    public int getHighWater() {
+    	return highWater;
+    }
+
+    public String getName() {
+    	return "mlfq";
+    }
+}
@@ -0,0 +1,389 @@
+/**
+ * @(#)PartitionedSimulation.java
+ * Runs one simulation split into partitions that are simulated in parallel. This is an approximation of the system, not a
+ * parallel version of the serial simulation: its results differ from a serial run of the same parameters, even one whose
+ * per-cpu run queues split the cpus the same way. The cpus are split evenly into partitions, and each is a Simulation of
+ * its own, with its own event set, queues, cpus and process table. Partitions only meet in two ways, both through
+ * lock-free single-producer single-consumer Mailboxes, so no partition ever touches another's state:
+ *
+ * - Arrivals. The whole simulation generates every arrival, from its own process generators in time order, exactly as a
+ *   serial run would, and deals them to the partitions in turn. It runs on its own thread, ahead of the partitions, and
+ *   promises after each arrival that every earlier one has been sent.
+ * - Moves. The partitions run in lockstep windows. At the end of each, once every partition has reached it, waiting
+ *   processes move from the partitions loaded above their share of the system's load to those below it. A moved process
+ *   arrives one window later, a delay the serial simulation doesn't have, so nothing a partition does in a window can
+ *   affect another before the next window: the window is the lookahead that lets every partition run a whole window
+ *   without waiting on the others. Shorter windows shrink the delay, but don't remove it.
+ *
+ * A partition takes in, at the start of each window, exactly the arrivals and moves timed before its end, in a fixed
+ * order, and the moves are planned from the loads at the window's end alone. Nothing depends on which thread runs what
+ * or how fast, so any number of threads gives the same results for a given seed as one thread running the partitions
+ * one after another.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class PartitionedSimulation {
+	private static final int WIDTH = ProcTable.RECORD + 1; //longs per mailbox record: the arrival time, then the process
+	private static final int ARRIVAL_RING = 1 << 12; //arrivals the generator can get ahead of a partition
+	private static final int MOVE_RING = 1 << 10; //records in a mailbox between two partitions
+	private static final int MOVE_CAP = MOVE_RING / 2; //most processes one partition sends another in a window. A mailbox holds two windows' moves.
+
+	private Simulation whole; //the settings, the arrival stream, and in the end the combined statistics
+	private Simulation parts[];
+	private Mailbox arrivals[]; //generator to each partition
+	private Mailbox moves[][]; //moves[from][to], between partitions
+	private long window; //length of a window
+	private long stop; //the stop time
+
+	//arrivals
+	private volatile long promise; //every arrival before this time has been sent. Long.MAX_VALUE once they all have.
+	private long sent; //arrivals sent so far, which deals the next to its partition
+
+	//planning the moves, at the end of each window
+	private int loads[]; //per partition: processes waiting or running
+	private int waiting[]; //per partition: processes waiting
+	private int plan[][]; //plan[from][to]: processes to move at the end of this window
+	private long windows; //windows finished
+	private long moved; //processes moved
+
+	private volatile Throwable failure; //what stopped a thread, if one failed
+
+   /**Constructor
+    *
+    *@param w -- the whole simulation, already set up. Its event set holds the first arrival of each process type.
+    */
+    public PartitionedSimulation(Simulation w) {
+    	whole = w;
+    	stop = w.simStopTime;
+    	if(w.window == 0) {
+    		w.window = Math.max(1, (stop + 1) / 1000);
+    	}
+    	window = w.window;
+    }
+
+   /**Sets up every partition, each with its share of the cpus and a seed of its own
+    *
+    *@param args -- the command line parameters of the whole simulation
+    *@return boolean -- false if a partition can't be set up, whose reason is printed
+    */
+    public boolean setUp(String args[]) {
+    	int n = whole.partitions;
+    	parts = new Simulation[n];
+    	FastRandom seeds = whole.rng.split();
+    	for(int p = 0; p < n; p++) {
+    		int cpus = whole.numcpus / n + ((p < whole.numcpus % n) ? 1 : 0);
+    		//later parameters override earlier ones
+    		String a[] = Arrays.copyOf(args, args.length + 6);
+    		a[args.length] = "--partitions";
+    		a[args.length + 1] = "1";
+    		a[args.length + 2] = "--num-cpus";
+    		a[args.length + 3] = Integer.toString(cpus);
+    		a[args.length + 4] = "--seed";
+    		a[args.length + 5] = Long.toString(seeds.nextLong());
+    		parts[p] = new Simulation(whole.out);
+    		parts[p].arrivalsFed = true;
+    		if(!parts[p].setUp(a)) {
+    			return false;
+    		}
+    	}
+    	arrivals = new Mailbox[n];
+    	moves = new Mailbox[n][n];
+    	for(int p = 0; p < n; p++) {
+    		arrivals[p] = new Mailbox(ARRIVAL_RING, WIDTH);
+    		for(int q = 0; q < n; q++) {
+    			if(q != p) {
+    				moves[p][q] = new Mailbox(MOVE_RING, WIDTH);
+    			}
+    		}
+    	}
+    	loads = new int[n];
+    	waiting = new int[n];
+    	plan = new int[n][n];
+    	sent = 0;
+    	promise = nextArrival();
+    	return true;
+    }
+
+    //the time of the next arrival, or Long.MAX_VALUE if it's after the stop time
+    private long nextArrival() {
+    	long t = whole.eventQueue.peekTime();
+    	return (t > stop) ? Long.MAX_VALUE : t;
+    }
+
+    //sends the next arrival to its partition, and generates the one after it of the same type. Returns false, and sends
+    //nothing, if that partition's mailbox is full.
+    private boolean sendArrival() {
+    	Mailbox m = arrivals[(int) (sent % parts.length)];
+    	int off = m.reserve();
+    	if(off < 0) {
+    		return false;
+    	}
+    	long rec[] = m.buffer();
+    	long t = whole.eventQueue.peekTime();
+    	int slot = whole.eventQueue.peekProc();
+    	whole.eventQueue.remove();
+    	rec[off] = t;
+    	whole.procTable.copyOut(slot, rec, off + 1);
+    	m.publish();
+    	ProcGenerator pg = whole.procgens[whole.procTable.getTypeInd(slot)];
+    	whole.procTable.release(slot);
+    	whole.scheduleArrival(pg, t);
+    	sent++;
+    	promise = nextArrival();
+    	return true;
+    }
+
+    //the generator thread: sends every arrival up to the stop time, waiting whenever a partition's mailbox is full
+    private void generate() {
+    	while(promise != Long.MAX_VALUE && failure == null) {
+    		if(!sendArrival()) {
+    			Thread.onSpinWait();
+    		}
+    	}
+    }
+
+    //takes in a partition's arrivals and moves before a time, in the order they were sent. Arrivals come first, then moves
+    //from each other partition in turn.
+    private void drain(int p, Mailbox m, long end, int kind) {
+    	long rec[] = m.buffer();
+    	for(int off = m.peek(); off >= 0 && rec[off] < end; off = m.peek()) {
+    		parts[p].receive(rec, off + 1, kind, rec[off]);
+    		m.release();
+    	}
+    }
+
+    //takes in everything a partition needs before it can run the window ending at end, waiting for the generator if need be
+    private void fill(int p, long end) {
+    	while(true) {
+    		//every arrival before the promise was sent before it was made
+    		long sure = promise;
+    		drain(p, arrivals[p], end, Event.NEWPROC);
+    		if(sure >= end) {
+    			break;
+    		}
+    		if(failure != null) {
+    			throw new CancellationException();
+    		}
+    		Thread.onSpinWait();
+    	}
+    	//a moved process becomes ready much as one whose I/O completed
+    	for(int q = 0; q < parts.length; q++) {
+    		if(q != p) {
+    			drain(p, moves[q][p], end, Event.IODONE);
+    		}
+    	}
+    }
+
+    //runs one partition through the window ending at end, and notes its loads for the plan
+    private void runWindow(int p, long end) {
+    	fill(p, end);
+    	parts[p].advanceTo(end);
+    	loads[p] = parts[p].load();
+    	waiting[p] = parts[p].readyLength();
+    }
+
+    //plans the moves at the end of a window from every partition's load: each partition's share of the total is in
+    //proportion to its cpus, and partitions above theirs send waiting processes to those below, in partition order
+    private void planMoves() {
+    	int n = parts.length;
+    	long total = 0;
+    	for(int p = 0; p < n; p++) {
+    		total += loads[p];
+    	}
+    	int surplus[] = new int[n];
+    	int deficit[] = new int[n];
+    	for(int p = 0; p < n; p++) {
+    		long lo = (total * parts[p].numcpus) / whole.numcpus;
+    		long hi = (total * parts[p].numcpus + whole.numcpus - 1) / whole.numcpus;
+    		surplus[p] = (int) Math.max(0, Math.min(loads[p] - hi, waiting[p]));
+    		deficit[p] = (int) Math.max(0, lo - loads[p]);
+    	}
+    	int q = 0;
+    	for(int p = 0; p < n; p++) {
+    		Arrays.fill(plan[p], 0);
+    		while(surplus[p] > 0 && q < n) {
+    			if(deficit[q] == 0 || q == p) {
+    				q++;
+    				continue;
+    			}
+    			int k = Math.min(Math.min(surplus[p], deficit[q]), MOVE_CAP - plan[p][q]);
+    			plan[p][q] += k;
+    			surplus[p] -= k;
+    			deficit[q] -= k;
+    			moved += k;
+    			if(plan[p][q] == MOVE_CAP) {
+    				break;
+    			}
+    		}
+    	}
+    	windows++;
+    }
+
+    //sends a partition's planned moves at the end of the window ending at end. They arrive a window later.
+    private void sendMoves(int p, long end) {
+    	for(int q = 0; q < parts.length; q++) {
+    		for(int i = 0; i < plan[p][q]; i++) {
+    			int slot = parts[p].takeWaiting();
+    			Mailbox m = moves[p][q];
+    			int off = m.reserve();
+    			if(off < 0) {
+    				throw new IllegalStateException("Mailbox from partition " + p + " to " + q + " is full");
+    			}
+    			long rec[] = m.buffer();
+    			rec[off] = end + window;
+    			parts[p].procTable.copyOut(slot, rec, off + 1);
+    			m.publish();
+    			parts[p].procTable.release(slot);
+    		}
+    	}
+    }
+
+    //the end of the window starting at start
+    private long windowEnd(long start) {
+    	return Math.min(start + window, stop + 1);
+    }
+
+    //runs every window on this thread, generating the arrivals in between
+    private void runSerial() {
+    	for(long start = 0; start <= stop; start = windowEnd(start)) {
+    		long end = windowEnd(start);
+    		//the arrivals before end, and nothing else, are already in the mailboxes or taken in
+    		while(promise < end) {
+    			if(!sendArrival()) {
+    				int p = (int) (sent % parts.length);
+    				drain(p, arrivals[p], end, Event.NEWPROC);
+    			}
+    		}
+    		for(int p = 0; p < parts.length; p++) {
+    			runWindow(p, end);
+    		}
+    		planMoves();
+    		for(int p = 0; p < parts.length; p++) {
+    			sendMoves(p, end);
+    		}
+    	}
+    }
+
+    //one worker thread: runs partitions w, w + n, ... through every window, meeting the other workers at each window's end
+    private void work(int w, int n, CyclicBarrier barrier) {
+    	try {
+    		for(long start = 0; start <= stop; start = windowEnd(start)) {
+    			long end = windowEnd(start);
+    			for(int p = w; p < parts.length; p += n) {
+    				runWindow(p, end);
+    			}
+    			barrier.await();
+    			for(int p = w; p < parts.length; p += n) {
+    				sendMoves(p, end);
+    			}
+    		}
+    	}
+    	catch(BrokenBarrierException | CancellationException e) {
+    		//another thread failed, and said why
+    	}
+    	catch(Throwable t) {
+    		fail(t);
+    	}
+    }
+
+    //records the first failure of any thread, and wakes the others so they stop too
+    private synchronized void fail(Throwable t) {
+    	if(failure == null) {
+    		failure = t;
+    	}
+    }
+
+    //runs every partition to the stop time
+    public void run() {
+    	int n = whole.threads;
+    	if(n == 0) {
+    		n = Runtime.getRuntime().availableProcessors();
+    	}
+    	n = Math.min(n, parts.length);
+    	whole.partitionThreads = n;
+    	if(n == 1) {
+    		runSerial();
+    	}
+    	else {
+    		CyclicBarrier barrier = new CyclicBarrier(n, this::planMoves);
+    		List<Thread> threads = new ArrayList<Thread>();
+    		Thread gen = new Thread(() -> {
+    			try {
+    				generate();
+    			}
+    			catch(Throwable t) {
+    				fail(t);
+    				barrier.reset();
+    			}
+    		}, "arrivals");
+    		threads.add(gen);
+    		for(int w = 0; w < n; w++) {
+    			final int id = w;
+    			final int count = n;
+    			threads.add(new Thread(() -> {
+    				work(id, count, barrier);
+    				if(failure != null) {
+    					barrier.reset();
+    				}
+    			}, "partition-worker-" + w));
+    		}
+    		for(Thread t : threads) {
+    			t.start();
+    		}
+    		for(Thread t : threads) {
+    			try {
+    				t.join();
+    			}
+    			catch(InterruptedException e) {
+    				Thread.currentThread().interrupt();
+    				fail(e);
+    			}
+    		}
+    		if(failure != null) {
+    			throw new IllegalStateException("A partition failed", failure);
+    		}
+    	}
+    	for(Simulation p : parts) {
+    		p.finishPartition();
+    	}
+    }
+
+    //gathers the partitions' statistics into the whole simulation, as if it had run the whole system itself. Counts,
+    //lengths and time-weighted values are summed over the partitions, and a peak is the sum of the partitions' peaks.
+    public void combine() {
+    	CPU cpus[] = new CPU[whole.numcpus];
+    	SteadyStateStats steady[] = new SteadyStateStats[parts.length];
+    	int first = 0;
+    	whole.eventsProcessed = 0;
+    	whole.endTime = 0;
+    	for(int p = 0; p < parts.length; p++) {
+    		Simulation part = parts[p];
+    		System.arraycopy(part.cpus, 0, cpus, first, part.numcpus);
+    		if(whole.runQueues != null) {
+    			whole.runQueues.absorb(part.runQueues, first);
+    		}
+    		first += part.numcpus;
+    		for(int t = 0; t < whole.procgens.length; t++) {
+    			whole.procgens[t].addStats(part.procgens[t]);
+    		}
+    		steady[p] = part.steady;
+    		whole.eventsProcessed += part.eventsProcessed;
+    		whole.finalEventQueueLength += part.finalEventQueueLength;
+    		whole.avgEventQueueLength += part.avgEventQueueLength;
+    		whole.finalReadyQueueLength += part.finalReadyQueueLength;
+    		whole.avgReadyQueueLength += part.avgReadyQueueLength;
+    		whole.peakReadyQueueLength += part.peakReadyQueueLength;
+    		whole.endTime = Math.max(whole.endTime, part.endTime);
+    	}
+    	whole.cpus = cpus;
+    	whole.steady = SteadyStateStats.combine(steady);
+    	whole.partitionWindows = windows;
+    	whole.partitionMoves = moved;
+    }
+}
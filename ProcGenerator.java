@@ -6,16 +6,25 @@
  * @version 1.00 2016/2/23
  */
 
-import java.util.Random;
+import java.io.IOException;
 import java.lang.Math;
 
 public class ProcGenerator {
+	//the random times of a process, which index dists
+	public static final int CPU = 0;
+	public static final int BURST = 1;
+	public static final int ARRIVAL = 2;
+	public static final int IO = 3;
+	public static final String ROLE_NAMES[] = {"cpu", "burst", "arrival", "io"}; //names used for each time in procgen files
+	
 	private String procType; //name/label for a type of process
 	private int procInd; //index for a process type in a procgen file
 	private long avgBurst; //average burst time for processes of one type
 	private long avgCPUtime; //average time required on the cpu for processes of one type
 	private long avgInterarrival; //average arrival time for processes of one type
 	private long avgIOtime; //average time to complete i/o service for processes of one type
+	private FastRandom r; //this generator's own random number stream
+	private Distribution dists[]; //distribution of each random time, indexed by the constants above
 	
 	//statistics for each process type
 	private long procsMade; //the number of processes a generator has created
@@ -25,6 +34,10 @@ public class ProcGenerator {
 	private long averageTurnaround; //average turnaround time
 	private long throughput; //throughput. This is the number of completed processes divided by the simulation runtime in time units
 	private long turnaroundSum;
+	private LogHistogram turnarounds; //turnaround times of completed processes
+	private LogHistogram waits; //time completed processes spent waiting for a cpu
+	private LogHistogram responses; //time from arrival to first getting a cpu, for completed processes
+	private LogHistogram preemptions; //number of expired quanta of completed processes
 	
    /**Specific constructor method which takes all necessary info from a procgen file
     *
@@ -34,14 +47,23 @@ public class ProcGenerator {
     *@param bj -- average burst time
     *@param aj -- average interarrival time
     *@param ij -- average i/o fault service time
+    *@param rand -- the random number stream for this generator alone
     */
-    public ProcGenerator(String type, int ind, long cj, long bj, long aj, long ij) {
+    public ProcGenerator(String type, int ind, long cj, long bj, long aj, long ij, FastRandom rand) {
     	procType = type;
+    	r = rand;
     	procInd = ind;
     	avgBurst = bj;
     	avgCPUtime = cj;
     	avgInterarrival = aj;
     	avgIOtime = ij;	
+    	
+    	//the original distributions, until the procgen file declares others
+    	dists = new Distribution[4];
+    	dists[CPU] = new ExponentialDistribution(avgCPUtime);
+    	dists[BURST] = new UniformDistribution(avgBurst);
+    	dists[ARRIVAL] = new ExponentialDistribution(avgInterarrival);
+    	dists[IO] = new ExponentialDistribution(avgIOtime);
     		
     	//initialize
     	lastTurnaround = 0;
@@ -49,6 +71,35 @@ public class ProcGenerator {
     	throughput = 0;
     	turnaroundSum = 0;
     	longestTurnaround = 0;
+    	createHistograms();
+    }
+    
+   /**Constructor for a process type whose processes are replayed from a trace instead of generated. Its processes come
+    *from replayProc, and it only keeps the type's statistics.
+    *
+    *@param type -- name of process type
+    *@param ind -- index of process type in the trace
+    */
+    public ProcGenerator(String type, int ind) {
+    	procType = type;
+    	procInd = ind;
+    	r = null;
+    	dists = null;
+    	
+    	//initialize
+    	lastTurnaround = 0;
+    	averageTurnaround = 0;
+    	throughput = 0;
+    	turnaroundSum = 0;
+    	longestTurnaround = 0;
+    	createHistograms();
+    }
+    
+    private void createHistograms() {
+    	turnarounds = new LogHistogram();
+    	waits = new LogHistogram();
+    	responses = new LogHistogram();
+    	preemptions = new LogHistogram();
     }
     
     public String getType() {
@@ -59,45 +110,62 @@ public class ProcGenerator {
     	return procInd;
     }
     
-   //generates a uniformly distributed random number (only used for burst times). 
-   private long uniformRand(long val) {
-   		long burst = 0;
-   		while(burst == 0) {
-   			int range = ((int) val * 2);
-   			Random r = new Random();
-   			burst = (long) r.nextInt(range);
+   /**Average of one of the random times
+    *
+    *@param role -- which time, one of CPU, BURST, ARRIVAL or IO
+    *@return long -- its average
+    */
+   public long getMean(int role) {
+   		switch(role) {
+   			case CPU:
+   				return avgCPUtime;
+   			case BURST:
+   				return avgBurst;
+   			case ARRIVAL:
+   				return avgInterarrival;
+   			default:
+   				return avgIOtime;
    		}
-   		return burst;
    }
    
-   //generates an exponentially distributed random value for process cpuTime, ioTime, and arrival time.
-   private long exponentialRand(long val) {
+   //replaces the distribution of one of the random times
+   public void setDistribution(int role, Distribution d) {
+   		dists[role] = d;
+   }
+   
+   //draws one of the random times. Times are whole time units, and a time of 0 is drawn again.
+   private long draw(int role) {
+   		Distribution d = dists[role];
    		long time = 0;
-   		
    		while(time == 0) {
-   			Random r = new Random();
-   			double u = r.nextDouble();
-   			time = (long) ((Math.log(1.0 - u))/-(1.0/val));
+   			time = (long) d.sample(r);
    		}
-   		
    		return time;
    }
    
-   //uses exponentialRand function to generate the next arrival time.
+   //draws the time until the next arrival.
    //we want the arrival time to be visible to the simulation, which is why this is its own separate function
    public long calcNextArrival() {
-   		return exponentialRand(avgInterarrival);
+   		return draw(ARRIVAL);
    }
    
-   //Method that creates a new process with randomized data. Takes the arrival time as a parameter
-   public Proc generateProc(long arrival) {
+   //Method that creates a new process with randomized data in a process table. Takes the arrival time as a parameter, and
+   //returns the process' slot
+   public int generateProc(long arrival, ProcTable procs) {
    		long id = procsMade;
-   		long cj = exponentialRand(avgCPUtime);
-   		long ij = exponentialRand(avgIOtime);
-   		long bj = uniformRand(avgBurst);
-    	Proc newProc = new Proc(procType, procInd, id, cj, bj, ij, arrival);
+   		long cj = draw(CPU);
+   		long ij = draw(IO);
+   		long bj = draw(BURST);
+    	int slot = procs.add(id, procInd, cj, bj, ij, arrival);
     	procsMade++;
-    	return newProc;
+    	return slot;
+   }
+   
+   //Method that creates a process of this type with times recorded in a trace, and returns its slot
+   public int replayProc(long arrival, long cj, long bj, long ij, ProcTable procs) {
+   		int slot = procs.add(procsMade, procInd, cj, bj, ij, arrival);
+   		procsMade++;
+   		return slot;
    }
    
    public void setLastTurnaround(long t) {
@@ -131,6 +199,62 @@ public class ProcGenerator {
    		return (procsCompleted / (elapsed*1.0));
    }
    
+   //forgets every completed process, at the end of a warm-up period
+   public void resetStats() {
+   		procsCompleted = 0;
+   		lastTurnaround = 0;
+   		longestTurnaround = 0;
+   		turnaroundSum = 0;
+   		createHistograms();
+   }
+   
+   //adds the completed processes of another generator of the same type, like a partition's. The last turnaround is the
+   //other's, if it completed any.
+   public void addStats(ProcGenerator other) {
+   		procsCompleted += other.procsCompleted;
+   		turnaroundSum += other.turnaroundSum;
+   		tryLongestTurnaround(other.longestTurnaround);
+   		if(other.procsCompleted > 0) {
+   			lastTurnaround = other.lastTurnaround;
+   		}
+   		turnarounds.add(other.turnarounds);
+   		waits.add(other.waits);
+   		responses.add(other.responses);
+   		preemptions.add(other.preemptions);
+   }
+   
+   //writes the generator's random number stream, the processes it has made, and its type's stats to a checkpoint
+   public void save(CheckpointWriter w) throws IOException {
+   		if(r != null) {
+   			w.putRandom(r);
+   		}
+   		w.putLong(procsMade);
+   		w.putLong(procsCompleted);
+   		w.putLong(lastTurnaround);
+   		w.putLong(longestTurnaround);
+   		w.putLong(turnaroundSum);
+   		turnarounds.save(w);
+   		waits.save(w);
+   		responses.save(w);
+   		preemptions.save(w);
+   }
+   
+   //takes up the state save wrote, for a generator of the same type built the same way
+   public void restore(CheckpointReader rd) throws IOException {
+   		if(r != null) {
+   			rd.getRandom(r);
+   		}
+   		procsMade = rd.getLong();
+   		procsCompleted = rd.getLong();
+   		lastTurnaround = rd.getLong();
+   		longestTurnaround = rd.getLong();
+   		turnaroundSum = rd.getLong();
+   		turnarounds.restore(rd);
+   		waits.restore(rd);
+   		responses.restore(rd);
+   		preemptions.restore(rd);
+   }
+   
    //increment completed processed
    public void incComplete() {
    		procsCompleted++;
@@ -139,14 +263,41 @@ public class ProcGenerator {
    public long getCompleted() {
         return procsCompleted;
    }
+   
+   //records the latencies of a completed process in this type's histograms
+   public void recordLatencies(ProcTable procs, int slot, long turnaround) {
+   		turnarounds.record(turnaround);
+   		waits.record(procs.getWaitingTime(slot));
+   		responses.record(procs.getResponseTime(slot));
+   		preemptions.record(procs.getPreemptions(slot));
+   }
+   
+   public LogHistogram getTurnarounds() {
+   		return turnarounds;
+   }
+   
+   public LogHistogram getWaits() {
+   		return waits;
+   }
+   
+   public LogHistogram getResponses() {
+   		return responses;
+   }
+   
+   public LogHistogram getPreemptions() {
+   		return preemptions;
+   }
     
     //to string method for this object's creation details with verbose mode enabled
     public String toString() {
+    	if(dists == null) {
+    		return "Replaying '" + procType + "' processes from a trace.\n";
+    	}
     	String s = "Created Proc Generator for '" + procType + "' processes.\n";
-    	s += ("   Average time required on CPU: " +	avgCPUtime + "\n");
-    	s += ("   Average burst time: " +	avgBurst + "\n");
-    	s += ("   Average Interarrival time: " + avgInterarrival + "\n");
-    	s += ("   Average I/O Fault service time: " + avgIOtime + "\n");
+    	s += ("   Average time required on CPU: " +	avgCPUtime + " (" + dists[CPU] + ")\n");
+    	s += ("   Average burst time: " +	avgBurst + " (" + dists[BURST] + ")\n");
+    	s += ("   Average Interarrival time: " + avgInterarrival + " (" + dists[ARRIVAL] + ")\n");
+    	s += ("   Average I/O Fault service time: " + avgIOtime + " (" + dists[IO] + ")\n");
     	return s;
     }
     
@@ -0,0 +1,302 @@
+/**
+ * @(#)ProcTable.java
+ * Table of every process currently in the system, stored as parallel primitive columns indexed by slot instead of one
+ * object per process. Events, cpus and scheduling policies refer to a process only by its slot, so a process costs no
+ * allocation and no garbage, the table's footprint is flat however many processes come and go, and processEvent reads a
+ * process' fields from a few arrays instead of chasing references. Slots of processes that leave the system go on a free
+ * list and are handed out again to new processes.
+ *
+ * What processes there are, and their times, is specified within procgen files.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class ProcTable {
+	public static final int RECORD = 13; //longs in a record written by copyOut
+	//columns, one entry per slot
+	private long pid[]; //the process id, counted per process type
+	private int type[]; //the process type's index in the procgen file
+	private long cpuTime[]; //time required to complete on the cpu
+	private long burstTime[]; //the time for which the process runs between I/O faults
+	private long ioTime[]; //time required to service an I/O fault
+	private long arrival[]; //the time the process arrived/will arrive in the system
+	private long serviceLeft[]; //cpu time still needed to complete
+	private long burstLeft[]; //cpu time left until the next I/O fault
+	private int cpu[]; //the index of the cpu the process is running on, or last ran on
+	private long policyState[]; //whatever the scheduling policy keeps for the process, like its MLFQ level or virtual runtime. Starts at 0.
+	private long readySince[]; //when the process last became ready to run
+	private long waitingTime[]; //total time spent ready but not on a cpu
+	private long responseTime[]; //time from arrival until first put on a cpu. -1 until then.
+	private int preemptions[]; //number of times its quantum expired
+
+	private int free[]; //stack of free slots
+	private int numFree; //number of slots on the free stack
+	private int used; //number of slots ever handed out. Slots at or above this index have never been used.
+
+    public ProcTable(int capacity) {
+    	if(capacity < 1) {
+    		capacity = 1;
+    	}
+    	allocate(capacity);
+    	numFree = 0;
+    	used = 0;
+    }
+
+    //makes every column the given length, keeping what is already in them
+    private void allocate(int n) {
+    	pid = (pid == null) ? new long[n] : Arrays.copyOf(pid, n);
+    	type = (type == null) ? new int[n] : Arrays.copyOf(type, n);
+    	cpuTime = (cpuTime == null) ? new long[n] : Arrays.copyOf(cpuTime, n);
+    	burstTime = (burstTime == null) ? new long[n] : Arrays.copyOf(burstTime, n);
+    	ioTime = (ioTime == null) ? new long[n] : Arrays.copyOf(ioTime, n);
+    	arrival = (arrival == null) ? new long[n] : Arrays.copyOf(arrival, n);
+    	serviceLeft = (serviceLeft == null) ? new long[n] : Arrays.copyOf(serviceLeft, n);
+    	burstLeft = (burstLeft == null) ? new long[n] : Arrays.copyOf(burstLeft, n);
+    	cpu = (cpu == null) ? new int[n] : Arrays.copyOf(cpu, n);
+    	policyState = (policyState == null) ? new long[n] : Arrays.copyOf(policyState, n);
+    	readySince = (readySince == null) ? new long[n] : Arrays.copyOf(readySince, n);
+    	waitingTime = (waitingTime == null) ? new long[n] : Arrays.copyOf(waitingTime, n);
+    	responseTime = (responseTime == null) ? new long[n] : Arrays.copyOf(responseTime, n);
+    	preemptions = (preemptions == null) ? new int[n] : Arrays.copyOf(preemptions, n);
+    	free = (free == null) ? new int[n] : Arrays.copyOf(free, n);
+    }
+
+    //number of processes in the table
+    public int size() {
+    	return used - numFree;
+    }
+
+   /**Puts a new process in a free slot
+    *
+    *@param id -- the process id
+    *@param t -- the process type's index
+    *@param c -- the cpu time it needs to complete
+    *@param b -- the time it runs between I/O faults
+    *@param io -- the time an I/O fault takes to service
+    *@param a -- its arrival time
+    *@return int -- the slot the process was put in
+    */
+    public int add(long id, int t, long c, long b, long io, long a) {
+    	int slot;
+    	if(numFree > 0) {
+    		numFree--;
+    		slot = free[numFree];
+    	}
+    	else {
+    		if(used == pid.length) {
+    			allocate(used * 2);
+    		}
+    		slot = used;
+    		used++;
+    	}
+    	pid[slot] = id;
+    	type[slot] = t;
+    	cpuTime[slot] = c;
+    	burstTime[slot] = b;
+    	ioTime[slot] = io;
+    	arrival[slot] = a;
+    	serviceLeft[slot] = c;
+    	burstLeft[slot] = b;
+    	cpu[slot] = 0;
+    	policyState[slot] = 0;
+    	readySince[slot] = a;
+    	waitingTime[slot] = 0;
+    	responseTime[slot] = -1;
+    	preemptions[slot] = 0;
+    	return slot;
+    }
+
+   /**Writes everything about the process in a slot to a record of RECORD longs, to move it to another table
+    *
+    *@param slot -- the process
+    *@param rec -- the array the record goes in
+    *@param off -- the record's offset in rec
+    */
+    public void copyOut(int slot, long rec[], int off) {
+    	rec[off] = pid[slot];
+    	rec[off + 1] = type[slot];
+    	rec[off + 2] = cpuTime[slot];
+    	rec[off + 3] = burstTime[slot];
+    	rec[off + 4] = ioTime[slot];
+    	rec[off + 5] = arrival[slot];
+    	rec[off + 6] = serviceLeft[slot];
+    	rec[off + 7] = burstLeft[slot];
+    	rec[off + 8] = cpu[slot];
+    	rec[off + 9] = policyState[slot];
+    	rec[off + 10] = waitingTime[slot];
+    	rec[off + 11] = responseTime[slot];
+    	rec[off + 12] = preemptions[slot];
+    }
+
+    //puts a process written by copyOut in a free slot, just as it was, and returns the slot
+    public int copyIn(long rec[], int off) {
+    	int slot = add(rec[off], (int) rec[off + 1], rec[off + 2], rec[off + 3], rec[off + 4], rec[off + 5]);
+    	serviceLeft[slot] = rec[off + 6];
+    	burstLeft[slot] = rec[off + 7];
+    	cpu[slot] = (int) rec[off + 8];
+    	policyState[slot] = rec[off + 9];
+    	waitingTime[slot] = rec[off + 10];
+    	responseTime[slot] = rec[off + 11];
+    	preemptions[slot] = (int) rec[off + 12];
+    	return slot;
+    }
+
+    //writes the whole table to a checkpoint, every slot ever used and the free stack, so slots are handed out afterwards
+    //exactly as they would have been
+    public void save(CheckpointWriter w) throws IOException {
+    	w.putInt(used);
+    	w.putInt(numFree);
+    	w.putLongs(pid, used);
+    	w.putInts(type, used);
+    	w.putLongs(cpuTime, used);
+    	w.putLongs(burstTime, used);
+    	w.putLongs(ioTime, used);
+    	w.putLongs(arrival, used);
+    	w.putLongs(serviceLeft, used);
+    	w.putLongs(burstLeft, used);
+    	w.putInts(cpu, used);
+    	w.putLongs(policyState, used);
+    	w.putLongs(readySince, used);
+    	w.putLongs(waitingTime, used);
+    	w.putLongs(responseTime, used);
+    	w.putInts(preemptions, used);
+    	w.putInts(free, numFree);
+    }
+
+    //replaces the whole table with one written by save
+    public void restore(CheckpointReader r) throws IOException {
+    	int u = r.getInt();
+    	int f = r.getInt();
+    	if(u < 0 || f < 0 || f > u) {
+    		throw new IOException(r.getFile() + " has a damaged process table");
+    	}
+    	if(u > pid.length) {
+    		allocate(u);
+    	}
+    	used = u;
+    	numFree = f;
+    	r.getLongs(pid, used);
+    	r.getInts(type, used);
+    	r.getLongs(cpuTime, used);
+    	r.getLongs(burstTime, used);
+    	r.getLongs(ioTime, used);
+    	r.getLongs(arrival, used);
+    	r.getLongs(serviceLeft, used);
+    	r.getLongs(burstLeft, used);
+    	r.getInts(cpu, used);
+    	r.getLongs(policyState, used);
+    	r.getLongs(readySince, used);
+    	r.getLongs(waitingTime, used);
+    	r.getLongs(responseTime, used);
+    	r.getInts(preemptions, used);
+    	r.getInts(free, numFree);
+    }
+
+    //removes the process in a slot from the table, and makes the slot available again
+    public void release(int slot) {
+    	free[numFree] = slot;
+    	numFree++;
+    }
+
+    //Getter methods
+    public long getpid(int slot) {
+    	return pid[slot];
+    }
+
+    public int getTypeInd(int slot) {
+    	return type[slot];
+    }
+
+    public long getCPUtime(int slot) {
+    	return cpuTime[slot];
+    }
+
+    public long getBurstTime(int slot) {
+    	return burstTime[slot];
+    }
+
+    public long getIOTime(int slot) {
+    	return ioTime[slot];
+    }
+
+    public long getArrivalTime(int slot) {
+    	return arrival[slot];
+    }
+
+    public long getServiceLeft(int slot) {
+    	return serviceLeft[slot];
+    }
+
+    public long getBurstLeft(int slot) {
+    	return burstLeft[slot];
+    }
+
+    public int getcpuInd(int slot) {
+    	return cpu[slot];
+    }
+
+    public long getPolicyState(int slot) {
+    	return policyState[slot];
+    }
+
+    public long getReadySince(int slot) {
+    	return readySince[slot];
+    }
+
+    public long getWaitingTime(int slot) {
+    	return waitingTime[slot];
+    }
+
+    public long getResponseTime(int slot) {
+    	return responseTime[slot];
+    }
+
+    public int getPreemptions(int slot) {
+    	return preemptions[slot];
+    }
+
+    //Setter methods
+    public void setcpuInd(int slot, int ind) {
+    	cpu[slot] = ind;
+    }
+
+    public void setPolicyState(int slot, long st) {
+    	policyState[slot] = st;
+    }
+
+    //the process is ready to run, and starts waiting for a cpu
+    public void setReadySince(int slot, long t) {
+    	readySince[slot] = t;
+    }
+
+    //the process was put on a cpu, so stop counting its wait
+    public void started(int slot, long t) {
+    	waitingTime[slot] += (t - readySince[slot]);
+    	if(responseTime[slot] < 0) {
+    		responseTime[slot] = (t - arrival[slot]);
+    	}
+    }
+
+    public void incPreemptions(int slot) {
+    	preemptions[slot]++;
+    }
+
+    //update burst time left until io fault if removed from cpu for quantum expiration
+    public void updateBurstTime(int slot, long lowest) {
+    	burstLeft[slot] -= lowest;
+    }
+
+    //update cpu service time left until completion if removed from cpu for either an io fault or quantum expiration
+    public void updateCPUtime(int slot, long lowest) {
+    	serviceLeft[slot] -= lowest;
+    }
+
+    //reset burst time until io fault to original value when io fault is completed
+    public void resetBurst(int slot) {
+    	burstLeft[slot] = burstTime[slot];
+    }
+}
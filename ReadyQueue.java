@@ -0,0 +1,101 @@
+/**
+ * @(#)ReadyQueue.java
+ * First-in first-out queue of process table slots for processes waiting to get on a CPU. The slots are kept in a circular
+ * int array that doubles when it fills up, so adding and removing never allocates once the array has reached the longest
+ * queue seen. Also remembers that longest length, the queue's high-water mark.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+
+public class ReadyQueue {
+	private int slots[]; //circular buffer of process slots. Its length is always a power of two.
+	private int head; //index of the front of the queue
+	private int size; //number of slots in the queue
+	private int highWater; //largest size the queue has reached
+
+    public ReadyQueue(int capacity) {
+    	int cap = 16;
+    	while(cap < capacity) {
+    		cap *= 2;
+    	}
+    	slots = new int[cap];
+    	head = 0;
+    	size = 0;
+    	highWater = 0;
+    }
+
+    public ReadyQueue() {
+    	this(16);
+    }
+
+    //Getter methods
+    public int size() {
+    	return size;
+    }
+
+    public boolean isEmpty() {
+    	return size == 0;
+    }
+
+    public int getHighWater() {
+    	return highWater;
+    }
+
+    //adds a process slot to the back of the queue
+    public void add(int slot) {
+    	if(size == slots.length) {
+    		grow();
+    	}
+    	slots[(head + size) & (slots.length - 1)] = slot;
+    	size++;
+    	if(size > highWater) {
+    		highWater = size;
+    	}
+    }
+
+    //removes and returns the process slot at the front of the queue. Only valid while the queue isn't empty.
+    public int pop() {
+    	int slot = slots[head];
+    	head = (head + 1) & (slots.length - 1);
+    	size--;
+    	return slot;
+    }
+
+    //writes the queue, front first, and its high-water mark to a checkpoint
+    public void save(CheckpointWriter w) throws IOException {
+    	w.putInt(size);
+    	w.putInt(highWater);
+    	int first = Math.min(size, slots.length - head);
+    	w.putInts(java.util.Arrays.copyOfRange(slots, head, head + first), first);
+    	w.putInts(slots, size - first);
+    }
+
+    //replaces the queue with one written by save, starting at index 0
+    public void restore(CheckpointReader r) throws IOException {
+    	int n = r.getInt();
+    	highWater = r.getInt();
+    	int cap = 16;
+    	while(cap < n) {
+    		cap *= 2;
+    	}
+    	if(cap > slots.length) {
+    		slots = new int[cap];
+    	}
+    	r.getInts(slots, n);
+    	head = 0;
+    	size = n;
+    }
+
+    //doubles the buffer, unwrapping the queue so it starts at index 0
+    private void grow() {
+    	int bigger[] = new int[slots.length * 2];
+    	int firstPart = slots.length - head;
+    	System.arraycopy(slots, head, bigger, 0, firstPart);
+    	System.arraycopy(slots, 0, bigger, firstPart, head);
+    	slots = bigger;
+    	head = 0;
+    }
+}
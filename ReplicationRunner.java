@@ -0,0 +1,192 @@
+/**
+ * @(#)ReplicationRunner.java
+ * Runs independent replications of one simulation at the same time on a work-stealing pool, and prints the mean of each
+ * statistic across them with its 95% confidence interval. Every replication gets its own seed, drawn in order from a stream
+ * split off the run's seed, so the same seed always gives the same replications no matter which thread runs which.
+ * Replications share nothing, so n of them take about as long as one on an n-core machine.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.io.*;
+
+public class ReplicationRunner {
+	private ForkJoinPool pool; //work-stealing pool the replications run on
+	private PrintStream out; //where the combined statistics are printed
+
+   /**Constructor which allows one to provide the number of replications to run at once
+    *
+    *@param threads -- the number of worker threads. Anything below 1 uses one thread per available core.
+    *@param o -- the stream the combined statistics are printed to
+    */
+    public ReplicationRunner(int threads, PrintStream o) {
+    	if(threads < 1) {
+    		threads = Runtime.getRuntime().availableProcessors();
+    	}
+    	pool = new ForkJoinPool(threads);
+    	out = o;
+    }
+
+    //the number of replications asked for by a set of command line parameters, 1 if none
+    public static int count(String args[]) {
+    	int n = 1;
+    	for(int i = 0; i + 1 < args.length; i++) {
+    		if(args[i].equals("--replications") || args[i].equals("-R")) {
+    			n = Integer.parseInt(args[i + 1]);
+    		}
+    	}
+    	return n;
+    }
+
+    //the statistics of one finished replication, so the rest of its simulation can be thrown away
+    private static class Summary {
+    	String types[]; //process type names, by type index
+    	String policy; //the scheduling policy's name
+    	boolean batch; //do the parameters ask for batch output?
+    	double throughput[]; //per type
+    	double turnaround[]; //per type: average turnaround of completed processes
+    	double cpuStats[][]; //per cpu: active, context switch and idle shares of the measured time
+
+    	Summary(Simulation sim) {
+    		long measured = sim.endTime - sim.warmup;
+    		policy = sim.readyQueue.getName();
+    		batch = sim.batchOutputEnabled;
+    		types = new String[sim.procgens.length];
+    		throughput = new double[types.length];
+    		turnaround = new double[types.length];
+    		for(ProcGenerator pg : sim.procgens) {
+    			types[pg.getTypeInd()] = pg.getType();
+    			throughput[pg.getTypeInd()] = pg.calcThroughput(measured);
+    			turnaround[pg.getTypeInd()] = pg.getTurnarounds().getMean();
+    		}
+    		cpuStats = new double[sim.cpus.length][];
+    		for(int c = 0; c < sim.cpus.length; c++) {
+    			CPU cpu = sim.cpus[c];
+    			cpu.calcPercentageStats(measured);
+    			cpuStats[c] = new double[] {cpu.getActivePerc(), cpu.getSwitchPerc(), cpu.getIdlePerc()};
+    		}
+    	}
+    }
+
+    //runs one replication. Its own output is kept, in case its parameters turn out to be bad. Returns null if they are.
+    private static Summary runReplication(String args[], ByteArrayOutputStream buf) {
+    	PrintStream ps = new PrintStream(buf);
+    	Simulation sim = new Simulation(ps);
+    	boolean ran = sim.run(args);
+    	ps.flush();
+    	return ran ? new Summary(sim) : null;
+    }
+
+   /**Runs n replications of a simulation and prints their combined statistics
+    *
+    *@param args -- the command line parameters of the simulation
+    *@param n -- the number of replications
+    */
+    public void run(String args[], int n) {
+    	//the run's seed comes from the parameters if they have one
+    	Simulation params = new Simulation(new PrintStream(OutputStream.nullOutputStream()));
+    	params.getAndSetParams(args);
+    	long seed = params.seed;
+    	FastRandom seeds = new FastRandom(seed).split();
+
+    	List<ForkJoinTask<Summary>> tasks = new ArrayList<ForkJoinTask<Summary>>();
+    	List<ByteArrayOutputStream> bufs = new ArrayList<ByteArrayOutputStream>();
+    	for(int i = 0; i < n; i++) {
+    		//a seed at the end overrides any earlier one
+    		final String r[] = Arrays.copyOf(args, args.length + 2);
+    		r[args.length] = "--seed";
+    		r[args.length + 1] = Long.toString(seeds.nextLong());
+    		final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+    		bufs.add(buf);
+    		tasks.add(pool.submit(() -> runReplication(r, buf)));
+    	}
+
+    	//combine the replications in order. A statistic gets one value from each replication.
+    	Summary first = null;
+    	BatchMeans throughput[] = null;
+    	BatchMeans turnaround[] = null;
+    	BatchMeans cpuStats[][] = null; //per cpu: active, context switch and idle shares
+    	for(int i = 0; i < n; i++) {
+    		Summary r = tasks.get(i).join();
+    		if(r == null) {
+    			//every replication has the same parameters, so they all failed the same way
+    			out.print(bufs.get(i).toString());
+    			return;
+    		}
+    		bufs.set(i, null);
+    		if(first == null) {
+    			first = r;
+    			throughput = newMeans(r.types.length);
+    			turnaround = newMeans(r.types.length);
+    			cpuStats = new BatchMeans[r.cpuStats.length][];
+    			for(int c = 0; c < cpuStats.length; c++) {
+    				cpuStats[c] = newMeans(3);
+    			}
+    		}
+    		for(int t = 0; t < r.types.length; t++) {
+    			throughput[t].add(r.throughput[t]);
+    			turnaround[t].add(r.turnaround[t]);
+    		}
+    		for(int c = 0; c < cpuStats.length; c++) {
+    			for(int k = 0; k < 3; k++) {
+    				cpuStats[c][k].add(r.cpuStats[c][k]);
+    			}
+    		}
+    	}
+    	printStats(first, n, seed, throughput, turnaround, cpuStats);
+    }
+
+    private static BatchMeans[] newMeans(int n) {
+    	BatchMeans m[] = new BatchMeans[n];
+    	for(int i = 0; i < n; i++) {
+    		m[i] = new BatchMeans();
+    	}
+    	return m;
+    }
+
+    //a mean and the half width of its 95% confidence interval, separated by s
+    private static String interval(BatchMeans m, String s) {
+    	return String.format("%.3f", m.getMean()) + s + String.format("%.3f", m.getHalfWidth());
+    }
+
+    //prints the combined statistics, in batch form if the simulation's parameters ask for it
+    private void printStats(Summary first, int n, long seed, BatchMeans throughput[], BatchMeans turnaround[],
+    	BatchMeans cpuStats[][]) {
+    	if(first.batch) {
+    		String s = " ";
+    		out.print(n + s);
+    		for(int t = 0; t < first.types.length; t++) {
+    			out.print(t + s + interval(throughput[t], s) + s + interval(turnaround[t], s) + s);
+    		}
+    		for(BatchMeans c[] : cpuStats) {
+    			out.print(interval(c[0], s) + s + interval(c[1], s) + s + interval(c[2], s) + s);
+    		}
+    		out.println("");
+    	}
+    	else {
+    		String s = " +/- ";
+    		out.println("********************************************************************");
+    		out.println(n + " replications, means with 95% confidence intervals");
+    		out.println("Scheduling policy: " + first.policy);
+    		out.println("Seed: " + seed);
+    		for(int t = 0; t < first.types.length; t++) {
+    			out.println("Processes of type " + first.types[t] + ":");
+    			out.println("Throughput: " + interval(throughput[t], s));
+    			out.println("Average turnaround: " + interval(turnaround[t], s));
+    		}
+    		for(int c = 0; c < cpuStats.length; c++) {
+    			out.println("CPU#" + c + ": active " + interval(cpuStats[c][0], s) + ", context switch " + interval(cpuStats[c][1], s) +
+    				", idle " + interval(cpuStats[c][2], s) + ".");
+    		}
+    	}
+    	out.flush();
+    }
+
+    //stop the worker threads once the replications are done
+    public void shutdown() {
+    	pool.shutdown();
+    }
+}
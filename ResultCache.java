@@ -0,0 +1,120 @@
+/**
+ * @(#)ResultCache.java
+ * On-disk cache of trial output, so re-running a sweep only runs the trials that changed. A trial is keyed by a SHA-256 hash
+ * of its command line parameters, which include its seed, and of the files they name: the whole procgen file and every
+ * empirical distribution's file of values it declares, and the size and modification time of a replayed trace. Its output
+ * is kept in the cache directory in a file named by the key.
+ *
+ * Only seeded trials are cached, since an unseeded trial gives different output every run. Neither are trials that write a
+ * results file, an event log or checkpoints, since a cached trial wouldn't write them. That includes every resumed trial,
+ * which goes on writing the checkpoints of the run it resumes. FORMAT is part of every key, so changing it when the
+ * simulator's output changes makes every old entry miss.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.*;
+import java.util.*;
+
+public class ResultCache {
+	public static final String FORMAT = "1"; //version of the simulator output the entries hold
+
+	private Path dir; //where the entries are kept
+
+   /**Constructor which opens a cache, creating its directory if needed
+    *
+    *@param d -- the cache directory
+    */
+    public ResultCache(File d) throws IOException {
+    	dir = d.toPath();
+    	Files.createDirectories(dir);
+    }
+
+   /**The cache key of a trial
+    *
+    *@param args -- the trial's command line parameters
+    *@return String -- the key in hex, or null if the trial isn't seeded or writes a results file, event log or checkpoints,
+    *and so can't be cached
+    */
+    public static String key(String args[]) throws IOException {
+    	List<String> a = Arrays.asList(args);
+    	if((!a.contains("--seed") && !a.contains("-s")) || a.contains("--results") || a.contains("-o") ||
+    		a.contains("--event-log") || a.contains("-l") || a.contains("--checkpoint") || a.contains("--resume")) {
+    		return null;
+    	}
+    	MessageDigest md;
+    	try {
+    		md = MessageDigest.getInstance("SHA-256");
+    	}
+    	catch(NoSuchAlgorithmException e) {
+    		throw new IllegalStateException(e);
+    	}
+    	md.update(FORMAT.getBytes(StandardCharsets.UTF_8));
+    	String procgen = "pg2.txt";
+    	for(int i = 0; i < args.length; i++) {
+    		md.update((byte) 0);
+    		md.update(args[i].getBytes(StandardCharsets.UTF_8));
+    		if(i + 1 < args.length && (args[i].equals("-f") || args[i].equals("--procgen-file"))) {
+    			procgen = args[i + 1];
+    		}
+    		//a trace may be huge, so only its size and modification time go in the key
+    		if(i + 1 < args.length && (args[i].equals("-r") || args[i].equals("--replay"))) {
+    			File trace = new File(args[i + 1]);
+    			md.update((trace.length() + " " + trace.lastModified()).getBytes(StandardCharsets.UTF_8));
+    		}
+    	}
+    	md.update((byte) 0);
+    	File pg = new File(procgen);
+    	if(pg.isFile()) {
+    		byte text[] = Files.readAllBytes(pg.toPath());
+    		md.update(text);
+    		//the values of an empirical distribution, like cpu=empirical:times.txt, are read from a file relative to the procgen file
+    		for(String decl : new String(text, StandardCharsets.UTF_8).split("\\s+")) {
+    			int at = decl.indexOf("=empirical:");
+    			if(at < 0) {
+    				continue;
+    			}
+    			String name = decl.substring(at + "=empirical:".length());
+    			File f = new File(name);
+    			if(!f.isAbsolute()) {
+    				f = new File(pg.getAbsoluteFile().getParentFile(), name);
+    			}
+    			md.update((byte) 0);
+    			md.update(name.getBytes(StandardCharsets.UTF_8));
+    			if(f.isFile()) {
+    				md.update(Files.readAllBytes(f.toPath()));
+    			}
+    		}
+    	}
+    	StringBuilder hex = new StringBuilder();
+    	for(byte b : md.digest()) {
+    		hex.append(String.format("%02x", b));
+    	}
+    	return hex.toString();
+    }
+
+    //the cached output for a key, or null if there is none
+    public String get(String key) throws IOException {
+    	Path p = dir.resolve(key);
+    	if(!Files.isRegularFile(p)) {
+    		return null;
+    	}
+    	return new String(Files.readAllBytes(p), StandardCharsets.UTF_8);
+    }
+
+    //caches the output for a key. It is written to a temporary file first, so a reader never sees half an entry.
+    public void put(String key, String output) throws IOException {
+    	Path tmp = Files.createTempFile(dir, key, ".tmp");
+    	try {
+    		Files.write(tmp, output.getBytes(StandardCharsets.UTF_8));
+    		Files.move(tmp, dir.resolve(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    	}
+    	finally {
+    		Files.deleteIfExists(tmp);
+    	}
+    }
+}
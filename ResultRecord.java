@@ -0,0 +1,106 @@
+/**
+ * @(#)ResultRecord.java
+ * The results of one trial as labeled fields, in the order they were added, for a ResultWriter to write. A field holds a
+ * whole number, a real number or a string. A record can be cleared and filled again, reusing its arrays.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.util.Arrays;
+
+public class ResultRecord {
+	//field kinds
+	public static final int LONG = 0;
+	public static final int DOUBLE = 1;
+	public static final int STRING = 2;
+
+	private String names[];
+	private int kinds[];
+	private long longs[]; //value of each LONG field
+	private double doubles[]; //value of each DOUBLE field
+	private String strings[]; //value of each STRING field
+	private int size; //number of fields
+
+    public ResultRecord() {
+    	names = new String[64];
+    	kinds = new int[64];
+    	longs = new long[64];
+    	doubles = new double[64];
+    	strings = new String[64];
+    	size = 0;
+    }
+
+    //adds a field, making room for it if needed, and returns its index
+    private int addField(String name, int kind) {
+    	if(size == names.length) {
+    		int n = size * 2;
+    		names = Arrays.copyOf(names, n);
+    		kinds = Arrays.copyOf(kinds, n);
+    		longs = Arrays.copyOf(longs, n);
+    		doubles = Arrays.copyOf(doubles, n);
+    		strings = Arrays.copyOf(strings, n);
+    	}
+    	names[size] = name;
+    	kinds[size] = kind;
+    	return size++;
+    }
+
+    public void add(String name, long v) {
+    	int i = addField(name, LONG); //before longs is read, since adding may replace it
+    	longs[i] = v;
+    }
+
+    public void add(String name, double v) {
+    	int i = addField(name, DOUBLE); //before doubles is read, since adding may replace it
+    	doubles[i] = v;
+    }
+
+    public void add(String name, String v) {
+    	int i = addField(name, STRING); //before strings is read, since adding may replace it
+    	strings[i] = v;
+    }
+
+    //removes every field
+    public void clear() {
+    	Arrays.fill(strings, 0, size, null);
+    	size = 0;
+    }
+
+    public int size() {
+    	return size;
+    }
+
+    public String getName(int i) {
+    	return names[i];
+    }
+
+    public int getKind(int i) {
+    	return kinds[i];
+    }
+
+    public long getLong(int i) {
+    	return longs[i];
+    }
+
+    public double getDouble(int i) {
+    	return doubles[i];
+    }
+
+    public String getString(int i) {
+    	return strings[i];
+    }
+
+    //true if another record has the same field names and kinds, in the same order
+    public boolean sameFields(ResultRecord other) {
+    	if(other == null || other.size != size) {
+    		return false;
+    	}
+    	for(int i = 0; i < size; i++) {
+    		if(kinds[i] != other.kinds[i] || !names[i].equals(other.names[i])) {
+    			return false;
+    		}
+    	}
+    	return true;
+    }
+}
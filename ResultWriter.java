@@ -0,0 +1,296 @@
+/**
+ * @(#)ResultWriter.java
+ * Writes ResultRecords to a results file: labeled CSV, JSON lines, or compact columnar binary (see the subclasses). There is
+ * one writer per file in a JVM no matter how many simulations write to it, so every trial of a parallel sweep can write to
+ * the same file. Each record is encoded into the writer's own buffer and written whole with a single write, under the
+ * writer's lock and a lock on the file, so records from different threads and from other runs appending to the same file
+ * at once never interleave. A writer that finds the file has grown since its own last write is told so before it encodes,
+ * so a format with headers can repeat them. Records land in the order the trials finish, so each carries its own settings.
+ *
+ * Numbers are written digit by digit straight into the buffer, without String.format or boxing, so writing a record
+ * allocates next to nothing. Writers stay open until closeAll, which also runs when the JVM exits.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.util.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+
+public abstract class ResultWriter implements Closeable {
+	private static final Map<String, ResultWriter> writers = new HashMap<String, ResultWriter>(); //open writers, by canonical path
+	private static boolean hooked = false; //has the shutdown hook that closes them been added?
+
+	protected final File file; //the results file
+	protected final String format; //csv, jsonl or columnar
+	private FileChannel channel; //appending to the file
+	private long lastEnd; //length of the file after this writer's last write, -1 before its first
+	protected byte buf[]; //bytes not yet handed to out: the record being written, and anything a subclass put before it
+	protected int len; //bytes in buf
+	private byte digits[]; //scratch space for formatting numbers
+
+	protected ResultWriter(File f, String fmt) throws IOException {
+		file = f;
+		format = fmt;
+		channel = new FileOutputStream(f, true).getChannel();
+		lastEnd = -1;
+		buf = new byte[4096];
+		len = 0;
+		digits = new byte[20];
+	}
+
+   /**The one writer of a results file, opening it if it isn't open yet. A file that already has results is appended to.
+    *
+    *@param name -- the results file
+    *@param fmt -- csv, jsonl or columnar, or "" to choose by the file's extension (see formatOf)
+    *@return ResultWriter -- the file's writer. Throws IOException if it can't be opened, the format isn't known, or it is
+    *already open in another format.
+    */
+    public static synchronized ResultWriter forFile(String name, String fmt) throws IOException {
+    	if(fmt.isEmpty()) {
+    		fmt = formatOf(name);
+    	}
+    	File f = new File(name).getCanonicalFile();
+    	ResultWriter w = writers.get(f.getPath());
+    	if(w != null) {
+    		if(!w.format.equals(fmt)) {
+    			throw new IOException("already open as " + w.format);
+    		}
+    		return w;
+    	}
+    	switch(fmt) {
+    		case "csv":
+    			w = new CsvResultWriter(f);
+    			break;
+    		case "jsonl":
+    			w = new JsonlResultWriter(f);
+    			break;
+    		case "columnar":
+    			w = new ColumnarResultWriter(f);
+    			break;
+    		default:
+    			throw new IOException("unknown results format '" + fmt + "', expected csv, jsonl or columnar");
+    	}
+    	writers.put(f.getPath(), w);
+    	if(!hooked) {
+    		Runtime.getRuntime().addShutdownHook(new Thread(ResultWriter::closeAll));
+    		hooked = true;
+    	}
+    	return w;
+    }
+
+    //the format a results file's extension implies: .csv is csv, .jsonl or .json is jsonl, anything else columnar
+    public static String formatOf(String name) {
+    	String n = name.toLowerCase();
+    	if(n.endsWith(".csv")) {
+    		return "csv";
+    	}
+    	if(n.endsWith(".jsonl") || n.endsWith(".json")) {
+    		return "jsonl";
+    	}
+    	return "columnar";
+    }
+
+    //closes every open writer. Errors are printed, since there may be nobody left to tell.
+    public static synchronized void closeAll() {
+    	for(ResultWriter w : writers.values()) {
+    		try {
+    			w.close();
+    		}
+    		catch(IOException e) {
+    			System.err.println("Error writing results to " + w.file + ": " + e.getMessage());
+    		}
+    	}
+    	writers.clear();
+    }
+
+   /**Writes one record. Safe to call from any number of threads at once.
+    *
+    *@param r -- the record
+    */
+    public synchronized void write(ResultRecord r) throws IOException {
+    	if(channel == null) {
+    		throw new IOException("results file is closed");
+    	}
+    	FileLock lock = channel.lock();
+    	try {
+    		checkShared();
+    		encode(r);
+    		writeOut();
+    	}
+    	finally {
+    		lock.release();
+    	}
+    }
+
+    //tells the subclass if anyone else has written to the file since this writer last did. Called with the file locked.
+    private void checkShared() throws IOException {
+    	long size = channel.size();
+    	if(size != lastEnd) {
+    		fileChanged(size);
+    	}
+    }
+
+    //writes out buf with a single write, which appends it whole. Called with the file locked.
+    private void writeOut() throws IOException {
+    	ByteBuffer b = ByteBuffer.wrap(buf, 0, len);
+    	while(b.hasRemaining()) {
+    		channel.write(b);
+    	}
+    	len = 0;
+    	lastEnd = channel.size();
+    }
+
+    //encodes a record into buf. A subclass may hold on to records and encode them later, in finish.
+    protected abstract void encode(ResultRecord r) throws IOException;
+
+   /**Called before encoding when the file isn't as this writer left it: on its first write, or after another run appended
+    *to it. Nothing this writer put in the file can be assumed to be at its end.
+    *
+    *@param size -- the file's length
+    */
+    protected void fileChanged(long size) {
+    }
+
+    //encodes into buf whatever is still held back, before the file is closed
+    protected void finish() throws IOException {
+    }
+
+    public synchronized void close() throws IOException {
+    	if(channel == null) {
+    		return;
+    	}
+    	try {
+    		FileLock lock = channel.lock();
+    		try {
+    			checkShared();
+    			finish();
+    			writeOut();
+    		}
+    		finally {
+    			lock.release();
+    		}
+    	}
+    	finally {
+    		channel.close();
+    		channel = null;
+    	}
+    }
+
+    //makes room for n more bytes in buf
+    protected void ensure(int n) {
+    	if(len + n > buf.length) {
+    		buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + n));
+    	}
+    }
+
+    protected void appendByte(int b) {
+    	ensure(1);
+    	buf[len++] = (byte) b;
+    }
+
+    //appends a string's characters, which must all be ASCII
+    protected void appendAscii(String s) {
+    	int n = s.length();
+    	ensure(n);
+    	for(int i = 0; i < n; i++) {
+    		buf[len++] = (byte) s.charAt(i);
+    	}
+    }
+
+    //appends a whole number in decimal
+    protected void appendLong(long v) {
+    	if(v == Long.MIN_VALUE) {
+    		appendAscii(Long.toString(v));
+    		return;
+    	}
+    	ensure(20);
+    	if(v < 0) {
+    		buf[len++] = '-';
+    		v = -v;
+    	}
+    	int d = digits.length;
+    	do {
+    		digits[--d] = (byte) ('0' + v % 10);
+    		v /= 10;
+    	} while(v > 0);
+    	int n = digits.length - d;
+    	System.arraycopy(digits, d, buf, len, n);
+    	len += n;
+    }
+
+    //appends a real number in decimal, rounded to 6 decimal places with trailing zeros dropped. Numbers too big for that,
+    //NaN and the infinities are written as Double.toString writes them.
+    protected void appendDouble(double v) {
+    	if(!(Math.abs(v) < 1e12)) {
+    		appendAscii(Double.toString(v));
+    		return;
+    	}
+    	long scaled = Math.round(Math.abs(v) * 1e6);
+    	if(v < 0 && scaled != 0) {
+    		appendByte('-');
+    	}
+    	appendLong(scaled / 1000000);
+    	int frac = (int) (scaled % 1000000);
+    	if(frac == 0) {
+    		return;
+    	}
+    	int places = 6;
+    	while(frac % 10 == 0) {
+    		frac /= 10;
+    		places--;
+    	}
+    	ensure(7);
+    	buf[len++] = '.';
+    	for(int i = places - 1; i >= 0; i--) {
+    		buf[len + i] = (byte) ('0' + frac % 10);
+    		frac /= 10;
+    	}
+    	len += places;
+    }
+
+    //appends a big-endian 8 byte number
+    protected void appendRawLong(long v) {
+    	ensure(8);
+    	for(int s = 56; s >= 0; s -= 8) {
+    		buf[len++] = (byte) (v >>> s);
+    	}
+    }
+
+    //appends a big-endian 4 byte number
+    protected void appendRawInt(int v) {
+    	ensure(4);
+    	for(int s = 24; s >= 0; s -= 8) {
+    		buf[len++] = (byte) (v >>> s);
+    	}
+    }
+
+    //appends a string as UTF-8 bytes
+    protected void appendUtf8(String s) {
+    	int n = s.length();
+    	for(int i = 0; i < n; i++) {
+    		char c = s.charAt(i);
+    		if(c < 0x80) {
+    			appendByte(c);
+    		}
+    		else if(c < 0x800) {
+    			appendByte(0xC0 | (c >> 6));
+    			appendByte(0x80 | (c & 0x3F));
+    		}
+    		else if(Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+    			int cp = Character.toCodePoint(c, s.charAt(++i));
+    			appendByte(0xF0 | (cp >> 18));
+    			appendByte(0x80 | ((cp >> 12) & 0x3F));
+    			appendByte(0x80 | ((cp >> 6) & 0x3F));
+    			appendByte(0x80 | (cp & 0x3F));
+    		}
+    		else {
+    			appendByte(0xE0 | (c >> 12));
+    			appendByte(0x80 | ((c >> 6) & 0x3F));
+    			appendByte(0x80 | (c & 0x3F));
+    		}
+    	}
+    }
+}
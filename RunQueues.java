@@ -0,0 +1,372 @@
+/**
+ * @(#)RunQueues.java
+ * Per-cpu run queues, in place of one ready queue shared by every cpu. Each cpu has its own instance of the scheduling
+ * policy, and only runs processes from it. A process that becomes ready is placed on one cpu: round robin (rr) takes the
+ * cpus in turn, least-loaded (least) takes an idle cpu or else the one with the shortest queue, and affinity sends a
+ * process back to the cpu it last ran on, and a new process to the least loaded of its type's cpus (the types share the
+ * cpus out between them). A cpu's load is the length of its queue, plus one if it is running something.
+ *
+ * Placement alone can leave cpus idle while others have processes waiting, so processes can also move between queues.
+ * An idle cpu can steal the next process of the longest queue, and a periodic balance evens the loads out. The simulation
+ * decides when these happen; this class only keeps the queues and counts how often processes moved. With a topology, an
+ * idle cpu steals from its own cache domain if it can, then its own socket, since a nearer move costs a smaller warm-up.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class RunQueues {
+	//placements
+	public static final int ROUND_ROBIN = 0;
+	public static final int LEAST_LOADED = 1;
+	public static final int AFFINITY = 2;
+	public static final String PLACEMENT_NAMES[] = {"rr", "least", "affinity"}; //by placement constant
+
+	private SchedulingPolicy queues[]; //each cpu's run queue
+	private int placement; //one of the placement constants above
+	private ProcTable procs;
+	private IdleSet idle; //which cpus are idle
+	private Topology topology; //the cpus' sockets and cache domains, or null
+	private int groups; //AFFINITY: number of groups the cpus are shared out in, one per type if there are enough cpus
+	private int nextCPU; //ROUND_ROBIN: the cpu the next process goes to
+	private int size; //processes waiting in every queue
+	private int highWater; //most processes waiting at once
+	private boolean stealPending[]; //per cpu: is a steal already scheduled?
+	private int lastVictim; //the cpu the last steal took from
+
+	//the moves of the last balance, in order
+	private int movedSlots[];
+	private int movedFrom[];
+	private int movedTo[];
+	private int moves;
+
+	//stats
+	private long migrations; //processes put on a different cpu than they last ran on
+	private long steals; //processes stolen by idle cpus
+	private long balanceMoves; //processes moved by balancing
+	private long waitSum[]; //per cpu: total waiting time of the processes it ran
+	private long dispatched[]; //per cpu: number of processes it ran
+
+   /**Constructor
+    *
+    *@param qs -- a scheduling policy for each cpu. Each holds that cpu's run queue.
+    *@param p -- the placement, one of the placement constants
+    *@param t -- the process table
+    *@param i -- the set of idle cpus
+    *@param types -- the number of process types
+    *@param top -- the cpus' topology, or null
+    */
+    public RunQueues(SchedulingPolicy qs[], int p, ProcTable t, IdleSet i, int types, Topology top) {
+    	queues = qs;
+    	placement = p;
+    	procs = t;
+    	idle = i;
+    	topology = top;
+    	groups = Math.max(1, Math.min(types, qs.length));
+    	nextCPU = 0;
+    	size = 0;
+    	highWater = 0;
+    	stealPending = new boolean[qs.length];
+    	lastVictim = -1;
+    	movedSlots = new int[16];
+    	movedFrom = new int[16];
+    	movedTo = new int[16];
+    	moves = 0;
+    	waitSum = new long[qs.length];
+    	dispatched = new long[qs.length];
+    	resetStats();
+    }
+
+    //a cpu's load: its queue's length, plus one if it is running something
+    private int load(int cpu) {
+    	return queues[cpu].size() + (idle.isIdle(cpu) ? 0 : 1);
+    }
+
+    //the least loaded of the cpus first, first + step, ... The lowest index wins a tie, and an idle cpu ends the search.
+    private int leastLoaded(int first, int step) {
+    	int best = first;
+    	int bestLoad = Integer.MAX_VALUE;
+    	for(int c = first; c < queues.length; c += step) {
+    		int l = load(c);
+    		if(l < bestLoad) {
+    			best = c;
+    			bestLoad = l;
+    			if(l == 0) {
+    				break;
+    			}
+    		}
+    	}
+    	return best;
+    }
+
+   /**Chooses the cpu a process that just became ready goes to
+    *
+    *@param slot -- the process
+    *@return int -- the cpu's index
+    */
+    public int place(int slot) {
+    	switch(placement) {
+    		case ROUND_ROBIN:
+    			int c = nextCPU;
+    			nextCPU = (nextCPU + 1 == queues.length) ? 0 : nextCPU + 1;
+    			return c;
+    		case LEAST_LOADED:
+    			//an idle cpu has nothing waiting, so it is the least loaded there is
+    			int i = idle.first();
+    			return (i >= 0) ? i : leastLoaded(0, 1);
+    		default:
+    			if(procs.getResponseTime(slot) >= 0) {
+    				return procs.getcpuInd(slot);
+    			}
+    			return leastLoaded(procs.getTypeInd(slot) % groups, groups);
+    	}
+    }
+
+    //adds a process to a cpu's queue
+    public void add(int cpu, int slot) {
+    	queues[cpu].add(slot);
+    	size++;
+    	if(size > highWater) {
+    		highWater = size;
+    	}
+    }
+
+    //removes the process a cpu should run next from its queue, and returns its slot. Returns -1 if the queue is empty.
+    public int poll(int cpu) {
+    	int slot = queues[cpu].poll();
+    	if(slot >= 0) {
+    		size--;
+    	}
+    	return slot;
+    }
+
+   /**Takes the next process from the longest other queue, for an idle cpu to run. With a topology, the longest queue of
+    *the nearest cpus that have any. The lowest index wins a tie.
+    *
+    *@param cpu -- the idle cpu
+    *@return int -- the stolen process' slot, or -1 if every other queue is empty
+    */
+    public int steal(int cpu) {
+    	int victim = -1;
+    	int longest = 0;
+    	int nearest = Topology.CROSS_SOCKET + 1;
+    	for(int c = 0; c < queues.length; c++) {
+    		if(c == cpu || queues[c].size() == 0) {
+    			continue;
+    		}
+    		int d = (topology == null) ? 0 : topology.distance(cpu, c);
+    		if(d < nearest || (d == nearest && queues[c].size() > longest)) {
+    			victim = c;
+    			longest = queues[c].size();
+    			nearest = d;
+    		}
+    	}
+    	if(victim < 0) {
+    		return -1;
+    	}
+    	lastVictim = victim;
+    	steals++;
+    	return poll(victim);
+    }
+
+    //removes the next process of the longest queue, to send to another partition, and returns its slot. The lowest index
+    //wins a tie. Returns -1 if every queue is empty.
+    public int pollLongest() {
+    	int longest = 0;
+    	for(int c = 1; c < queues.length; c++) {
+    		if(queues[c].size() > queues[longest].size()) {
+    			longest = c;
+    		}
+    	}
+    	return poll(longest);
+    }
+
+   /**Evens out the cpus' loads. Processes are taken from the front of the queues of cpus loaded above the ceiling of the
+    *average load, and given first to the least loaded cpus, until every load is within one of the average. The moves are
+    *kept for getMovedSlot, getMovedFrom and getMovedTo.
+    *
+    *@return int -- the number of processes moved
+    */
+    public int balance() {
+    	int n = queues.length;
+    	long total = size + (n - idle.size());
+    	int lo = (int) (total / n);
+    	int hi = (int) ((total + n - 1) / n);
+    	moves = 0;
+    	for(int c = 0; c < n; c++) {
+    		for(int l = load(c); l > hi && queues[c].size() > 0; l--) {
+    			if(moves == movedSlots.length) {
+    				movedSlots = Arrays.copyOf(movedSlots, moves * 2);
+    				movedFrom = Arrays.copyOf(movedFrom, moves * 2);
+    				movedTo = Arrays.copyOf(movedTo, moves * 2);
+    			}
+    			movedSlots[moves] = poll(c);
+    			movedFrom[moves] = c;
+    			moves++;
+    		}
+    	}
+    	//fill every cpu up to the floor of the average first, then up to the ceiling
+    	int k = 0;
+    	for(int cap = lo; cap <= hi && k < moves; cap++) {
+    		for(int c = 0; c < n && k < moves; c++) {
+    			while(k < moves && load(c) < cap) {
+    				add(c, movedSlots[k]);
+    				movedTo[k] = c;
+    				k++;
+    			}
+    		}
+    	}
+    	//the loads always leave room for every process taken, but never lose one if they don't
+    	for(; k < moves; k++) {
+    		add(movedFrom[k], movedSlots[k]);
+    		movedTo[k] = movedFrom[k];
+    	}
+    	balanceMoves += moves;
+    	return moves;
+    }
+
+    //Getter methods
+    //the process, from cpu and to cpu of one of the last balance's moves
+    public int getMovedSlot(int i) {
+    	return movedSlots[i];
+    }
+
+    public int getMovedFrom(int i) {
+    	return movedFrom[i];
+    }
+
+    public int getMovedTo(int i) {
+    	return movedTo[i];
+    }
+
+    public int getLastVictim() {
+    	return lastVictim;
+    }
+
+    //a cpu's scheduling policy
+    public SchedulingPolicy get(int cpu) {
+    	return queues[cpu];
+    }
+
+    //number of processes waiting in every queue
+    public int size() {
+    	return size;
+    }
+
+    public int getHighWater() {
+    	return highWater;
+    }
+
+    public String getPlacementName() {
+    	return PLACEMENT_NAMES[placement];
+    }
+
+    //is a steal already scheduled for a cpu?
+    public boolean isStealPending(int cpu) {
+    	return stealPending[cpu];
+    }
+
+    public void setStealPending(int cpu, boolean p) {
+    	stealPending[cpu] = p;
+    }
+
+   /**Records a process being put on a cpu
+    *
+    *@param cpu -- the cpu
+    *@param wait -- how long the process waited since it last became ready
+    *@param migrated -- true if it last ran on another cpu
+    */
+    public void dispatched(int cpu, long wait, boolean migrated) {
+    	waitSum[cpu] += wait;
+    	dispatched[cpu]++;
+    	if(migrated) {
+    		migrations++;
+    	}
+    }
+
+    public long getMigrations() {
+    	return migrations;
+    }
+
+    public long getSteals() {
+    	return steals;
+    }
+
+    public long getBalanceMoves() {
+    	return balanceMoves;
+    }
+
+    //number of processes a cpu has run
+    public long getDispatched(int cpu) {
+    	return dispatched[cpu];
+    }
+
+    //average waiting time of the processes a cpu has run
+    public double getAverageWait(int cpu) {
+    	return (dispatched[cpu] == 0) ? 0.0 : (waitSum[cpu] * 1.0) / dispatched[cpu];
+    }
+
+   /**Takes over the queues and stats of one partition's run queues, for the cpus of this one that stand for its cpus
+    *
+    *@param part -- the partition's run queues
+    *@param first -- the index here of the partition's first cpu
+    */
+    public void absorb(RunQueues part, int first) {
+    	for(int c = 0; c < part.queues.length; c++) {
+    		queues[first + c] = part.queues[c];
+    		waitSum[first + c] = part.waitSum[c];
+    		dispatched[first + c] = part.dispatched[c];
+    	}
+    	size += part.size;
+    	highWater += part.highWater;
+    	migrations += part.migrations;
+    	steals += part.steals;
+    	balanceMoves += part.balanceMoves;
+    }
+
+    //writes every cpu's queue, the placement's position, the pending steals and the stats to a checkpoint
+    public void save(CheckpointWriter w) throws IOException {
+    	w.putInt(nextCPU);
+    	w.putInt(size);
+    	w.putInt(highWater);
+    	w.putInt(lastVictim);
+    	w.putLong(migrations);
+    	w.putLong(steals);
+    	w.putLong(balanceMoves);
+    	w.putLongs(waitSum, queues.length);
+    	w.putLongs(dispatched, queues.length);
+    	for(int c = 0; c < queues.length; c++) {
+    		w.putBoolean(stealPending[c]);
+    		queues[c].save(w);
+    	}
+    }
+
+    //takes up the state save wrote, for run queues of as many cpus
+    public void restore(CheckpointReader r) throws IOException {
+    	nextCPU = r.getInt();
+    	size = r.getInt();
+    	highWater = r.getInt();
+    	lastVictim = r.getInt();
+    	migrations = r.getLong();
+    	steals = r.getLong();
+    	balanceMoves = r.getLong();
+    	r.getLongs(waitSum, queues.length);
+    	r.getLongs(dispatched, queues.length);
+    	for(int c = 0; c < queues.length; c++) {
+    		stealPending[c] = r.getBoolean();
+    		queues[c].restore(r);
+    	}
+    }
+
+    //forgets the stats, at the end of a warm-up period
+    public void resetStats() {
+    	migrations = 0;
+    	steals = 0;
+    	balanceMoves = 0;
+    	Arrays.fill(waitSum, 0);
+    	Arrays.fill(dispatched, 0);
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * @(#)SchedulingPolicy.java
+ * A CPU scheduling policy. The policy owns the ready structure: processes that can't get a CPU are added to it, and it
+ * decides which waiting process gets the next free CPU. Processes are stored, and passed in, by their ProcTable slot, and
+ * a policy that needs a process' times or type reads them from the table it was built with.
+ *
+ * Policies: fcfs and rr (one FIFO queue, rr is fcfs with a quantum), sjf (shortest total cpu time), srtf (shortest remaining
+ * cpu time), priority (static priority by procgen type, earlier types first), mlfq (multilevel feedback queue), lottery
+ * (tickets per procgen type) and cfs (smallest virtual runtime).
+ *
+ * The simulation only asks a policy for the next process when a cpu comes free. fcfs and rr with the global ready queue
+ * keep the simulator's original dispatch instead, where every event polls the queue, so their output matches earlier versions.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+
+public interface SchedulingPolicy {
+
+	//adds a process to the ready structure
+	public void add(int slot);
+
+	//removes the process that should run next, and returns its slot. Returns -1 if no process is waiting.
+	public int poll();
+
+   /**Called whenever a process is put on a cpu
+    *
+    *@param slot -- the process
+    *@param kind -- the kind code of the event that will end its run
+    *@param ran -- how long it will run, not counting the context switch
+    */
+	public void dispatched(int slot, int kind, long ran);
+
+	public int size();
+
+	public boolean isEmpty();
+
+	//the most processes that have been waiting at once
+	public int getHighWater();
+
+	public String getName();
+
+	//writes the waiting processes, in the order the policy keeps them, and whatever else it keeps, to a checkpoint
+	public void save(CheckpointWriter w) throws IOException;
+
+	//takes up the state save wrote, in place of this policy's own, for a policy built the same way
+	public void restore(CheckpointReader r) throws IOException;
+}
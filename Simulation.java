@@ -0,0 +1,1798 @@
+/**
+ * @(#)Simulation.java
+ * A single run of the scheduler simulation. Every Simulation owns all of its own settings, queues, cpus, process generators and
+ * statistics, so any number of them can run at once on different threads without sharing state. SchedulerSimulation and
+ * SweepRunner both drive the simulation through this class.
+ *
+ *
+ * @author Iain	St.	John --	CSC	432	Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version	1.00 2016/2/23
+ */
+
+import java.util.*;
+import java.io.*;
+
+public class Simulation {
+	//Simulation settings -- corresponding to command line parameters
+	boolean verboseModeEnabled; //verbose printing of runtime details. Default: off.
+	boolean batchOutputEnabled; //batch output of stats. Default: off.
+	boolean ioFaultsEnabled; //whether or not processes will require I/O service. Default: on.
+	int quantum; //time quantum for process pre-emption on CPUs. Default: 0 (No pre-emption).
+	int switchCost; //simulated conext switch cost. Default: 0.
+	int numcpus; //the number of CPUs in this simulated system. Default: 1.
+	long simStopTime; //the time at which this simulation stops running. Default: -1, meaning that it will keep running until stopped at command-line, or halts.
+	String procgenFilename; //the name of the process generation file. Default: pg2.txt.
+	String eventSetType; //which EventSet implementation holds pending events, "heap" or "calendar". Default: heap.
+	String policyName; //which SchedulingPolicy decides the next process to run. Default: fcfs.
+	long seed; //seed for all of this simulation's random numbers. Default: different every run.
+	FastRandom rng; //the simulation's root random number stream. Process generators and policies get streams split from it.
+	String replayFilename; //binary trace to replay instead of generating processes. Default: none.
+	TraceReader replay; //the trace being replayed, or null when processes are generated
+	String eventLogFilename; //binary event log to write the verbose details to instead of printing them. Default: none.
+	EventSink trace; //where verbose details go, or null when they aren't recorded
+	String resultsFilename; //file to append this run's statistics to as a labeled record. Default: none.
+	String resultsFormat; //csv, jsonl or columnar. Default: chosen by the results file's extension.
+	ResultWriter results; //the results file's writer, or null when there isn't one
+	long warmup; //statistics from before this time are thrown away. Default: 0.
+	int ciBatches; //number of batches the measured time is cut into for confidence intervals. Default: 20.
+	double precision; //stop once every confidence interval's half width is within this fraction of its mean. Default: 0, never.
+	long checkInterval; //with a precision, the time between checks, which is also the batch length. Default: 1% of the run.
+	long stoppedAt; //the time the run stopped early at, or -1 if it ran to the stop-time
+	int replications; //number of independent replications SchedulerSimulation runs of these parameters. Default: 1.
+	String runQueueMode; //global for one ready queue shared by every cpu, or a RunQueues placement for per-cpu queues. Default: global.
+	long stealInterval; //per-cpu queues: idle cpus steal at once, and retry this often while idle. Default: 0, never steal.
+	long balanceInterval; //per-cpu queues: time between load balances. Default: 0, never balance.
+	int sockets; //the cpus are split evenly into this many sockets. Default: 1.
+	int cacheDomains; //each socket's cpus are split evenly into this many cache domains. Default: 1.
+	String migrationCosts; //warm-up penalties for a move to another core, cache domain and socket, comma separated. Default: none.
+	boolean affinity; //with the shared ready queue, put a process on the idle cpu nearest the one it last ran on? Default: false.
+	boolean originalDispatch; //does the run take the original dispatch, fcfs or rr with the global ready queue, and its run accounting, so its output stays what it always was? Every other run charges by time left.
+	int partitions; //number of partitions the cpus are split into, each simulated by its own thread. Default: 1, no partitions.
+	int threads; //worker threads for the partitions. Default: 0, one per partition, up to the number of cores.
+	long window; //partitions run in lockstep windows this long, and a process moved between them arrives a window later. Default: 0, a thousandth of the run.
+	boolean arrivalsFed; //is this one partition of a PartitionedSimulation, which sends it its arrivals instead of it generating them?
+	String checkpointFilename; //file the whole state of the run is saved to every checkpoint interval. Default: none.
+	long checkpointInterval; //time between checkpoints. Default: 0, a tenth of the run.
+	String resumeFilename; //checkpoint to continue a run from. Default: none.
+	long branch; //with a checkpoint to resume, 0 to go on exactly as the saved run would have, or the random streams' branch. Default: 0.
+	String runArgs[]; //the command line this run's parameters came from, saved in its checkpoints
+	boolean preemptionEnabled;
+
+	//Variables/Objects which provide simulation functionality
+	boolean anyIdleCPUs; //are any cpus available right now?
+	CPU[] cpus; //array of cpus in this system
+	IdleSet idleCPUs; //which cpus are idle right now. The cpus keep it up to date.
+	ProcGenerator procgens[]; //array of process generators for each process type
+	long eventsMade; //number of created events
+	PrintStream out; //where all of this simulation's output is written
+
+	//Event Stats
+	long endTime; //the time of the last event processed
+	long eventsProcessed;
+	long finalEventQueueLength;
+	double avgEventQueueLength;
+
+	//partitioned run stats, set by PartitionedSimulation
+	long partitionWindows; //windows run
+	long partitionMoves; //processes moved between partitions
+	int partitionThreads; //worker threads used
+
+	//where the event loop has got to: between a partition's calls to advanceTo, and in a checkpoint
+	long loopTime; //the time of the last event processed
+	int loopIteration;
+	long loopSumEventQ;
+	long loopSumReadyQ;
+	long loopSamples;
+	boolean loopWarmedUp;
+	int loopChecked; //batches done at the last convergence check
+
+	//Proc stats
+	long finalReadyQueueLength;
+	double avgReadyQueueLength;
+	long peakReadyQueueLength; //high-water mark of the ready queue
+
+	//time-weighted averages and confidence intervals of the measured time, after the warm-up period
+	SteadyStateStats steady;
+
+	//Queues for runtime
+	EventSet eventQueue; //event queue. Priority is based on Event timestamps.
+	SchedulingPolicy readyQueue; //the scheduling policy, which holds the processes waiting to get on a CPU.
+	RunQueues runQueues; //each cpu's own run queue, or null when the cpus share readyQueue
+	Topology topology; //the cpus' sockets and cache domains, or null if no topology was asked for
+	ProcTable procTable; //every process in the system, as primitive columns. Everything refers to a process by its slot in this table.
+
+   /**Constructor for a simulation which writes all of its output to the given stream
+    *
+    *@param o -- the stream to print verbose info and statistics to
+    */
+	public Simulation(PrintStream o) {
+		out = o;
+		//initialize values for both simulation's settings and statistics
+		initStatsAndSettings();
+	}
+
+   /**Runs one complete simulation with the given command line parameters, and prints its statistics.
+    *
+    *@param args -- the command line parameters for this run
+    *@return boolean -- false if the parameters didn't describe a simulation that can run
+    */
+	public boolean run(String args[]) {
+		if(!setUp(args)) {
+			return false;
+		}
+		if(partitions > 1) {
+			return runPartitioned(args);
+		}
+
+		//we are starting at an arbitrary time of 0, or wherever a resumed checkpoint left off
+		long timeUnitsElapsed = loopTime;
+		int iteration = loopIteration; //number of iterations
+		long sumEventQ = loopSumEventQ; //sum of all iteration's event queue lengths
+		long sumReadyQ = loopSumReadyQ; //sum of all iteration's ready queue lengths
+		long samples = loopSamples; //number of iterations after the warm-up period
+		boolean warmedUp = loopWarmedUp;
+		int checked = loopChecked; //batches done at the last convergence check
+		if(resumeFilename == "") {
+			steady.observe(0, readyLength(), eventQueue.size(), numcpus - idleCPUs.size());
+		}
+		//checkpoints are taken at multiples of the interval, before the first event at or after each
+		long nextCheckpoint = Long.MAX_VALUE;
+		if(checkpointFilename != "" && !eventQueue.isEmpty()) {
+			nextCheckpoint = (eventQueue.peekTime() / checkpointInterval + 1) * checkpointInterval;
+		}
+		//begin the simulation, and run it until the stop time is reached
+		int lastLongestReady = 0;
+		int lastLongestEvent = 0;
+		//a replayed trace can run out of events before the stop time
+		while(timeUnitsElapsed <= simStopTime && !eventQueue.isEmpty()) {
+			//save the whole simulation, and where this loop has got to, so the run can go on from here
+			if(eventQueue.peekTime() >= nextCheckpoint) {
+				loopTime = timeUnitsElapsed;
+				loopIteration = iteration;
+				loopSumEventQ = sumEventQ;
+				loopSumReadyQ = sumReadyQ;
+				loopSamples = samples;
+				loopWarmedUp = warmedUp;
+				loopChecked = checked;
+				writeCheckpoint();
+				nextCheckpoint = (eventQueue.peekTime() / checkpointInterval + 1) * checkpointInterval;
+			}
+			//throw away everything measured before the end of the warm-up period
+			if(!warmedUp && eventQueue.peekTime() >= warmup) {
+				discardWarmup();
+				sumEventQ = 0;
+				sumReadyQ = 0;
+				samples = 0;
+				warmedUp = true;
+			}
+			sumEventQ += eventQueue.size();
+
+			//remove next event from event queue and process it, then update time units
+			timeUnitsElapsed = processNextEvent(timeUnitsElapsed, iteration);
+			eventsProcessed++;
+
+			sumReadyQ += readyLength();
+			steady.observe(timeUnitsElapsed, readyLength(), eventQueue.size(), numcpus - idleCPUs.size());
+			iteration++;
+			samples++;
+
+			//stop once the estimates have converged, checked each time a batch ends
+			if(precision > 0 && steady.getBatchesDone() > checked) {
+				checked = steady.getBatchesDone();
+				if(steady.hasConverged(precision)) {
+					stoppedAt = timeUnitsElapsed;
+					break;
+				}
+			}
+		}
+		if(stoppedAt < 0) {
+			steady.advance(simStopTime);
+		}
+		//timeUnitsElapsed has surpassed stopTime -- end of event processing loop. Gather/calculate last of statistics, and print them
+		finalEventQueueLength = eventQueue.size();
+		finalReadyQueueLength = readyLength();
+		peakReadyQueueLength = (runQueues != null) ? runQueues.getHighWater() : readyQueue.getHighWater();
+		avgReadyQueueLength = (sumReadyQ / (samples*1.0));
+		avgEventQueueLength = (sumEventQ / (samples*1.0));
+		endTime = timeUnitsElapsed;
+		closeEventSink();
+		printStats(timeUnitsElapsed);
+		writeResults(timeUnitsElapsed);
+		closeReplay();
+		return true;
+	}//	end	of run method
+
+	//saves the whole simulation to the checkpoint file. A checkpoint that can't be written is reported, and the run goes on.
+	public void writeCheckpoint() {
+		try {
+			Checkpoint.save(this, new File(checkpointFilename));
+		}
+		catch(IOException e) {
+			out.println("Can't write checkpoint '" + checkpointFilename + "': " + e.getMessage());
+		}
+	}
+
+   /**Runs the simulation split into partitions, one thread each, and prints the statistics of the whole system. This
+	*simulation generates the arrivals, and ends up holding the partitions' combined statistics. The results approximate
+	*the system rather than match a serial run; see PartitionedSimulation.
+	*
+	*@param args -- the command line parameters for this run
+	*@return boolean -- false if the partitions couldn't be set up
+	*/
+	public boolean runPartitioned(String args[]) {
+		PartitionedSimulation ps = new PartitionedSimulation(this);
+		if(!ps.setUp(args)) {
+			return false;
+		}
+		ps.run();
+		ps.combine();
+		printStats(endTime);
+		writeResults(endTime);
+		return true;
+	}
+
+   /**Runs a partition up to a time: processes every event before end, and none after the stop time. The same loop as run,
+	*less the early stop, kept in fields between calls.
+	*
+	*@param end -- the end of the window
+	*/
+	public void advanceTo(long end) {
+		long limit = Math.min(end, simStopTime + 1);
+		while(!eventQueue.isEmpty() && eventQueue.peekTime() < limit) {
+			if(!loopWarmedUp && eventQueue.peekTime() >= warmup) {
+				discardWarmup();
+				loopSumEventQ = 0;
+				loopSumReadyQ = 0;
+				loopSamples = 0;
+				loopWarmedUp = true;
+			}
+			loopSumEventQ += eventQueue.size();
+			loopTime = processNextEvent(loopTime, loopIteration);
+			eventsProcessed++;
+			loopSumReadyQ += readyLength();
+			steady.observe(loopTime, readyLength(), eventQueue.size(), numcpus - idleCPUs.size());
+			loopIteration++;
+			loopSamples++;
+		}
+	}
+
+	//gathers the last of a partition's statistics once it has run to the stop time, as run does
+	public void finishPartition() {
+		steady.advance(simStopTime);
+		finalEventQueueLength = eventQueue.size();
+		finalReadyQueueLength = readyLength();
+		peakReadyQueueLength = (runQueues != null) ? runQueues.getHighWater() : readyQueue.getHighWater();
+		avgReadyQueueLength = (loopSumReadyQ / (loopSamples*1.0));
+		avgEventQueueLength = (loopSumEventQ / (loopSamples*1.0));
+		endTime = loopTime;
+	}
+
+   /**Takes in a process sent by another partition, or by the generator, and creates the event it arrives with
+	*
+	*@param rec -- the array holding the process, written by ProcTable.copyOut
+	*@param off -- its offset in rec
+	*@param kind -- the kind of event it arrives with
+	*@param time -- when it arrives
+	*/
+	public void receive(long rec[], int off, int kind, long time) {
+		int slot = procTable.copyIn(rec, off);
+		//a process from another partition keeps its cpu index, as if the partitions were alike
+		if(procTable.getcpuInd(slot) >= numcpus) {
+			procTable.setcpuInd(slot, procTable.getcpuInd(slot) % numcpus);
+		}
+		addEvent(time, kind, slot);
+	}
+
+	//removes a waiting process, to send to another partition, and returns its slot, or -1 if none is waiting
+	public int takeWaiting() {
+		return (runQueues != null) ? runQueues.pollLongest() : readyQueue.poll();
+	}
+
+	//the number of processes waiting for or running on a cpu
+	public int load() {
+		return readyLength() + numcpus - idleCPUs.size();
+	}
+
+   /**Reads the command line parameters and builds everything a simulation needs: the event and ready queues, process table,
+    *cpus, process generators, and the first arrival of each process type. Prints why and returns false if the parameters
+    *don't describe a simulation that can run.
+    *
+    *@param args -- the command line parameters for this run
+    *@return boolean -- true if the simulation is ready to process events
+    */
+	public boolean setUp(String args[]) {
+		//acquire our command line parameters. Validate and set simulation settings and variables accordingly.
+		if(args.length == 0) {
+			out.println("Invalid call. Call with --help or -h to see usage details.");
+			return false;
+		}
+		else {
+			getAndSetParams(args);
+		}
+		//a resumed run starts from the command line of the run that saved the checkpoint, with its own parameters after it
+		runArgs = Checkpoint.runArgs(args);
+		if(resumeFilename != "") {
+			String saved[];
+			try {
+				saved = Checkpoint.readArgs(new File(resumeFilename));
+			}
+			catch(IOException e) {
+				out.println("Can't resume from '" + resumeFilename + "': " + e.getMessage());
+				return false;
+			}
+			String all[] = Arrays.copyOf(saved, saved.length + args.length);
+			System.arraycopy(args, 0, all, saved.length, args.length);
+			initStatsAndSettings();
+			getAndSetParams(all);
+			runArgs = Checkpoint.runArgs(all);
+		}
+
+		//the only parameter that must be supplied is stop-time, make sure we have a valid one. Terminate if we don't
+		if(simStopTime <= 0) {
+			out.println("A simulation stop-time must be supplied to execute. Call with --help or -h to see details.");
+			return false;
+		}
+		if(warmup < 0 || warmup >= simStopTime) {
+			out.println("The warm-up period must end before the stop-time. Call with --help or -h to see details.");
+			return false;
+		}
+		if(sockets < 1 || cacheDomains < 1 || sockets * cacheDomains > numcpus) {
+			out.println("There must be at least one cpu in every cache domain. Call with --help or -h to see details.");
+			return false;
+		}
+		if(sockets > 1 || cacheDomains > 1 || migrationCosts != "" || affinity) {
+			long costs[] = parseMigrationCosts(migrationCosts);
+			if(costs == null) {
+				out.println("Bad migration costs '" + migrationCosts + "'. Call with --help or -h to see details.");
+				return false;
+			}
+			topology = new Topology(numcpus, sockets, cacheDomains, costs[0], costs[1], costs[2]);
+		}
+		if(partitions < 1 || partitions > numcpus || threads < 0 || window < 0) {
+			out.println("There must be between 1 and as many partitions as cpus, and threads and the window can't be negative. " +
+				"Call with --help or -h to see details.");
+			return false;
+		}
+		if(partitions > 1 && (replayFilename != "" || verboseModeEnabled || eventLogFilename != "" || precision > 0)) {
+			out.println("--partitions can't replay a trace, print verbose details or stop early. Call with --help or -h to see details.");
+			return false;
+		}
+		if((checkpointFilename != "" || resumeFilename != "") && (partitions > 1 || replications > 1)) {
+			out.println("Checkpoints can't be used with --partitions or --replications. Call with --help or -h to see details.");
+			return false;
+		}
+		if(checkpointInterval < 0 || (branch != 0 && resumeFilename == "")) {
+			out.println("The checkpoint interval can't be negative, and --branch needs --resume. Call with --help or -h to see details.");
+			return false;
+		}
+		if(stealInterval < 0 || balanceInterval < 0) {
+			out.println("The steal and balance intervals can't be negative. Call with --help or -h to see details.");
+			return false;
+		}
+		if(precision < 0 || checkInterval < 0) {
+			out.println("The precision and check interval can't be negative. Call with --help or -h to see details.");
+			return false;
+		}
+
+		//if the user doesn't supply their own procgen file, use the default, pg2.txt
+		if(procgenFilename == "") {
+			procgenFilename = "pg2.txt";
+		}
+
+		//at this point, all parameters/settings should be acquired, validated, set, and stored.
+		//create the event and ready queues
+		eventQueue = createEventSet();
+		if(eventQueue == null) {
+			out.println("Unknown event set '" + eventSetType + "'. Call with --help or -h to see details.");
+			return false;
+		}
+		procTable = new ProcTable(64);
+
+		//create all system cpus
+		originalDispatch = (policyName.equals("fcfs") || policyName.equals("rr")) && runQueueMode.equals("global");
+		createCPUs();
+
+		//create the random number streams, then process generators, each with its own stream
+		rng = new FastRandom(seed);
+		if(replayFilename != "") {
+			//replayed process types come from the trace instead of the procgen file
+			procgens = openReplay();
+		}
+		else {
+			procgens = createProcGenerators();
+		}
+		if(procgens == null) {
+			return false;
+		}
+
+		//create the scheduling policy, which owns the ready queue
+		readyQueue = createPolicy();
+		if(readyQueue == null) {
+			out.println("Unknown scheduling policy '" + policyName + "'. Call with --help or -h to see details.");
+			return false;
+		}
+		//per-cpu run queues each get their own instance of the policy
+		if(!runQueueMode.equals("global")) {
+			int placement = Arrays.asList(RunQueues.PLACEMENT_NAMES).indexOf(runQueueMode);
+			if(placement < 0) {
+				out.println("Unknown run queues '" + runQueueMode + "'. Call with --help or -h to see details.");
+				return false;
+			}
+			SchedulingPolicy queues[] = new SchedulingPolicy[numcpus];
+			for(int i = 0; i < numcpus; i++) {
+				queues[i] = createPolicy();
+			}
+			runQueues = new RunQueues(queues, placement, procTable, idleCPUs, procgens.length, topology);
+		}
+
+		//with a precision, the stop-time is only a cap, and a batch ends at every check
+		long measured = simStopTime - warmup;
+		if(precision > 0) {
+			long interval = (checkInterval > 0) ? checkInterval : Math.max(1, measured / 100);
+			steady = new SteadyStateStats(warmup, simStopTime, interval, (int) Math.min(Integer.MAX_VALUE, Math.max(1, measured / interval)),
+				procgens.length);
+		}
+		else {
+			steady = new SteadyStateStats(warmup, simStopTime, measured / Math.max(1, ciBatches), ciBatches, procgens.length);
+		}
+		loopWarmedUp = (warmup == 0);
+		if(checkpointInterval == 0) {
+			checkpointInterval = Math.max(1, simStopTime / 10);
+		}
+
+		//a resumed run takes up every process, event, random number stream and statistic where the checkpoint left them
+		if(resumeFilename != "") {
+			try {
+				Checkpoint.restore(this, new File(resumeFilename), branch);
+			}
+			catch(IOException e) {
+				out.println("Can't resume from '" + resumeFilename + "': " + e.getMessage());
+				closeReplay();
+				return false;
+			}
+		}
+
+		//the results file is shared with every other run that names it, so it stays open after this run
+		if(resultsFilename != "") {
+			try {
+				results = ResultWriter.forFile(resultsFilename, resultsFormat);
+			}
+			catch(IOException e) {
+				out.println("Can't write results to '" + resultsFilename + "': " + e.getMessage());
+				return false;
+			}
+		}
+
+		//open wherever the verbose details go. This is the last thing that can fail, so a sink is never left open.
+		if(!openEventSink()) {
+			return false;
+		}
+
+		//a partition's arrivals come from its PartitionedSimulation, and it runs a window at a time
+		if(arrivalsFed) {
+			steady.keepBatches();
+			steady.observe(0, readyLength(), eventQueue.size(), numcpus - idleCPUs.size());
+			scheduleBalance(balanceInterval);
+			return true;
+		}
+
+		//a resumed run's pending arrivals and balances were restored with its other events
+		if(resumeFilename != "") {
+			return true;
+		}
+
+		//a replayed trace has a single stream of arrivals, so only its first job is queued
+		if(replay != null) {
+			scheduleReplayArrival();
+			scheduleBalance(balanceInterval);
+			return true;
+		}
+
+		//create initial events for each process type, and add them to the event queue
+		for(ProcGenerator pg : procgens) {
+			//get a new random arrival time
+			long nextArrival = pg.calcNextArrival();
+			//create initial process creation events, with newly created proc
+			int slot = pg.generateProc(nextArrival, procTable);
+			//record verbose info if enabled
+			if(trace != null) {
+				trace.initialArrival(pg.getTypeInd(), nextArrival);
+				trace.eventAdded(eventsMade, Event.NEWPROC, pg.getTypeInd(), nextArrival);
+			}
+			//add that event to the event queue
+			eventQueue.add(nextArrival, Event.NEWPROC, slot, eventsMade);
+			//increment event counter
+			eventsMade++;
+		}
+		scheduleBalance(balanceInterval);
+		return true;
+	}//	end	of setUp method
+
+   /**Removes the next event from the event queue and processes it. Kept out of the loop in run so that the JIT compiles
+	*the per-event work as an ordinary method instead of only through on-stack replacement of run.
+	*
+	*@param timeUnitsElapsed -- the time of the previously processed event
+	*@param iteration -- the number of events processed so far
+	*@return long -- the time of the event just processed
+	*/
+	public long processNextEvent(long timeUnitsElapsed, int iteration) {
+		long time = eventQueue.peekTime();
+		int kind = eventQueue.peekKind();
+		int slot = eventQueue.peekProc();
+		long eid = eventQueue.peekEid();
+		eventQueue.remove();
+		//processing info if verbose output is enabled
+		if(trace != null) {
+			trace.eventProcessed(iteration, time, time - timeUnitsElapsed, eid, kind, (kind >= Event.STEAL) ? -1 : procTable.getpid(slot));
+		}
+
+		//event now does whatever it needs to do
+		processEvent(time, kind, slot, eid);
+		return time;
+	}
+
+	//method that acquires,	validates, and sets	all	command-line parameters
+	public void getAndSetParams(String params[]) {
+		for(int i = 0; i < params.length; i++) {
+			int j = i+1;
+			String arg = params[i];
+			String next = "";
+			if(j < params.length) {
+				next = params[j];
+			}
+			switch(arg) {
+				case "--stop-time": case "-t":
+					simStopTime = Long.parseLong(next);
+					i++;
+					break;
+				case "--procgen-file": case "-f":
+					procgenFilename = next;
+					i++;
+					break;
+				case "--num-cpus": case "-c":
+					numcpus = Integer.parseInt(next);
+					i++;
+					break;
+				case "--quantum": case "-q":
+					quantum = Integer.parseInt(next);
+					i++;
+					break;
+				case "--switch-time": case "-w":
+					switchCost = Integer.parseInt(next);
+					i++;
+					break;
+				case "--event-set": case "-e":
+					eventSetType = next;
+					i++;
+					break;
+				case "--replay": case "-r":
+					replayFilename = next;
+					i++;
+					break;
+				case "--event-log": case "-l":
+					eventLogFilename = next;
+					i++;
+					break;
+				case "--results": case "-o":
+					resultsFilename = next;
+					i++;
+					break;
+				case "--results-format":
+					resultsFormat = next;
+					i++;
+					break;
+				case "--warmup": case "-u":
+					warmup = Long.parseLong(next);
+					i++;
+					break;
+				case "--ci-batches": case "-k":
+					ciBatches = Integer.parseInt(next);
+					i++;
+					break;
+				case "--precision": case "-a":
+					precision = Double.parseDouble(next);
+					i++;
+					break;
+				case "--check-interval": case "-i":
+					checkInterval = Long.parseLong(next);
+					i++;
+					break;
+				case "--run-queues": case "-m":
+					runQueueMode = next;
+					i++;
+					break;
+				case "--steal-interval":
+					stealInterval = Long.parseLong(next);
+					i++;
+					break;
+				case "--balance-interval":
+					balanceInterval = Long.parseLong(next);
+					i++;
+					break;
+				case "--sockets":
+					sockets = Integer.parseInt(next);
+					i++;
+					break;
+				case "--cache-domains":
+					cacheDomains = Integer.parseInt(next);
+					i++;
+					break;
+				case "--migration-cost":
+					migrationCosts = next;
+					i++;
+					break;
+				case "--affinity":
+					affinity = true;
+					break;
+				case "--partitions":
+					partitions = Integer.parseInt(next);
+					i++;
+					break;
+				case "--threads":
+					threads = Integer.parseInt(next);
+					i++;
+					break;
+				case "--window":
+					window = Long.parseLong(next);
+					i++;
+					break;
+				case "--checkpoint":
+					checkpointFilename = next;
+					i++;
+					break;
+				case "--checkpoint-interval":
+					checkpointInterval = Long.parseLong(next);
+					i++;
+					break;
+				case "--resume":
+					resumeFilename = next;
+					i++;
+					break;
+				case "--branch":
+					branch = Long.parseLong(next);
+					i++;
+					break;
+				case "--replications": case "-R":
+					replications = Integer.parseInt(next);
+					i++;
+					break;
+				case "--seed": case "-s":
+					seed = Long.parseLong(next);
+					i++;
+					break;
+				case "--policy": case "-p":
+					policyName = next;
+					i++;
+					break;
+				case "--no-io-faults": case "-n":
+					ioFaultsEnabled = false;
+					break;
+				case "--batch": case "-b":
+					batchOutputEnabled = true;
+					break;
+				case "--verbose": case "-v":
+					verboseModeEnabled = true;
+					break;
+				case "--help": case "-h":
+					printHelp();
+					break;
+				default:
+					break;
+			} //end of switch statement
+		}// end of for loop
+
+		if(quantum > 0) {
+			preemptionEnabled = true;
+		}
+		else {
+			preemptionEnabled = false;
+		}
+
+	}
+
+	//method which initializes all variables for this program.
+	public void initStatsAndSettings() {
+		//initialize our simulation/scheduler settings
+		verboseModeEnabled = false;
+		batchOutputEnabled = false;
+		ioFaultsEnabled = true;
+		quantum = 0;
+		preemptionEnabled = false;
+		numcpus = 1;
+		switchCost = 0;
+		simStopTime = 0;
+		procgenFilename = "";
+		seed = FastRandom.randomSeed();
+		replayFilename = "";
+		eventLogFilename = "";
+		resultsFilename = "";
+		resultsFormat = "";
+		warmup = 0;
+		ciBatches = 20;
+		precision = 0.0;
+		checkInterval = 0;
+		stoppedAt = -1;
+		replications = 1;
+		runQueueMode = "global";
+		stealInterval = 0;
+		balanceInterval = 0;
+		sockets = 1;
+		cacheDomains = 1;
+		migrationCosts = "";
+		affinity = false;
+		partitions = 1;
+		threads = 0;
+		window = 0;
+		checkpointFilename = "";
+		checkpointInterval = 0;
+		resumeFilename = "";
+		branch = 0;
+		eventSetType = "heap";
+		policyName = "fcfs";
+
+		//initialize additional variables
+		eventsMade = 0;
+		anyIdleCPUs = true;
+
+		//initialize the statistics this simulation will gather
+		endTime = 0;
+		eventsProcessed = 0;
+		finalEventQueueLength = 0;
+		avgEventQueueLength = 0.0;
+		finalReadyQueueLength = 0;
+		avgReadyQueueLength = 0.0;
+		peakReadyQueueLength = 0;
+	}
+
+	//This message will	be printed whenever	a user calls the program with the --help/-h	parameter.
+	public void printHelp() {
+		out.println("Usage: ./SchedulerSimulation --stop-time t (Specify the number of time units for which this simultation will run.)\n" +
+			"[-f, --procgen-file filename] (Supply your own process generation file. Program will run with pg2.txt by default.)\n" +
+			"[-c, --num-cpus n] (Specify the number of CPUs in the simulated system.)\n" +
+			"[-q, --quantum] (Enable pre-emption in this simulated scheduler by providing a time quantum for processes running on CPUs)\n" +
+			"[-w, --switch-time] (Specify the time it takes for this simulated system to complete a context switch.)\n" +
+			"[-e, --event-set heap|calendar] (Choose how pending events are stored. A calendar queue is faster when there are very many pending events.)\n" +
+			"[-p, --policy fcfs|rr|sjf|srtf|priority|mlfq|lottery|cfs] (Choose the scheduling policy. fcfs by default. rr is fcfs with a quantum.\n" +
+			"    sjf runs the shortest job, srtf the one with the least cpu time left, priority runs earlier procgen types first,\n" +
+			"    mlfq demotes processes that use their whole quantum, lottery draws tickets weighted toward earlier procgen types,\n" +
+			"    and cfs runs the process that has had the least cpu time. fcfs and rr with the global ready queue keep the simulator's\n" +
+			"    original dispatch and accounting, so their results match earlier versions. Every other run keeps each waiting process\n" +
+			"    until a cpu comes free and charges each run against the cpu time the process has left.)\n" +
+			"[-r, --replay trace] (Replay the jobs of a binary trace made by TraceConverter instead of generating processes from a procgen file.)\n" +
+			"[-u, --warmup t] (Throw away the statistics of the first t time units, while the system fills up from empty.)\n" +
+			"[-k, --ci-batches n] (Cut the time after the warm-up into n batches for 95% confidence intervals. 20 by default.)\n" +
+			"[-a, --precision p] (Stop early once the 95% confidence intervals of busy cpus and of each type's mean turnaround are within\n" +
+			"    p of their means, like 0.05. The stop-time is then only a cap.)\n" +
+			"[-i, --check-interval t] (With a precision, check for convergence every t time units. 1% of the run by default.)\n" +
+			"[-m, --run-queues global|rr|least|affinity] (global, the default, has every cpu share one ready queue. The others give each\n" +
+			"    cpu its own run queue under the policy, and say where a process that becomes ready goes: rr takes the cpus in turn,\n" +
+			"    least takes the least loaded cpu, and affinity the cpu it last ran on, or the least loaded of its type's cpus.\n" +
+			"    Per-cpu run queues always charge each run against the cpu time the process has left, even under fcfs and rr.)\n" +
+			"[--steal-interval t] (With per-cpu run queues, a cpu that goes idle steals from the longest queue, and tries again every\n" +
+			"    t time units while it stays idle. Never by default.)\n" +
+			"[--balance-interval t] (With per-cpu run queues, even out the cpus' loads every t time units. Never by default.)\n" +
+			"[--sockets n] [--cache-domains n] (Split the cpus evenly, in order, into n sockets, and each socket into n cache\n" +
+			"    domains of cores that share a cache. One of each by default.)\n" +
+			"[--migration-cost core[,domain[,socket]]] (A process put on another cpu than it last ran on pays this warm-up\n" +
+			"    penalty after the context switch: core for another core of its cache domain, domain for another cache domain of\n" +
+			"    its socket, socket for another socket. A missing cost is the one before it. None by default.)\n" +
+			"[--affinity] (With the shared ready queue, put a process back on the cpu it last ran on if it is idle, or else the\n" +
+			"    nearest idle cpu in its cache domain, then its socket. The lowest numbered idle cpu by default.)\n" +
+			"[--partitions n] (Split the cpus evenly into n partitions, each with its own queues and event set, and simulate them\n" +
+			"    in parallel. Arrivals are dealt to the partitions in turn. The partitions run in lockstep windows, and at the end\n" +
+			"    of each, waiting processes move from the most loaded partitions to the least, arriving a window later. The\n" +
+			"    other cpu options apply within each partition. The results are approximate: moved processes are delayed, and\n" +
+			"    they don't match a serial run, even one with the same cpu split. Can't be used with -r, -v, -l or -a.)\n" +
+			"[--threads n] (Worker threads for --partitions, besides the one generating arrivals. 1 runs the partitions one after\n" +
+			"    another, with the same results as any other number. One per partition, up to the number of cores, by default.)\n" +
+			"[--window t] (Length of the windows --partitions run in. A thousandth of the run by default.)\n" +
+			"[--checkpoint file] (Save the whole state of the run to file every checkpoint interval, in place of the last checkpoint,\n" +
+			"    so the run can be resumed if it dies. Can't be used with --partitions or -R.)\n" +
+			"[--checkpoint-interval t] (Time between checkpoints. A tenth of the run by default.)\n" +
+			"[--resume file] (Continue the run saved in a checkpoint, exactly as it would have gone on. Parameters after it override\n" +
+			"    the saved run's, for a what-if from the saved state, but the cpus, process types, policy, run queues, stop-time,\n" +
+			"    warm-up and batches must stay the same. A resumed run's verbose output and event log start from the checkpoint.)\n" +
+			"[--branch n] (With --resume, move every random number stream to an unrelated one picked by n, so runs resumed from\n" +
+			"    one checkpoint with different n go their own ways. 0, the default, continues exactly.)\n" +
+			"[-R, --replications n] (Run n independent replications, spread over every core, and print each statistic's mean with its\n" +
+			"    95% confidence interval. Each replication gets its own seed, drawn from --seed.)\n" +
+			"[-s, --seed n] (Seed the random number generators. Runs with the same seed and parameters give identical output.)\n" +
+			"[-n, --no-io-faults] (Disable I/O Faults within this system. Processes will never need to leave a CPU for I/O service.)\n" +
+			"[-v, --verbose] (Enable verbose output as the simulation runs, allowing the user to see what's going on.)\n" +
+			"[-l, --event-log file] (Write the verbose output to a compact binary log instead of printing it. Decode it with EventLogDecoder.)\n" +
+			"[-o, --results file] (Append the statistics to a results file as one labeled record. Many runs, even at once, can share a file.)\n" +
+			"[--results-format csv|jsonl|columnar] (Format of the results file. By default .csv is csv, .jsonl is JSON lines, and\n" +
+			"    anything else compact columnar binary.)\n" +
+			"[-b, --batch] (This will print the simulation's statistics output in one parseable batch.)\n" +
+			"[-h, --help] (This option will re-print this message.)\n");
+	}
+
+  /**Events	perform	specific functions,	(create	subsequent events, manipulate their	procs, etc.) depending on their	kind
+	*This is called on the event most recenlty polled from the event queue in the event processing loop in run, and dispatches
+	*on the event's kind code with a switch.
+	*Possible Events: New proc,	I/O	fault, I/O completed, Proc Completed, Quantum Expired
+	*CPU.loadProc() creates events for I/O fault, Quantum Expired, and Proc	Complete, so don't create I/O faults event here, just send them	to the CPU,	and	the	CPU	will create	it.
+	*If	Event is io	completion,	quantum	expiration,	or a new proc, proc	will want to get on	a CPU.
+	*If	NewProc, create	another	NewProc	event for that same	type.
+	*If	I/O	Fault, create event	for	I/O	completion
+	*If	ProcComplete, update that type's stats
+	*/
+	public void processEvent(long timestamp, int kind, int slot, long id) {
+		if(runQueues != null) {
+			processEventPerCpu(timestamp, kind, slot);
+			return;
+		}
+		if(!originalDispatch) {
+			processEventShared(timestamp, kind, slot);
+			return;
+		}
+		//get the proc that's next in line in the ready queue, -1 if there is none
+		int nextInLine = readyQueue.poll();
+		boolean nextPlaced = false; //did nextInLine make it onto a cpu?
+
+		switch(kind) {
+			case Event.NEWPROC:
+				nextPlaced = tryToRun(slot, nextInLine, timestamp, kind, id);
+				//NewProc events also create Event for the next process of the same type entering the system
+				if(replay != null) {
+					scheduleReplayArrival();
+				}
+				else if(!arrivalsFed) {
+					scheduleArrival(procgens[procTable.getTypeInd(slot)], timestamp);
+				}
+				break;
+			case Event.IODONE:
+				nextPlaced = tryToRun(slot, nextInLine, timestamp, kind, id);
+				break;
+			case Event.QUANTUM_UP:
+				//proc left a cpu, so reset that cpu's idle status before it tries to get back on one
+				cpus[procTable.getcpuInd(slot)].procLeft();
+				procTable.incPreemptions(slot);
+				nextPlaced = tryToRun(slot, nextInLine, timestamp, kind, id);
+				break;
+			case Event.IOFAULT:
+				cpus[procTable.getcpuInd(slot)].procLeft();
+				//I/O fault events necessite a new event for when I/O servicing is complete
+				addEvent(timestamp + procTable.getIOTime(slot), Event.IODONE, slot);
+				break;
+			case Event.PROCDONE:
+				cpus[procTable.getcpuInd(slot)].procLeft();
+				procDone(slot, timestamp);
+				break;
+			default:
+				throw new IllegalStateException("Unknown event kind " + kind);
+		}
+
+		//a proc popped from the ready queue that didn't get a cpu or go back in the queue drops out of the simulation, so give its slot back
+		if(nextInLine >= 0 && !nextPlaced && nextInLine != slot) {
+			procTable.release(nextInLine);
+		}
+   }// end of processEvent method
+
+  /**NewProc, I/O complete, and Quantum Expiration events have their process try to get on a CPU.
+	*
+	*@param eProc -- slot of the event's process
+	*@param nextInLine -- slot of the process popped off the front of the ready queue, or -1 if it was empty
+	*@param timestamp -- the current time
+	*@param kind -- the event's kind code
+	*@param id -- the event's id
+	*@return boolean -- true if nextInLine was put on a cpu
+	*/
+	public boolean tryToRun(int eProc, int nextInLine, long timestamp, int kind, long id) {
+		ProcTable pt = procTable;
+		pt.setReadySince(eProc, timestamp);
+		if(trace != null) {
+			trace.procReady(pt.getpid(eProc), pt.getTypeInd(eProc), timestamp, pt.getCPUtime(eProc), pt.getBurstTime(eProc),
+				pt.getIOTime(eProc));
+		}
+		//processes are told apart by id, as they always have been, and ids are only unique within a type
+		boolean same = (nextInLine >= 0 && pt.getpid(eProc) == pt.getpid(nextInLine));
+
+		//try to find an idle CPU
+		int idle = findIdleCPU();
+		//if there are no idle CPUs, proc is added to ready queue
+		if(idle <  0) {
+			readyQueue.add(eProc);
+			if(trace != null) {
+				trace.queued(pt.getpid(eProc));
+			}
+			return false;
+		}
+
+		//if there's an idle CPU and this event's proc is next in the ready queue, send eProc to cpu to generate the next event
+		if(nextInLine < 0 || same) {
+			if(affinity) {
+				idle = findIdleCPU(eProc);
+			}
+			if(trace != null) {
+				trace.assigned(pt.getpid(eProc), idle, timestamp);
+			}
+
+			dispatch(eProc, idle, timestamp);
+			return false;
+		}//end if nextInLine == null OR nextInLine == eProc
+
+		//eProc wasn't next in the ready queue. Add it to ready queue, and create an event for the proc from the ready queue
+		readyQueue.add(eProc);
+		if(trace != null) {
+			trace.queued(pt.getpid(eProc));
+		}
+
+		if(affinity) {
+			idle = findIdleCPU(nextInLine);
+		}
+		dispatch(nextInLine, idle, timestamp);
+		return true;
+	}
+
+   /**processEvent for the shared ready queue under every policy but fcfs and rr. The policy keeps every waiting process,
+	*and is only asked for the next one when a cpu comes free, so a cpu is never idle while a process waits. A process that
+	*becomes ready goes straight onto an idle cpu if there is one, and into the ready queue if not.
+	*
+	*@param timestamp -- the current time
+	*@param kind -- the event's kind code
+	*@param slot -- the event's process
+	*/
+	public void processEventShared(long timestamp, int kind, int slot) {
+		int c;
+		switch(kind) {
+			case Event.NEWPROC:
+				makeReadyShared(slot, timestamp, false);
+				if(replay != null) {
+					scheduleReplayArrival();
+				}
+				else if(!arrivalsFed) {
+					scheduleArrival(procgens[procTable.getTypeInd(slot)], timestamp);
+				}
+				break;
+			case Event.IODONE:
+				makeReadyShared(slot, timestamp, false);
+				break;
+			case Event.QUANTUM_UP:
+				//the preempted process waits with the others, and the policy chooses which of them gets its cpu
+				c = procTable.getcpuInd(slot);
+				cpus[c].procLeft();
+				procTable.incPreemptions(slot);
+				makeReadyShared(slot, timestamp, true);
+				runNextShared(c, timestamp);
+				break;
+			case Event.IOFAULT:
+				c = procTable.getcpuInd(slot);
+				cpus[c].procLeft();
+				addEvent(timestamp + procTable.getIOTime(slot), Event.IODONE, slot);
+				runNextShared(c, timestamp);
+				break;
+			case Event.PROCDONE:
+				c = procTable.getcpuInd(slot);
+				cpus[c].procLeft();
+				procDone(slot, timestamp);
+				runNextShared(c, timestamp);
+				break;
+			default:
+				throw new IllegalStateException("Unknown event kind " + kind);
+		}
+	}
+
+   /**A process became ready: put it on an idle cpu, or in the ready queue if every cpu is busy
+	*
+	*@param slot -- the process
+	*@param timestamp -- the current time
+	*@param wait -- true to put it in the ready queue even if a cpu is idle, for a preempted process whose cpu the policy
+	*chooses for next
+	*/
+	public void makeReadyShared(int slot, long timestamp, boolean wait) {
+		procTable.setReadySince(slot, timestamp);
+		if(trace != null) {
+			trace.procReady(procTable.getpid(slot), procTable.getTypeInd(slot), timestamp, procTable.getCPUtime(slot),
+				procTable.getBurstTime(slot), procTable.getIOTime(slot));
+		}
+		int idle = wait ? -1 : findIdleCPU(slot);
+		if(idle >= 0) {
+			if(trace != null) {
+				trace.assigned(procTable.getpid(slot), idle, timestamp);
+			}
+			dispatch(slot, idle, timestamp);
+			return;
+		}
+		readyQueue.add(slot);
+		if(trace != null) {
+			trace.queued(procTable.getpid(slot));
+		}
+	}
+
+	//a cpu is free: run the process the policy picks next, if any is waiting
+	public void runNextShared(int c, long timestamp) {
+		if(!idleCPUs.isIdle(c)) {
+			return;
+		}
+		int slot = readyQueue.poll();
+		if(slot < 0) {
+			return;
+		}
+		if(trace != null) {
+			trace.assigned(procTable.getpid(slot), c, timestamp);
+		}
+		dispatch(slot, c, timestamp);
+	}
+
+   /**Puts a process on an idle cpu, and creates the event that ends its run
+	*
+	*@param slot -- the process
+	*@param idle -- index of the idle cpu
+	*@param timestamp -- the current time
+	*/
+	public void dispatch(int slot, int idle, long timestamp) {
+		CPU cpu = cpus[idle];
+		int res = cpu.loadProc(procTable, slot, timestamp); //the kind of the event that ends the process' run
+		procTable.setcpuInd(slot, idle);
+		procTable.started(slot, timestamp);
+		addEvent(cpu.getLastLeft(), res, slot);
+		SchedulingPolicy policy = (runQueues != null) ? runQueues.get(idle) : readyQueue;
+		policy.dispatched(slot, res, cpu.getLastLeft() - timestamp - switchCost - cpu.getLastPenalty());
+	}
+
+   /**processEvent for per-cpu run queues. A cpu only runs processes from its own queue, and runs the next one as soon as
+	*it is free, so an idle cpu's queue is always empty. A process that becomes ready goes straight onto the cpu its
+	*placement chooses if that cpu is idle, and into its queue if not.
+	*
+	*@param timestamp -- the current time
+	*@param kind -- the event's kind code
+	*@param slot -- the event's process, or for a steal, its cpu
+	*/
+	public void processEventPerCpu(long timestamp, int kind, int slot) {
+		int c;
+		switch(kind) {
+			case Event.NEWPROC:
+				makeReady(slot, timestamp);
+				if(replay != null) {
+					scheduleReplayArrival();
+				}
+				else if(!arrivalsFed) {
+					scheduleArrival(procgens[procTable.getTypeInd(slot)], timestamp);
+				}
+				break;
+			case Event.IODONE:
+				makeReady(slot, timestamp);
+				break;
+			case Event.QUANTUM_UP:
+				c = procTable.getcpuInd(slot);
+				cpus[c].procLeft();
+				procTable.incPreemptions(slot);
+				//the preempted process goes behind whatever was waiting for its cpu, but if nothing was it may well get the
+				//cpu straight back, before the cpu goes looking for something to steal
+				if(runQueues.get(c).isEmpty()) {
+					makeReady(slot, timestamp);
+					if(idleCPUs.isIdle(c)) {
+						runNext(c, timestamp);
+					}
+				}
+				else {
+					runNext(c, timestamp);
+					makeReady(slot, timestamp);
+				}
+				break;
+			case Event.IOFAULT:
+				c = procTable.getcpuInd(slot);
+				cpus[c].procLeft();
+				addEvent(timestamp + procTable.getIOTime(slot), Event.IODONE, slot);
+				runNext(c, timestamp);
+				break;
+			case Event.PROCDONE:
+				c = procTable.getcpuInd(slot);
+				cpus[c].procLeft();
+				procDone(slot, timestamp);
+				runNext(c, timestamp);
+				break;
+			case Event.STEAL:
+				runQueues.setStealPending(slot, false);
+				if(idleCPUs.isIdle(slot)) {
+					runNext(slot, timestamp);
+				}
+				break;
+			case Event.BALANCE:
+				balance(timestamp);
+				scheduleBalance(timestamp + balanceInterval);
+				break;
+			default:
+				throw new IllegalStateException("Unknown event kind " + kind);
+		}
+	}
+
+	//a process became ready: put it on the cpu its placement chooses, or in that cpu's queue if the cpu is busy
+	public void makeReady(int slot, long timestamp) {
+		procTable.setReadySince(slot, timestamp);
+		if(trace != null) {
+			trace.procReady(procTable.getpid(slot), procTable.getTypeInd(slot), timestamp, procTable.getCPUtime(slot),
+				procTable.getBurstTime(slot), procTable.getIOTime(slot));
+		}
+		int c = runQueues.place(slot);
+		if(idleCPUs.isIdle(c)) {
+			dispatchOn(slot, c, timestamp);
+			return;
+		}
+		runQueues.add(c, slot);
+		if(trace != null) {
+			trace.queued(procTable.getpid(slot));
+		}
+	}
+
+	//a cpu is free: run the next process from its queue. With stealing on, a cpu with an empty queue steals one, and if
+	//there is nothing to steal, tries again later.
+	public void runNext(int c, long timestamp) {
+		int slot = runQueues.poll(c);
+		if(slot < 0 && stealInterval > 0) {
+			slot = runQueues.steal(c);
+			if(slot < 0) {
+				scheduleSteal(c, timestamp + stealInterval);
+				return;
+			}
+			if(trace != null) {
+				trace.migrated(procTable.getpid(slot), runQueues.getLastVictim(), c, timestamp);
+			}
+		}
+		if(slot >= 0) {
+			dispatchOn(slot, c, timestamp);
+		}
+	}
+
+	//puts a process on a cpu from the per-cpu run queues, recording its wait and whether it changed cpus
+	public void dispatchOn(int slot, int c, long timestamp) {
+		boolean migrated = procTable.getResponseTime(slot) >= 0 && procTable.getcpuInd(slot) != c;
+		runQueues.dispatched(c, timestamp - procTable.getReadySince(slot), migrated);
+		if(trace != null) {
+			trace.assigned(procTable.getpid(slot), c, timestamp);
+		}
+		dispatch(slot, c, timestamp);
+	}
+
+	//evens out the cpus' loads, then starts the processes that were moved to idle cpus
+	public void balance(long timestamp) {
+		int moved = runQueues.balance();
+		for(int i = 0; i < moved; i++) {
+			int to = runQueues.getMovedTo(i);
+			if(trace != null && to != runQueues.getMovedFrom(i)) {
+				trace.migrated(procTable.getpid(runQueues.getMovedSlot(i)), runQueues.getMovedFrom(i), to, timestamp);
+			}
+			if(idleCPUs.isIdle(to)) {
+				runNext(to, timestamp);
+			}
+		}
+	}
+
+	//creates a Steal event for an idle cpu, unless it already has one
+	public void scheduleSteal(int c, long time) {
+		if(runQueues.isStealPending(c)) {
+			return;
+		}
+		runQueues.setStealPending(c, true);
+		addCPUEvent(time, Event.STEAL, c);
+	}
+
+	//creates the next Load Balance event, if there are per-cpu run queues to balance
+	public void scheduleBalance(long time) {
+		if(runQueues == null || balanceInterval <= 0) {
+			return;
+		}
+		addCPUEvent(time, Event.BALANCE, 0);
+	}
+
+	//adds an event that belongs to a cpu, or to all of them, instead of a process
+	public void addCPUEvent(long time, int kind, int c) {
+		eventQueue.add(time, kind, c, eventsMade);
+		if(trace != null) {
+			trace.eventAdded(eventsMade, kind, -1, time);
+		}
+		eventsMade++;
+	}
+
+	//number of processes waiting for a cpu, in the shared ready queue or every cpu's run queue
+	public int readyLength() {
+		return (runQueues != null) ? runQueues.size() : readyQueue.size();
+	}
+
+	//creates the NewProc event for the next process of a type entering the system
+	public void scheduleArrival(ProcGenerator pg, long timestamp) {
+		//next arrival time for the system is the current time plus a random arrival time
+		long nextArrival = (pg.calcNextArrival() + timestamp);
+		int nextSlot = pg.generateProc(nextArrival, procTable);
+		eventQueue.add(nextArrival, Event.NEWPROC, nextSlot, eventsMade);
+		eventsMade++;
+	}
+
+	//opens the trace to replay, and creates a generator for each of its process types to keep their stats. Returns null if the
+	//trace can't be read.
+	public ProcGenerator[] openReplay() {
+		try {
+			replay = new TraceReader(new File(replayFilename));
+		}
+		catch(IOException e) {
+			out.println("Can't replay '" + replayFilename + "': " + e.getMessage());
+			return null;
+		}
+		String types[] = replay.getTypes();
+		ProcGenerator pgs[] = new ProcGenerator[types.length];
+		for(int i = 0; i < types.length; i++) {
+			pgs[i] = new ProcGenerator(types[i], i);
+			if(verboseModeEnabled) {
+				out.println(pgs[i]);
+			}
+		}
+		return pgs;
+	}
+
+	//creates the sink verbose details go to: a binary event log if one was asked for, otherwise the output stream if verbose
+	//mode is on. Returns false if the log can't be created.
+	public boolean openEventSink() {
+		String types[] = new String[procgens.length];
+		for(int i = 0; i < procgens.length; i++) {
+			types[i] = procgens[i].getType();
+		}
+		if(eventLogFilename != "") {
+			try {
+				trace = new EventLogWriter(new File(eventLogFilename), types);
+			}
+			catch(IOException e) {
+				out.println("Can't write event log '" + eventLogFilename + "': " + e.getMessage());
+				return false;
+			}
+		}
+		else if(verboseModeEnabled) {
+			trace = new VerboseEventSink(out, types);
+		}
+		return true;
+	}
+
+	//closes the sink verbose details go to, if there is one
+	public void closeEventSink() {
+		if(trace == null) {
+			return;
+		}
+		try {
+			trace.close();
+		}
+		catch(IOException e) {
+			out.println("Error writing event log '" + eventLogFilename + "': " + e.getMessage());
+		}
+		trace = null;
+	}
+
+	//closes the replayed trace, if there is one
+	public void closeReplay() {
+		if(replay == null) {
+			return;
+		}
+		try {
+			replay.close();
+		}
+		catch(IOException e) {
+			out.println("Error closing '" + replayFilename + "': " + e.getMessage());
+		}
+		replay = null;
+	}
+
+	//creates the NewProc event for the next job in the replayed trace, if there is one. Jobs are read one at a time as the
+	//simulation reaches them, so only one replayed arrival is ever pending.
+	public void scheduleReplayArrival() {
+		if(!replay.hasNext()) {
+			return;
+		}
+		try {
+			replay.next();
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException("Can't replay '" + replayFilename + "'", e);
+		}
+		long arrival = replay.getArrival();
+		int type = replay.getType();
+		int slot = procgens[type].replayProc(arrival, replay.getCPUtime(), replay.getBurstTime(), replay.getIOTime(), procTable);
+		//the first arrival is printed like the initial arrivals of generated processes
+		if(trace != null && eventsMade == 0) {
+			trace.initialArrival(type, arrival);
+			trace.eventAdded(eventsMade, Event.NEWPROC, type, arrival);
+		}
+		eventQueue.add(arrival, Event.NEWPROC, slot, eventsMade);
+		eventsMade++;
+	}
+
+	//process completes its job on cpu and exits the system. No new events here, just update stats
+	public void procDone(int slot, long timestamp) {
+		int type = procTable.getTypeInd(slot);
+		ProcGenerator pg = procgens[type];
+		long turnaround = timestamp - procTable.getArrivalTime(slot);
+		pg.incComplete();
+		pg.setLastTurnaround(turnaround);
+		pg.tryLongestTurnaround(turnaround);
+		pg.recordLatencies(procTable, slot, turnaround);
+		steady.completed(type, turnaround, timestamp);
+		procTable.release(slot);
+	}
+
+   /**Adds an event for a process to the event queue, and records it if verbose details are on
+    *
+    *@param time -- the event's timestamp
+    *@param kind -- the event's kind code
+    *@param slot -- the process the event happens to
+    */
+	public void addEvent(long time, int kind, int slot) {
+		eventQueue.add(time, kind, slot, eventsMade);
+		if(trace != null) {
+			trace.eventAdded(eventsMade, kind, procTable.getTypeInd(slot), time);
+		}
+		eventsMade++;
+	}
+
+	//throws away the statistics gathered before the end of the warm-up period. Time-weighted statistics never include it.
+	public void discardWarmup() {
+		for(ProcGenerator pg : procgens) {
+			pg.resetStats();
+		}
+		for(CPU cpu : cpus) {
+			cpu.resetStats(warmup);
+		}
+		if(runQueues != null) {
+			runQueues.resetStats();
+		}
+	}
+
+	//a time-weighted average and the half width of its 95% confidence interval, like 0.866 +/- 0.012
+	public static String withHalfWidth(double avg, BatchMeans b) {
+		return String.format("%.3f", avg) + " +/- " + String.format("%.3f", b.getHalfWidth());
+	}
+
+	//Method to	print out all the statistics collected during the simulation
+	public void printStats(long elapsed) {
+		String r = String.format("%.3f",avgReadyQueueLength);
+		String e = String.format("%.3f",avgEventQueueLength);
+
+		if(batchOutputEnabled) {
+			String s = " ";
+			out.print(elapsed + s + eventsProcessed + s + finalEventQueueLength + s + e + s +
+				finalReadyQueueLength+ s + r + s);
+			//time-weighted averages and confidence interval half widths
+			for(int level : new int[] {SteadyStateStats.READY, SteadyStateStats.EVENTS, SteadyStateStats.BUSY}) {
+				out.print(String.format("%.3f", steady.getAverage(level)) + s +
+					String.format("%.3f", steady.getLevelMeans(level).getHalfWidth()) + s);
+			}
+
+		}
+		else {
+	    	out.println("********************************************************************");
+	    	out.println("Simulation completed execution at time " + elapsed);
+	    	out.println("Scheduling policy: " + readyQueue.getName());
+	    	if(runQueues != null) {
+	    		out.println("Run queues: per cpu, placement: " + runQueues.getPlacementName() +
+	    			", steal interval: " + stealInterval + ", balance interval: " + balanceInterval);
+	    		out.println("Migrations: " + runQueues.getMigrations() + ", steals: " + runQueues.getSteals() +
+	    			", balance moves: " + runQueues.getBalanceMoves());
+	    	}
+	    	if(partitions > 1) {
+	    		out.println("Partitions (approximate): " + partitions + ", " + partitionThreads + " thread(s), " + partitionWindows +
+	    			" windows of " + window + ", processes moved between partitions: " + partitionMoves);
+	    	}
+	    	if(topology != null) {
+	    		out.println("Topology: " + sockets + " socket(s) of " + cacheDomains + " cache domain(s), migration penalties: core " +
+	    			topology.getCost(Topology.CROSS_CORE) + ", cache domain " + topology.getCost(Topology.CROSS_DOMAIN) + ", socket " +
+	    			topology.getCost(Topology.CROSS_SOCKET) + ((affinity) ? ", affinity placement" : ""));
+	    	}
+	    	out.println("Seed: " + seed);
+	    	if(branch != 0) {
+	    		out.println("Branch " + branch + " of checkpoint '" + resumeFilename + "'");
+	    	}
+	    	out.println(eventsProcessed + " events processed");
+	    	out.println("Event Queue final: " + finalEventQueueLength + " average: " + e);
+	    	out.println("Ready Queue final: " + finalReadyQueueLength + " average: " + r + " peak: " + peakReadyQueueLength);
+	    	if(warmup > 0) {
+	    		out.println("Statistics from before time " + warmup + " were discarded as warm-up.");
+	    	}
+	    	if(stoppedAt >= 0) {
+	    		out.println("Stopped early at time " + stoppedAt + ": every confidence interval is within " + precision + " of its mean.");
+	    	}
+	    	out.println("Time-weighted averages (95% confidence, " + steady.getBatchesDone() + " batches): " +
+	    		"ready queue: " + withHalfWidth(steady.getAverage(SteadyStateStats.READY), steady.getLevelMeans(SteadyStateStats.READY)) +
+	    		", event queue: " + withHalfWidth(steady.getAverage(SteadyStateStats.EVENTS), steady.getLevelMeans(SteadyStateStats.EVENTS)) +
+	    		", busy cpus: " + withHalfWidth(steady.getAverage(SteadyStateStats.BUSY), steady.getLevelMeans(SteadyStateStats.BUSY)));
+		}
+		//throughput and cpu shares are of the measured time, after the warm-up
+		printProcessStats(elapsed - warmup);
+		printcpuStats(elapsed - warmup);
+	}
+
+	//appends this run's statistics to the results file as one record, if there is a results file
+	public void writeResults(long elapsed) {
+		if(results == null) {
+			return;
+		}
+		try {
+			results.write(buildResultRecord(elapsed));
+		}
+		catch(IOException e) {
+			out.println("Error writing results to '" + resultsFilename + "': " + e.getMessage());
+		}
+	}
+
+   /**Builds a record of everything printStats prints, and the settings it was run with. Types' fields are prefixed with the
+	*type's name, and cpus' with cpu and their index, like interactive.throughput and cpu0.active.
+	*
+	*@param elapsed -- the time the run ended at
+	*@return ResultRecord -- the record
+	*/
+	public ResultRecord buildResultRecord(long elapsed) {
+		long measured = elapsed - warmup;
+		ResultRecord rec = new ResultRecord();
+		rec.add("seed", seed);
+		rec.add("policy", readyQueue.getName());
+		rec.add("workload", (replayFilename != "") ? replayFilename : procgenFilename);
+		rec.add("cpus", (long) numcpus);
+		rec.add("quantum", (long) quantum);
+		rec.add("switch_time", (long) switchCost);
+		rec.add("stop_time", simStopTime);
+		rec.add("warmup", warmup);
+		rec.add("stopped_at", stoppedAt);
+		rec.add("elapsed", elapsed);
+		rec.add("events", eventsProcessed);
+		rec.add("event_queue_final", finalEventQueueLength);
+		rec.add("event_queue_avg", avgEventQueueLength);
+		rec.add("ready_queue_final", finalReadyQueueLength);
+		rec.add("ready_queue_avg", avgReadyQueueLength);
+		rec.add("ready_queue_peak", peakReadyQueueLength);
+		rec.add("batches", (long) steady.getBatchesDone());
+		rec.add("run_queues", runQueueMode);
+		if(branch != 0) {
+			rec.add("branch", branch);
+		}
+		if(partitions > 1) {
+			rec.add("partitions", (long) partitions);
+			rec.add("accuracy", "approximate");
+			rec.add("window", window);
+			rec.add("windows", partitionWindows);
+			rec.add("partition_moves", partitionMoves);
+		}
+		if(topology != null) {
+			rec.add("sockets", (long) sockets);
+			rec.add("cache_domains", (long) cacheDomains);
+			rec.add("core_migration_cost", topology.getCost(Topology.CROSS_CORE));
+			rec.add("domain_migration_cost", topology.getCost(Topology.CROSS_DOMAIN));
+			rec.add("socket_migration_cost", topology.getCost(Topology.CROSS_SOCKET));
+			rec.add("affinity", (affinity) ? "on" : "off");
+		}
+		if(runQueues != null) {
+			rec.add("migrations", runQueues.getMigrations());
+			rec.add("steals", runQueues.getSteals());
+			rec.add("balance_moves", runQueues.getBalanceMoves());
+		}
+		String levels[] = {"ready_queue", "event_queue", "busy_cpus"};
+		int ids[] = {SteadyStateStats.READY, SteadyStateStats.EVENTS, SteadyStateStats.BUSY};
+		for(int i = 0; i < ids.length; i++) {
+			rec.add("tw_" + levels[i], steady.getAverage(ids[i]));
+			rec.add("tw_" + levels[i] + "_hw", steady.getLevelMeans(ids[i]).getHalfWidth());
+		}
+		for(ProcGenerator pg : procgens) {
+			String t = pg.getType() + ".";
+			rec.add(t + "completed", pg.getCompleted());
+			rec.add(t + "throughput", pg.calcThroughput(measured));
+			rec.add(t + "turnaround_last", pg.getLastTurnaround());
+			rec.add(t + "turnaround_max", pg.getLongestTurnaround());
+			rec.add(t + "turnaround_avg", pg.calcAvgTurnaround());
+			rec.add(t + "turnaround_hw", steady.getTurnaroundMeans(pg.getTypeInd()).getHalfWidth());
+			addPercentiles(rec, t + "turnaround", pg.getTurnarounds());
+			addPercentiles(rec, t + "waiting", pg.getWaits());
+			addPercentiles(rec, t + "response", pg.getResponses());
+			addPercentiles(rec, t + "preemptions", pg.getPreemptions());
+		}
+		for(int i = 0; i < cpus.length; i++) {
+			String c = "cpu" + i + ".";
+			cpus[i].calcPercentageStats(measured);
+			rec.add(c + "active", cpus[i].getActiveTime());
+			rec.add(c + "switch", cpus[i].getSwitchTime());
+			rec.add(c + "idle", cpus[i].getIdleTime());
+			rec.add(c + "active_share", cpus[i].getActivePerc());
+			rec.add(c + "switch_share", cpus[i].getSwitchPerc());
+			rec.add(c + "idle_share", cpus[i].getIdlePerc());
+			if(topology != null) {
+				rec.add(c + "migration_penalty", cpus[i].getMigrationTime());
+				rec.add(c + "migration_share", cpus[i].getMigrationPerc());
+				rec.add(c + "migrations_in", cpus[i].getMigrationsIn());
+				rec.add(c + "cross_socket", cpus[i].getCrossSocket());
+			}
+			if(runQueues != null) {
+				rec.add(c + "dispatched", runQueues.getDispatched(i));
+				rec.add(c + "avg_wait", runQueues.getAverageWait(i));
+				rec.add(c + "queue_peak", (long) runQueues.get(i).getHighWater());
+			}
+		}
+		return rec;
+	}
+
+	//adds the p50, p99, p99.9 and mean of one latency histogram to a record
+	public static void addPercentiles(ResultRecord rec, String name, LogHistogram h) {
+		rec.add(name + "_p50", h.percentile(0.5));
+		rec.add(name + "_p99", h.percentile(0.99));
+		rec.add(name + "_p999", h.percentile(0.999));
+		rec.add(name + "_mean", h.getMean());
+	}
+
+   //This method creates a new ProcessGenerator	for	each process type within the procgen file, and returns all of them in an array.
+	public ProcGenerator[] createProcGenerators() {
+		ProcGenerator pgs[];
+		int numProcs = 0; //number of processes
+		String type = ""; //proc name
+		int ind = 0; //proc index in procgen file
+		long cj, bj, aj, ij; //average times per type
+		Scanner s;
+		try {
+			s = new Scanner(new FileReader(procgenFilename));
+		}
+		catch(FileNotFoundException e) {
+			System.err.println(e);
+			return null;
+		}
+
+		//first entry in the file will be the number of processes included within it
+		numProcs = s.nextInt();
+		pgs = new ProcGenerator[numProcs];
+		int ctr = 0;
+		while(ctr < numProcs) {
+			//order for elements is procName, avg cputime, avg burst time, avg interarrival time, and avg io service time
+			type = s.next();
+			ind = ctr;
+			cj = s.nextLong();
+			bj = s.nextLong();
+			aj = s.nextLong();
+			ij = s.nextLong();
+			ProcGenerator pg;
+			try {
+				pg = new ProcGenerator(type, ind, cj, bj, ij, aj, rng.split());
+				//the rest of the line may declare distributions for the process type's times, like cpu=pareto:1.5
+				String rest = s.hasNextLine() ? s.nextLine() : "";
+				for(String decl : rest.trim().split("\\s+")) {
+					if(!decl.isEmpty()) {
+						declareDistribution(pg, decl);
+					}
+				}
+			}
+			catch(IllegalArgumentException e) {
+				out.println("Bad procgen entry for '" + type + "': " + e.getMessage());
+				return null;
+			}
+			pgs[ctr] = pg;
+			ctr++;
+			//VERBOSE MODE -- print creation confirmation of ProcGenerator with its details.
+			if(verboseModeEnabled) {
+				out.println(pg);
+			}
+		}
+		return pgs;
+
+	}
+
+   /**Sets the distribution of one of a process type's times from a procgen file declaration
+	*
+	*@param pg -- the process type's generator
+	*@param decl -- the declaration, time=distribution, like cpu=pareto:1.5
+	*/
+	public void declareDistribution(ProcGenerator pg, String decl) {
+		int eq = decl.indexOf('=');
+		if(eq < 0) {
+			throw new IllegalArgumentException("expected time=distribution, not " + decl);
+		}
+		int role = Arrays.asList(ProcGenerator.ROLE_NAMES).indexOf(decl.substring(0, eq));
+		if(role < 0) {
+			throw new IllegalArgumentException("unknown time '" + decl.substring(0, eq) + "', expected one of " +
+				String.join(", ", ProcGenerator.ROLE_NAMES));
+		}
+		pg.setDistribution(role, createDistribution(decl.substring(eq + 1), pg.getMean(role)));
+	}
+
+   /**Creates a distribution from its procgen file declaration. Parameters follow the name after a colon.
+	*exp, uniform (0 to twice the mean), erlang:k (k stages), hyperexp:cv (coefficient of variation, at least 1),
+	*pareto:alpha (above 1), lognormal:sigma, weibull:k, empirical:file (file of observed values, relative to the procgen file)
+	*
+	*@param spec -- the declaration, like pareto:1.5
+	*@param mean -- the distribution's mean
+	*@return Distribution -- the distribution. Throws IllegalArgumentException if the declaration isn't valid.
+	*/
+	public Distribution createDistribution(String spec, long mean) {
+		int colon = spec.indexOf(':');
+		String name = (colon < 0) ? spec : spec.substring(0, colon);
+		String param = (colon < 0) ? "" : spec.substring(colon + 1);
+		try {
+			switch(name) {
+				case "exp":
+					return new ExponentialDistribution(mean);
+				case "uniform":
+					return new UniformDistribution(mean);
+				case "erlang":
+					return new ErlangDistribution(mean, Integer.parseInt(param));
+				case "hyperexp":
+					return new HyperexponentialDistribution(mean, Double.parseDouble(param));
+				case "pareto":
+					return new TabulatedDistribution(TabulatedDistribution.PARETO, mean, Double.parseDouble(param));
+				case "lognormal":
+					return new TabulatedDistribution(TabulatedDistribution.LOGNORMAL, mean, Double.parseDouble(param));
+				case "weibull":
+					return new TabulatedDistribution(TabulatedDistribution.WEIBULL, mean, Double.parseDouble(param));
+				case "empirical":
+					File f = new File(param);
+					if(!f.isAbsolute()) {
+						f = new File(new File(procgenFilename).getAbsoluteFile().getParentFile(), param);
+					}
+					return new EmpiricalDistribution(mean, f);
+				default:
+					throw new IllegalArgumentException("unknown distribution '" + name + "'");
+			}
+		}
+		catch(NumberFormatException e) {
+			throw new IllegalArgumentException(name + " needs a numeric parameter, not '" + param + "'");
+		}
+		catch(IOException e) {
+			throw new IllegalArgumentException("can't read " + param + ": " + e.getMessage());
+		}
+	}
+
+	public void printProcessStats(long elapsed) {
+
+
+		if(batchOutputEnabled) {
+			String s = " ";
+			for(ProcGenerator pg : procgens) {
+				double avg = pg.calcAvgTurnaround();
+	    		double thru = pg.calcThroughput(elapsed);
+	    		String a = String.format("%.3f",avg);
+	    		String t = String.format("%.3f",thru);
+				out.print(pg.getCompleted() + s + pg.getTypeInd() + s + t + s + pg.getLastTurnaround() + s +
+					pg.getLongestTurnaround() + s + a + s);
+				//p50, p99 and p99.9 of each latency histogram
+				out.print(pg.getTurnarounds().percentiles(s) + s + pg.getWaits().percentiles(s) + s +
+					pg.getResponses().percentiles(s) + s + pg.getPreemptions().percentiles(s) + s +
+					String.format("%.3f", steady.getTurnaroundMeans(pg.getTypeInd()).getHalfWidth()) + s);
+			}
+		}
+		else {
+	    	for(ProcGenerator pg : procgens) {
+	    		double avg = pg.calcAvgTurnaround();
+	    		double thru = pg.calcThroughput(elapsed);
+	    		String a = String.format("%.3f",avg);
+	    		String t = String.format("%.3f",thru);
+	    		out.println(pg.getCompleted() + " processes of type " + pg.getType() + " completed.");
+	    		out.println("Throughput: " + t);
+	    		out.println("Turnaround times: last: " + pg.getLastTurnaround() + ", longest: " + pg.getLongestTurnaround() + ", " +
+	    			"average: " + a);
+	    		printPercentiles("Turnaround", pg.getTurnarounds());
+	    		printPercentiles("Waiting time", pg.getWaits());
+	    		printPercentiles("Response time", pg.getResponses());
+	    		printPercentiles("Preemption", pg.getPreemptions());
+	    		BatchMeans tb = steady.getTurnaroundMeans(pg.getTypeInd());
+	    		out.println("Turnaround 95% confidence interval: " + withHalfWidth(pg.getTurnarounds().getMean(), tb) + " (" +
+	    			tb.getCount() + " batches)");
+	    	}
+		}
+	}
+
+	//prints the percentiles of one latency histogram, in human readable form
+	public void printPercentiles(String name, LogHistogram h) {
+		out.println(name + " percentiles: p50: " + h.percentile(0.5) + ", p99: " + h.percentile(0.99) + ", p99.9: " +
+			h.percentile(0.999) + ", average: " + String.format("%.3f", h.getMean()));
+	}
+
+	//Create the scheduling policy chosen on the command line. Returns null if the name isn't known.
+	public SchedulingPolicy createPolicy() {
+		switch(policyName) {
+			case "fcfs": case "rr":
+				return new FifoPolicy(policyName);
+			case "sjf":
+				return new KeyedPolicy(KeyedPolicy.SJF, policyName, procTable);
+			case "srtf":
+				return new KeyedPolicy(KeyedPolicy.SRTF, policyName, procTable);
+			case "priority":
+				return new KeyedPolicy(KeyedPolicy.PRIORITY, policyName, procTable);
+			case "cfs":
+				return new KeyedPolicy(KeyedPolicy.FAIR, policyName, procTable);
+			case "mlfq":
+				return new MlfqPolicy(procTable);
+			case "lottery":
+				return new LotteryPolicy(procgens.length, rng.split(), procTable);
+			default:
+				return null;
+		}
+	}
+
+	//Create the event set chosen on the command line. Returns null if the name isn't known.
+	public EventSet createEventSet() {
+		switch(eventSetType) {
+			case "heap":
+				return new EventHeap();
+			case "calendar":
+				return new CalendarQueue();
+			default:
+				return null;
+		}
+	}
+
+	//Create all the cpus included in this system
+	public void createCPUs() {
+		cpus = new CPU[numcpus];
+		idleCPUs = new IdleSet(numcpus);
+		for(int i = 0; i < numcpus; i++) {
+			cpus[i] = new CPU(i, quantum, switchCost, ioFaultsEnabled, idleCPUs, topology, !originalDispatch);
+		}
+	}
+
+   /**Reads the core, cache domain and socket migration penalties. A missing penalty is the one before it.
+	*
+	*@param spec -- the penalties, comma separated, or "" for none
+	*@return long[] -- the core, cache domain and socket penalties, or null if spec isn't valid
+	*/
+	public static long[] parseMigrationCosts(String spec) {
+		long costs[] = new long[3];
+		if(spec.isEmpty()) {
+			return costs;
+		}
+		String parts[] = spec.split(",");
+		if(parts.length > 3) {
+			return null;
+		}
+		try {
+			for(int i = 0; i < 3; i++) {
+				costs[i] = (i < parts.length) ? Long.parseLong(parts[i].trim()) : costs[i - 1];
+				if(costs[i] < 0) {
+					return null;
+				}
+			}
+		}
+		catch(NumberFormatException e) {
+			return null;
+		}
+		return costs;
+	}
+
+   /**Method that searches for the "closest" available CPU,	and	returns	its	index. Looks it up in the idle set, so the cost
+	*doesn't grow with the number of cpus.
+	*
+	*@return int --	the	index of the first idle	CPU	in the cpus	array, or -1 if there are no available CPUS
+	*/
+	public int findIdleCPU() {
+		return idleCPUs.first();
+	}
+
+   /**Finds the idle CPU a process should go to. With --affinity, that is the one nearest the CPU it last ran on.
+	*
+	*@param slot -- the process
+	*@return int -- the index of the idle CPU, or -1 if there are no available CPUS
+	*/
+	public int findIdleCPU(int slot) {
+		if(!affinity || procTable.getResponseTime(slot) < 0) {
+			return idleCPUs.first();
+		}
+		return topology.nearestIdle(idleCPUs, procTable.getcpuInd(slot));
+	}
+
+	public void printcpuStats(long elapsed) {
+		if(batchOutputEnabled) {
+			String s = " ";
+			int i = 0;
+			for(CPU cpu : cpus) {
+				out.print(cpu.batchString());
+			}
+			//per-cpu run queues: migrations, steals and balance moves, then each cpu's dispatches, average wait and peak queue
+			if(runQueues != null) {
+				out.print(runQueues.getMigrations() + s + runQueues.getSteals() + s + runQueues.getBalanceMoves() + s);
+				for(i = 0; i < cpus.length; i++) {
+					out.print(runQueues.getDispatched(i) + s + String.format("%.3f", runQueues.getAverageWait(i)) + s +
+						runQueues.get(i).getHighWater() + s);
+				}
+			}
+			out.println("");
+		}
+		else {
+	    	for(int i = 0; i < cpus.length; i++) {
+	    		cpus[i].calcPercentageStats(elapsed);
+	    		out.println("CPU#"+i+": " + cpus[i].toString());
+	    		if(runQueues != null) {
+	    			out.println("    Run queue: dispatched " + runQueues.getDispatched(i) + ", average wait: " +
+	    				String.format("%.3f", runQueues.getAverageWait(i)) + ", peak: " + runQueues.get(i).getHighWater());
+	    		}
+	    	}
+		}
+	}
+
+}
@@ -0,0 +1,313 @@
+/**
+ * @(#)SteadyStateStats.java
+ * Statistics of the steady state of a run: time-weighted averages of the ready queue length, event queue length and
+ * number of busy cpus, and batch-means confidence intervals for them and for each process type's mean turnaround.
+ *
+ * Only the time from the end of the warm-up period to the stop time is measured, so the start-up transient, when every
+ * queue starts empty, doesn't bias the averages. A queue length is weighted by how long it lasted, not by how many events
+ * saw it, so a burst of events at one instant counts for nothing. The measured time is cut into equal batches for the
+ * confidence intervals (see BatchMeans). Each time a batch ends, a run can ask whether the intervals are already narrow
+ * enough to stop.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class SteadyStateStats {
+	public static final int READY = 0;
+	public static final int EVENTS = 1;
+	public static final int BUSY = 2;
+	private static final int LEVELS = 3; //number of time-weighted values
+	public static final int MIN_BATCHES = 10; //batches needed before a run may stop early
+
+	private long warmup; //start of the measured time
+	private long stop; //end of the measured time
+	private long batchLength; //length of every batch but the last, which also gets the remainder
+	private int batches; //number of batches
+
+	private long now; //how far the integrals have been taken
+	private int batch; //the batch now falls in
+	private long end; //the end of that batch
+	private long held[]; //the values since now, indexed by the constants above
+	private double total[]; //integral of each value over the whole measured time
+	private double batchIntegral[]; //integral of each value over the current batch
+	private BatchMeans levelMeans[]; //batch means of each value
+	private double turnaroundSum[]; //per type: turnaround of processes completed in the current batch
+	private long turnaroundCount[];
+	private BatchMeans turnaroundMeans[]; //per type: batch means of turnaround
+	private double kept[]; //with keepBatches, each closed batch's level integrals, turnaround sums and counts, in turn
+	private int keptLength; //longs of kept in use
+
+   /**Constructor
+    *
+    *@param w -- the warm-up period. Nothing before it is measured.
+    *@param s -- the stop time
+    *@param length -- the length of a batch
+    *@param b -- the number of batches. The last also gets whatever time is left over.
+    *@param types -- the number of process types
+    */
+    public SteadyStateStats(long w, long s, long length, int b, int types) {
+    	warmup = w;
+    	stop = Math.max(s, w + 1);
+    	batches = Math.max(1, b);
+    	batchLength = Math.max(1, length);
+    	now = 0;
+    	batch = 0;
+    	end = batchEnd(0);
+    	held = new long[LEVELS];
+    	total = new double[LEVELS];
+    	batchIntegral = new double[LEVELS];
+    	levelMeans = new BatchMeans[LEVELS];
+    	for(int i = 0; i < LEVELS; i++) {
+    		levelMeans[i] = new BatchMeans();
+    	}
+    	turnaroundSum = new double[types];
+    	turnaroundCount = new long[types];
+    	turnaroundMeans = new BatchMeans[types];
+    	for(int i = 0; i < types; i++) {
+    		turnaroundMeans[i] = new BatchMeans();
+    	}
+    }
+
+    //the end of a batch
+    private long batchEnd(int b) {
+    	return (b == batches - 1) ? stop : warmup + (b + 1) * batchLength;
+    }
+
+    //integrates the held values up to time t, closing every batch that ends on the way
+    public void advance(long t) {
+    	t = Math.min(t, stop);
+    	if(t <= now) {
+    		return;
+    	}
+    	if(now < warmup) {
+    		now = Math.min(t, warmup);
+    	}
+    	while(now < t) {
+    		long to = Math.min(t, end);
+    		long dt = to - now;
+    		for(int i = 0; i < LEVELS; i++) {
+    			batchIntegral[i] += (double) held[i] * dt;
+    		}
+    		now = to;
+    		if(now == end) {
+    			closeBatch();
+    		}
+    	}
+    }
+
+    //passes the finished batch's means to the confidence intervals, and starts the next
+    private void closeBatch() {
+    	long start = warmup + batch * batchLength;
+    	double length = now - start;
+    	if(kept != null) {
+    		keep(batchIntegral, turnaroundSum, turnaroundCount);
+    	}
+    	for(int i = 0; i < LEVELS; i++) {
+    		levelMeans[i].add(batchIntegral[i] / length);
+    		total[i] += batchIntegral[i];
+    		batchIntegral[i] = 0.0;
+    	}
+    	for(int i = 0; i < turnaroundSum.length; i++) {
+    		//a batch where no process of a type completed says nothing about its turnaround
+    		if(turnaroundCount[i] > 0) {
+    			turnaroundMeans[i].add(turnaroundSum[i] / turnaroundCount[i]);
+    		}
+    		turnaroundSum[i] = 0.0;
+    		turnaroundCount[i] = 0;
+    	}
+    	batch++;
+    	end = batchEnd(batch);
+    }
+
+   /**Integrates the held values up to time t, then holds new ones from t on
+    *
+    *@param t -- the current time
+    *@param ready -- ready queue length
+    *@param events -- event queue length
+    *@param busy -- number of busy cpus
+    */
+    public void observe(long t, int ready, int events, int busy) {
+    	advance(t);
+    	held[READY] = ready;
+    	held[EVENTS] = events;
+    	held[BUSY] = busy;
+    }
+
+    //records the turnaround of a process that completed at time t
+    public void completed(int type, long turnaround, long t) {
+    	if(t < warmup || t >= stop) {
+    		return;
+    	}
+    	advance(t);
+    	turnaroundSum[type] += turnaround;
+    	turnaroundCount[type]++;
+    }
+
+   /**Decides whether the run has been measured precisely enough to stop: at least MIN_BATCHES batches are done, and the 95%
+    *confidence intervals of the number of busy cpus and of every process type's mean turnaround are within a fraction of
+    *their means. A type with too few completions to have an interval keeps the run going.
+    *
+    *@param precision -- the largest relative half width allowed, like 0.05
+    *@return boolean -- true if the run can stop
+    */
+    public boolean hasConverged(double precision) {
+    	if(batch < MIN_BATCHES || levelMeans[BUSY].getRelativeHalfWidth() > precision) {
+    		return false;
+    	}
+    	for(BatchMeans t : turnaroundMeans) {
+    		if(t.getCount() < 2 || t.getRelativeHalfWidth() > precision) {
+    			return false;
+    		}
+    	}
+    	return true;
+    }
+
+    public long getWarmup() {
+    	return warmup;
+    }
+
+    //keeps every batch from now on, so stats of the same times, measured on separate partitions, can be combined
+    public void keepBatches() {
+    	kept = new double[64];
+    	keptLength = 0;
+    }
+
+    //appends one batch to kept
+    private void keep(double integral[], double sums[], long counts[]) {
+    	int need = LEVELS + 2 * sums.length;
+    	if(keptLength + need > kept.length) {
+    		kept = Arrays.copyOf(kept, Math.max(kept.length * 2, keptLength + need));
+    	}
+    	for(int i = 0; i < LEVELS; i++) {
+    		kept[keptLength++] = integral[i];
+    	}
+    	for(int i = 0; i < sums.length; i++) {
+    		kept[keptLength++] = sums[i];
+    		kept[keptLength++] = counts[i];
+    	}
+    }
+
+   /**Combines the stats of partitions of one system, which each kept their batches: the time-weighted values of the system
+    *are the sums of the partitions', and a batch's mean turnaround is over every partition's completions in it. Each
+    *partition must have the same times and batches, and have advanced to the same time.
+    *
+    *@param parts -- the partitions' stats
+    *@return SteadyStateStats -- stats as if the whole system had been measured at once
+    */
+    public static SteadyStateStats combine(SteadyStateStats parts[]) {
+    	SteadyStateStats first = parts[0];
+    	int types = first.turnaroundSum.length;
+    	SteadyStateStats all = new SteadyStateStats(first.warmup, first.stop, first.batchLength, first.batches, types);
+    	int width = LEVELS + 2 * types;
+    	double integral[] = new double[LEVELS];
+    	double sums[] = new double[types];
+    	long counts[] = new long[types];
+    	for(int b = 0; b < first.batch; b++) {
+    		Arrays.fill(integral, 0.0);
+    		Arrays.fill(sums, 0.0);
+    		Arrays.fill(counts, 0);
+    		for(SteadyStateStats p : parts) {
+    			int off = b * width;
+    			for(int i = 0; i < LEVELS; i++) {
+    				integral[i] += p.kept[off + i];
+    			}
+    			for(int i = 0; i < types; i++) {
+    				sums[i] += p.kept[off + LEVELS + 2 * i];
+    				counts[i] += (long) p.kept[off + LEVELS + 2 * i + 1];
+    			}
+    		}
+    		all.batchIntegral = integral.clone();
+    		all.turnaroundSum = sums.clone();
+    		all.turnaroundCount = counts.clone();
+    		all.now = all.end;
+    		all.closeBatch();
+    	}
+    	//the open batch, if the partitions stopped in one
+    	for(SteadyStateStats p : parts) {
+    		for(int i = 0; i < LEVELS; i++) {
+    			all.batchIntegral[i] += p.batchIntegral[i];
+    		}
+    		for(int i = 0; i < types; i++) {
+    			all.turnaroundSum[i] += p.turnaroundSum[i];
+    			all.turnaroundCount[i] += p.turnaroundCount[i];
+    		}
+    	}
+    	all.now = first.now;
+    	return all;
+    }
+
+    //writes the batch layout, the integrals so far and the batch means to a checkpoint
+    public void save(CheckpointWriter w) throws IOException {
+    	w.putLong(warmup);
+    	w.putLong(stop);
+    	w.putLong(batchLength);
+    	w.putInt(batches);
+    	w.putInt(turnaroundSum.length);
+    	w.putLong(now);
+    	w.putInt(batch);
+    	w.putLong(end);
+    	w.putLongs(held, LEVELS);
+    	w.putDoubles(total, LEVELS);
+    	w.putDoubles(batchIntegral, LEVELS);
+    	for(BatchMeans b : levelMeans) {
+    		b.save(w);
+    	}
+    	w.putDoubles(turnaroundSum, turnaroundSum.length);
+    	w.putLongs(turnaroundCount, turnaroundCount.length);
+    	for(BatchMeans b : turnaroundMeans) {
+    		b.save(w);
+    	}
+    }
+
+    //takes up the stats save wrote. They must have been cut into the same batches, so the warm-up, stop time, batches,
+    //precision and check interval of the run can't change.
+    public void restore(CheckpointReader r) throws IOException {
+    	r.expect("warm-up", r.getLong(), warmup);
+    	r.expect("stop time", r.getLong(), stop);
+    	r.expect("batch length", r.getLong(), batchLength);
+    	r.expect("batches", r.getInt(), batches);
+    	r.expect("process types", r.getInt(), turnaroundSum.length);
+    	now = r.getLong();
+    	batch = r.getInt();
+    	end = r.getLong();
+    	r.getLongs(held, LEVELS);
+    	r.getDoubles(total, LEVELS);
+    	r.getDoubles(batchIntegral, LEVELS);
+    	for(BatchMeans b : levelMeans) {
+    		b.restore(r);
+    	}
+    	r.getDoubles(turnaroundSum, turnaroundSum.length);
+    	r.getLongs(turnaroundCount, turnaroundCount.length);
+    	for(BatchMeans b : turnaroundMeans) {
+    		b.restore(r);
+    	}
+    }
+
+    //the number of batches finished so far
+    public int getBatchesDone() {
+    	return batch;
+    }
+
+    //time-weighted average of one of the values over the measured time so far
+    public double getAverage(int level) {
+    	long measured = now - warmup;
+    	if(measured <= 0) {
+    		return 0.0;
+    	}
+    	return (total[level] + batchIntegral[level]) / measured;
+    }
+
+    //batch means of one of the time-weighted values
+    public BatchMeans getLevelMeans(int level) {
+    	return levelMeans[level];
+    }
+
+    //batch means of a process type's turnaround
+    public BatchMeans getTurnaroundMeans(int type) {
+    	return turnaroundMeans[type];
+    }
+}
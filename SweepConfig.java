@@ -0,0 +1,187 @@
+/**
+ * @(#)SweepConfig.java
+ * A sweep of simulation trials read from a file. Each line is a key followed by its values, separated by whitespace, and
+ * text from a # to the end of a line is a comment. The trials are every combination of the listed values of procgen,
+ * policy, quantum, switch and cpus, with cpus changing fastest. Every trial also gets the single valued settings.
+ *
+ *   procgen file...      procgen files (-f)
+ *   policy name...       scheduling policies (-p)
+ *   quantum n...         time quanta (-q), 0 for none
+ *   switch n...          context switch costs (-w)
+ *   cpus n...            numbers of cpus (-c)
+ *   stop t               stop-time of every trial (-t), required
+ *   warmup t             warm-up period (-u)
+ *   precision p          stop each trial once its confidence intervals are this narrow (-a)
+ *   seed n               seed of the whole sweep. Without one the sweep differs every run and nothing is cached.
+ *   batch                batch output (-b)
+ *   args arg...          any other parameters, passed to every trial as they are. Not -R, since each trial runs once.
+ *   cache dir            directory of the result cache (see ResultCache)
+ *   results file         results file every trial appends its record to (-o). Trials that write one aren't cached.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.util.*;
+import java.io.*;
+
+public class SweepConfig {
+	//the swept keys, slowest changing first, and the parameter each one sets
+	private static final String SWEPT[] = {"procgen", "policy", "quantum", "switch", "cpus"};
+	private static final String FLAGS[] = {"-f", "-p", "-q", "-w", "-c"};
+
+	private List<List<String>> values; //the values of each swept key, indexed like SWEPT. Empty if not swept.
+	private List<String> fixed; //parameters every trial gets
+	private Long seed; //null if the sweep isn't seeded
+	private String cacheDir; //null for no cache
+
+   /**Constructor which reads a sweep file
+    *
+    *@param file -- the sweep file
+    */
+    public SweepConfig(File file) throws IOException {
+    	values = new ArrayList<List<String>>();
+    	for(int i = 0; i < SWEPT.length; i++) {
+    		values.add(new ArrayList<String>());
+    	}
+    	fixed = new ArrayList<String>();
+    	seed = null;
+    	cacheDir = null;
+    	boolean stop = false;
+
+    	try(BufferedReader in = new BufferedReader(new FileReader(file))) {
+    		String line;
+    		int lineNum = 0;
+    		while((line = in.readLine()) != null) {
+    			lineNum++;
+    			int hash = line.indexOf('#');
+    			if(hash >= 0) {
+    				line = line.substring(0, hash);
+    			}
+    			line = line.trim();
+    			if(line.isEmpty()) {
+    				continue;
+    			}
+    			String f[] = line.split("\\s+");
+    			String key = f[0];
+    			List<String> vals = Arrays.asList(f).subList(1, f.length);
+    			int swept = Arrays.asList(SWEPT).indexOf(key);
+    			if(swept >= 0) {
+    				values.get(swept).addAll(vals);
+    				continue;
+    			}
+    			switch(key) {
+    				case "stop":
+    					fixed.add("-t");
+    					fixed.add(single(file, lineNum, key, vals));
+    					stop = true;
+    					break;
+    				case "warmup":
+    					fixed.add("-u");
+    					fixed.add(single(file, lineNum, key, vals));
+    					break;
+    				case "precision":
+    					fixed.add("-a");
+    					fixed.add(single(file, lineNum, key, vals));
+    					break;
+    				case "seed":
+    					try {
+    						seed = Long.parseLong(single(file, lineNum, key, vals));
+    					}
+    					catch(NumberFormatException e) {
+    						throw new IOException(file + " line " + lineNum + ": seed must be a whole number");
+    					}
+    					break;
+    				case "batch":
+    					fixed.add("-b");
+    					break;
+    				case "args":
+    					if(vals.contains("-R") || vals.contains("--replications")) {
+    						throw new IOException(file + " line " + lineNum + ": trials run once, so args can't have -R");
+    					}
+    					fixed.addAll(vals);
+    					break;
+    				case "results":
+    					fixed.add("-o");
+    					fixed.add(single(file, lineNum, key, vals));
+    					break;
+    				case "cache":
+    					cacheDir = single(file, lineNum, key, vals);
+    					break;
+    				default:
+    					throw new IOException(file + " line " + lineNum + ": unknown key '" + key + "'");
+    			}
+    		}
+    	}
+    	if(!stop) {
+    		throw new IOException(file + " needs a stop line");
+    	}
+    }
+
+    //the one value of a single valued key
+    private static String single(File file, int lineNum, String key, List<String> vals) throws IOException {
+    	if(vals.size() != 1) {
+    		throw new IOException(file + " line " + lineNum + ": " + key + " takes one value");
+    	}
+    	return vals.get(0);
+    }
+
+   /**Every trial of the sweep, as command line parameters, in sweep order. In a seeded sweep each trial's seed comes from
+    *the sweep's seed and the trial's own parameters, not its place in the sweep, so adding or removing values leaves every
+    *other trial, and its cached output, just as it was.
+    *
+    *@return List<String[]> -- the trials
+    */
+    public List<String[]> getTrials() {
+    	List<String[]> trials = new ArrayList<String[]>();
+    	addTrials(0, new ArrayList<String>(fixed), trials);
+    	if(seed != null) {
+    		for(int i = 0; i < trials.size(); i++) {
+    			String t[] = trials.get(i);
+    			long trialSeed = new FastRandom(seed ^ (0x9E3779B97F4A7C15L * Arrays.hashCode(t))).nextLong();
+    			String params[] = Arrays.copyOf(t, t.length + 2);
+    			params[t.length] = "--seed";
+    			params[t.length + 1] = Long.toString(trialSeed);
+    			trials.set(i, params);
+    		}
+    	}
+    	return trials;
+    }
+
+    //adds every combination of the swept keys from index k on, to the parameters chosen so far
+    private void addTrials(int k, List<String> params, List<String[]> trials) {
+    	if(k == SWEPT.length) {
+    		trials.add(params.toArray(new String[0]));
+    		return;
+    	}
+    	if(values.get(k).isEmpty()) {
+    		addTrials(k + 1, params, trials);
+    		return;
+    	}
+    	for(String v : values.get(k)) {
+    		List<String> p = new ArrayList<String>(params);
+    		p.add(FLAGS[k]);
+    		p.add(v);
+    		addTrials(k + 1, p, trials);
+    	}
+    }
+
+    //the sweep's seed, or null if it has none
+    public Long getSeed() {
+    	return seed;
+    }
+
+    public void setSeed(long s) {
+    	seed = s;
+    }
+
+    //adds parameters every trial gets
+    public void addFixed(String... params) {
+    	fixed.addAll(Arrays.asList(params));
+    }
+
+    //the result cache directory, or null if there is no cache
+    public String getCacheDir() {
+    	return cacheDir;
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * @(#)SweepRunner.java
+ * Runs a list of independent simulation trials at the same time on a work-stealing pool. Each trial gets its own Simulation
+ * and writes into its own buffer, and the buffers are printed in the order the trials were given, so the output of a sweep
+ * looks exactly like the output of running the same trials one after another. With a ResultCache, trials that have been run
+ * before are read from the cache instead of being run again.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.io.*;
+
+public class SweepRunner {
+	private ForkJoinPool pool; //work-stealing pool the trials run on
+	private PrintStream out; //where finished trial output is written
+	private ResultCache cache; //output of trials already run, or null for none
+	private int hits; //number of trials the last sweep took from the cache
+
+   /**Constructor which allows one to provide the number of trials to run at once
+    *
+    *@param threads -- the number of worker threads. Anything below 1 uses one thread per available core.
+    *@param o -- the stream finished trial output is printed to
+    */
+    public SweepRunner(int threads, PrintStream o) {
+    	if(threads < 1) {
+    		threads = Runtime.getRuntime().availableProcessors();
+    	}
+    	pool = new ForkJoinPool(threads);
+    	out = o;
+    	cache = null;
+    	hits = 0;
+    }
+
+    //reads and writes trial output through a cache from now on
+    public void setCache(ResultCache c) {
+    	cache = c;
+    }
+
+    public int getCacheHits() {
+    	return hits;
+    }
+
+    //runs a single trial in its own Simulation and returns everything it printed. Output of a trial that ran is cached
+    //under its key, unless the key is null.
+    private String runTrial(String args[], String key) {
+    	ByteArrayOutputStream buf = new ByteArrayOutputStream();
+    	PrintStream ps = new PrintStream(buf);
+    	Simulation sim = new Simulation(ps);
+    	boolean ran = sim.run(args);
+    	ps.flush();
+    	String output = buf.toString();
+    	if(ran && key != null) {
+    		try {
+    			cache.put(key, output);
+    		}
+    		catch(IOException e) {
+    			//the trial still ran, it just has to run again next time
+    			System.err.println("Can't cache trial " + String.join(" ", args) + ": " + e);
+    		}
+    	}
+    	return output;
+    }
+
+   /**Runs every trial and prints their output in the order they were given. Output for a trial is printed as soon as it and
+    *every trial before it have finished.
+    *
+    *@param trials -- the command line parameters for each trial
+    */
+    public void runAll(List<String[]> trials) {
+    	List<ForkJoinTask<String>> tasks = new ArrayList<ForkJoinTask<String>>();
+    	List<String> cached = new ArrayList<String>(); //output of each trial found in the cache, null if it has to run
+    	hits = 0;
+    	for(String t[] : trials) {
+    		//copy the parameters so callers can keep reusing their array
+    		final String params[] = t.clone();
+    		String key = null;
+    		String hit = null;
+    		if(cache != null) {
+    			try {
+    				key = ResultCache.key(params);
+    				if(key != null) {
+    					hit = cache.get(key);
+    				}
+    			}
+    			catch(IOException e) {
+    				throw new UncheckedIOException("Can't read the result cache", e);
+    			}
+    		}
+    		cached.add(hit);
+    		if(hit != null) {
+    			hits++;
+    			tasks.add(null);
+    			continue;
+    		}
+    		final String k = key;
+    		tasks.add(pool.submit(() -> runTrial(params, k)));
+    	}
+    	for(int i = 0; i < tasks.size(); i++) {
+    		out.print((tasks.get(i) == null) ? cached.get(i) : tasks.get(i).join());
+    		out.flush();
+    	}
+    }
+
+    //stop the worker threads once a sweep is done
+    public void shutdown() {
+    	pool.shutdown();
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * @(#)TabulatedDistribution.java
+ * Distributions sampled by inverting their cdf through a table. The inverse cdf is computed once at CELLS evenly spaced
+ * probabilities. A sample picks a uniform probability and interpolates between the two table entries around it. The top
+ * cell holds the unbounded tail, so samples that land there are computed exactly. That is the only time a sample calls
+ * pow, log or exp, once in every CELLS samples.
+ *
+ * PARETO has shape alpha > 1 and starts at mean * (alpha - 1) / alpha. LOGNORMAL has shape sigma, the standard deviation
+ * of the log of a sample. WEIBULL has shape k, where k < 1 is heavier tailed than an exponential and k = 1 is one.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+public class TabulatedDistribution implements Distribution {
+	//which distribution
+	public static final int PARETO = 0;
+	public static final int LOGNORMAL = 1;
+	public static final int WEIBULL = 2;
+
+	public static final int CELLS = 4096; //table resolution
+
+	private int family; //one of the constants above
+	private double mean;
+	private double shape;
+	private double a; //PARETO: smallest value. LOGNORMAL: mu, the mean of the log. WEIBULL: scale.
+	private double table[]; //table[i] is the inverse cdf at i / CELLS
+
+    public TabulatedDistribution(int f, double m, double s) {
+    	family = f;
+    	mean = m;
+    	shape = s;
+    	switch(family) {
+    		case PARETO:
+    			if(!(s > 1.0)) {
+    				throw new IllegalArgumentException("pareto needs alpha above 1 to have a mean, not " + s);
+    			}
+    			a = m * (s - 1.0) / s;
+    			break;
+    		case LOGNORMAL:
+    			if(!(s > 0.0)) {
+    				throw new IllegalArgumentException("lognormal needs sigma above 0, not " + s);
+    			}
+    			a = Math.log(m) - s * s / 2.0;
+    			break;
+    		case WEIBULL:
+    			if(!(s > 0.0)) {
+    				throw new IllegalArgumentException("weibull needs k above 0, not " + s);
+    			}
+    			a = m / gamma(1.0 + 1.0 / s);
+    			break;
+    		default:
+    			throw new IllegalArgumentException("Unknown distribution family " + f);
+    	}
+    	table = new double[CELLS];
+    	for(int i = 0; i < CELLS; i++) {
+    		table[i] = inverse((double) i / CELLS);
+    	}
+    }
+
+    //the exact inverse cdf
+    private double inverse(double u) {
+    	switch(family) {
+    		case PARETO:
+    			return a * Math.pow(1.0 - u, -1.0 / shape);
+    		case LOGNORMAL:
+    			return (u == 0.0) ? 0.0 : Math.exp(a + shape * inverseNormal(u));
+    		default:
+    			return a * Math.pow(-Math.log(1.0 - u), 1.0 / shape);
+    	}
+    }
+
+    public double sample(FastRandom r) {
+    	double x = r.nextDouble() * CELLS;
+    	int i = (int) x;
+    	double v;
+    	if(i >= CELLS - 1) {
+    		v = inverse(x / CELLS);
+    	}
+    	else {
+    		v = table[i] + (x - i) * (table[i + 1] - table[i]);
+    	}
+    	return Math.min(v, MAX_SAMPLE);
+    }
+
+    public double getMean() {
+    	return mean;
+    }
+
+    public String toString() {
+    	String names[] = {"pareto", "lognormal", "weibull"};
+    	return names[family] + ":" + shape;
+    }
+
+    //the gamma function, by the Lanczos approximation (g = 7), good to about 15 digits
+    private static double gamma(double x) {
+    	final double c[] = {0.99999999999980993, 676.5203681218851, -1259.1392167224028, 771.32342877765313,
+    		-176.61502916214059, 12.507343278686905, -0.13857109526572012, 9.9843695780195716e-6, 1.5056327351493116e-7};
+    	if(x < 0.5) {
+    		return Math.PI / (Math.sin(Math.PI * x) * gamma(1.0 - x));
+    	}
+    	x -= 1.0;
+    	double sum = c[0];
+    	for(int i = 1; i < c.length; i++) {
+    		sum += c[i] / (x + i);
+    	}
+    	double t = x + 7.5;
+    	return Math.sqrt(2.0 * Math.PI) * Math.pow(t, x + 0.5) * Math.exp(-t) * sum;
+    }
+
+    //the standard normal inverse cdf, by Acklam's rational approximation, good to about 1e-9
+    private static double inverseNormal(double p) {
+    	final double a[] = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02, 1.383577518672690e+02,
+    		-3.066479806614716e+01, 2.506628277459239e+00};
+    	final double b[] = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02, 6.680131188771972e+01,
+    		-1.328068155288572e+01};
+    	final double c[] = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00, -2.549732539343734e+00,
+    		4.374664141464968e+00, 2.938163982698783e+00};
+    	final double d[] = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00};
+    	final double low = 0.02425;
+    	if(p < low) {
+    		double q = Math.sqrt(-2.0 * Math.log(p));
+    		return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) /
+    			((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1.0);
+    	}
+    	if(p > 1.0 - low) {
+    		double q = Math.sqrt(-2.0 * Math.log(1.0 - p));
+    		return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) /
+    			((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1.0);
+    	}
+    	double q = p - 0.5;
+    	double r = q * q;
+    	return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q /
+    		(((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1.0);
+    }
+}
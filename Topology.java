@@ -0,0 +1,96 @@
+/**
+ * @(#)Topology.java
+ * Where the cpus sit: split evenly, in order, into sockets, and each socket into cache domains (cores that share a cache).
+ * A process put on a different cpu than it last ran on finds its cache cold there, and pays a warm-up penalty on top of
+ * the context switch. The penalty depends on how far it moved: to another core of the same cache domain, to another
+ * cache domain of the same socket, or to another socket.
+ *
+ * The topology also answers which idle cpu is nearest the one a process last ran on, for affinity-aware placement.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+public class Topology {
+	//how far a process moved between two cpus
+	public static final int SAME_CPU = 0;
+	public static final int CROSS_CORE = 1; //another core of the same cache domain
+	public static final int CROSS_DOMAIN = 2; //another cache domain of the same socket
+	public static final int CROSS_SOCKET = 3;
+
+	private int numcpus;
+	private int domains; //cache domains in all, domainsPerSocket per socket
+	private int domainsPerSocket;
+	private long costs[]; //warm-up penalty by distance, 0 for SAME_CPU
+
+   /**Constructor
+    *
+    *@param n -- the number of cpus
+    *@param s -- the number of sockets
+    *@param d -- the number of cache domains per socket
+    *@param core -- the penalty for moving to another core of the same cache domain
+    *@param domain -- the penalty for moving to another cache domain of the same socket
+    *@param socket -- the penalty for moving to another socket
+    */
+    public Topology(int n, int s, int d, long core, long domain, long socket) {
+    	numcpus = n;
+    	domainsPerSocket = d;
+    	domains = s * d;
+    	costs = new long[] {0, core, domain, socket};
+    }
+
+    //the cache domain a cpu is in. Domains are runs of consecutive cpus, as even in size as they can be.
+    public int domainOf(int cpu) {
+    	return (int) (((long) cpu * domains) / numcpus);
+    }
+
+    //the socket a cpu is in. Every cache domain is inside one socket.
+    public int socketOf(int cpu) {
+    	return domainOf(cpu) / domainsPerSocket;
+    }
+
+    //the first cpu of a cache domain. Domain domains is one past the last cpu.
+    private int domainStart(int d) {
+    	return (int) (((long) d * numcpus + domains - 1) / domains);
+    }
+
+    //how far apart two cpus are, one of the distance constants
+    public int distance(int from, int to) {
+    	if(from == to) {
+    		return SAME_CPU;
+    	}
+    	int df = domainOf(from);
+    	int dt = domainOf(to);
+    	if(df == dt) {
+    		return CROSS_CORE;
+    	}
+    	return (df / domainsPerSocket == dt / domainsPerSocket) ? CROSS_DOMAIN : CROSS_SOCKET;
+    }
+
+   /**Finds the idle cpu nearest the one a process last ran on: that cpu itself, or else the lowest idle cpu of its cache
+    *domain, its socket, and then any socket.
+    *
+    *@param idle -- the set of idle cpus
+    *@param last -- the cpu the process last ran on
+    *@return int -- the index of the idle cpu, or -1 if every cpu is busy
+    */
+    public int nearestIdle(IdleSet idle, int last) {
+    	if(idle.isIdle(last)) {
+    		return last;
+    	}
+    	int d = domainOf(last);
+    	int c = idle.firstIn(domainStart(d), domainStart(d + 1));
+    	if(c >= 0) {
+    		return c;
+    	}
+    	int s = d / domainsPerSocket;
+    	c = idle.firstIn(domainStart(s * domainsPerSocket), domainStart((s + 1) * domainsPerSocket));
+    	return (c >= 0) ? c : idle.first();
+    }
+
+    //Getter methods
+    //the penalty for a move of one of the distance constants
+    public long getCost(int distance) {
+    	return costs[distance];
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * @(#)TraceConverter.java
+ * Converts a text workload trace into the binary trace format TraceReader replays (see TraceReader for the layout).
+ *
+ * The text trace has one job per line: arrival time, type name, cpu time, burst time and I/O service time, separated by
+ * spaces, tabs or commas. Blank lines and lines starting with # are skipped. Jobs must be in arrival order. Type indices
+ * are given out in the order the type names first appear. The input is streamed, so traces of any length convert in the
+ * same memory.
+ *
+ * Usage: java TraceConverter input.txt output.trace
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+import java.util.*;
+
+public class TraceConverter {
+
+   /**Converts a text trace into a binary one
+    *
+    *@param input -- the text trace
+    *@param output -- the binary trace to write
+    *@return long -- the number of jobs written
+    */
+    public static long convert(File input, File output) throws IOException {
+    	LinkedHashMap<String, Integer> types = new LinkedHashMap<String, Integer>();
+    	long count = 0;
+    	long lastArrival = 0;
+    	try(BufferedReader in = new BufferedReader(new FileReader(input));
+    		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output), 1 << 16))) {
+    		//the header is filled in once the record count is known
+    		out.write(new byte[TraceReader.HEADER_BYTES]);
+    		String line;
+    		int lineNum = 0;
+    		while((line = in.readLine()) != null) {
+    			lineNum++;
+    			line = line.trim();
+    			if(line.isEmpty() || line.startsWith("#")) {
+    				continue;
+    			}
+    			String f[] = line.split("[\\s,]+");
+    			if(f.length != 5) {
+    				throw new IOException(input + " line " + lineNum + ": expected arrival, type, cpu, burst and io times");
+    			}
+    			long arrival;
+    			long times[] = new long[3];
+    			try {
+    				arrival = Long.parseLong(f[0]);
+    				for(int i = 0; i < 3; i++) {
+    					times[i] = Long.parseLong(f[i + 2]);
+    				}
+    			}
+    			catch(NumberFormatException e) {
+    				throw new IOException(input + " line " + lineNum + ": " + e.getMessage());
+    			}
+    			if(arrival < lastArrival) {
+    				throw new IOException(input + " line " + lineNum + ": jobs must be in arrival order");
+    			}
+    			for(long t : times) {
+    				if(t < 0 || t > Integer.MAX_VALUE) {
+    					throw new IOException(input + " line " + lineNum + ": times must be between 0 and " + Integer.MAX_VALUE);
+    				}
+    			}
+    			Integer type = types.get(f[1]);
+    			if(type == null) {
+    				type = types.size();
+    				types.put(f[1], type);
+    			}
+    			out.writeLong(arrival);
+    			out.writeInt(type);
+    			out.writeInt((int) times[0]);
+    			out.writeInt((int) times[1]);
+    			out.writeInt((int) times[2]);
+    			lastArrival = arrival;
+    			count++;
+    		}
+    		out.writeInt(types.size());
+    		for(String name : types.keySet()) {
+    			out.writeUTF(name);
+    		}
+    	}
+    	try(RandomAccessFile f = new RandomAccessFile(output, "rw")) {
+    		f.write(TraceReader.MAGIC);
+    		f.writeLong(count);
+    		f.writeLong(TraceReader.HEADER_BYTES + count * TraceReader.RECORD_BYTES);
+    	}
+    	return count;
+    }
+
+    public static void main(String args[]) {
+    	if(args.length != 2) {
+    		System.out.println("Usage: java TraceConverter input.txt output.trace");
+    		return;
+    	}
+    	try {
+    		long n = convert(new File(args[0]), new File(args[1]));
+    		System.out.println("Wrote " + n + " jobs to " + args[1]);
+    	}
+    	catch(IOException e) {
+    		System.err.println(e.getMessage());
+    		System.exit(1);
+    	}
+    }
+}
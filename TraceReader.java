@@ -0,0 +1,169 @@
+/**
+ * @(#)TraceReader.java
+ * Streams the jobs of a binary workload trace, in arrival order, for replaying it through the simulation. The file is read
+ * through a MappedByteBuffer over a window of it that slides forward as records are used, so memory use stays the same
+ * however long the trace is, and each record is only decoded when the simulation asks for the next arrival.
+ *
+ * Trace files are written by TraceConverter. All numbers are big-endian.
+ *   header: the 8 bytes "SCHDTRC1", long record count, long offset of the type table
+ *   records, RECORD_BYTES each: long arrival time, int type index, int cpu time, int burst time, int I/O service time
+ *   type table: int number of types, then each type's name as written by DataOutput.writeUTF
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+public class TraceReader implements Closeable {
+	public static final byte MAGIC[] = "SCHDTRC1".getBytes(StandardCharsets.US_ASCII);
+	public static final int HEADER_BYTES = 24;
+	public static final int RECORD_BYTES = 24;
+	public static final int DEFAULT_WINDOW = 64 << 20; //bytes of the file mapped at once
+
+	private FileChannel channel;
+	private String types[]; //type names, by type index
+	private long count; //number of records in the trace
+	private long read; //number of records read so far
+	private int windowRecords; //records per mapped window
+	private MappedByteBuffer window; //the part of the file holding the next records
+	private long windowEnd; //index of the first record after the window
+
+	//the record most recently read by next()
+	private long arrival;
+	private int type;
+	private long cpuTime;
+	private long burstTime;
+	private long ioTime;
+
+   /**Constructor which opens a trace and reads its header and type table
+    *
+    *@param file -- the trace file
+    *@param windowBytes -- how much of the file to map at once
+    */
+    public TraceReader(File file, int windowBytes) throws IOException {
+    	channel = FileChannel.open(file.toPath());
+    	try {
+    		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    		while(header.hasRemaining() && channel.read(header, header.position()) > 0) {
+    		}
+    		header.flip();
+    		byte magic[] = new byte[MAGIC.length];
+    		if(header.remaining() < HEADER_BYTES) {
+    			throw new IOException(file + " is too short to be a trace");
+    		}
+    		header.get(magic);
+    		if(!java.util.Arrays.equals(magic, MAGIC)) {
+    			throw new IOException(file + " is not a trace file");
+    		}
+    		count = header.getLong();
+    		long typeTable = header.getLong();
+    		if(count < 0 || typeTable != HEADER_BYTES + count * RECORD_BYTES || typeTable > channel.size()) {
+    			throw new IOException(file + " has a damaged header");
+    		}
+
+    		//the type table is small, so read it straight into the heap
+    		DataInputStream in = new DataInputStream(new BufferedInputStream(
+    			java.nio.channels.Channels.newInputStream(channel.position(typeTable))));
+    		types = new String[in.readInt()];
+    		for(int i = 0; i < types.length; i++) {
+    			types[i] = in.readUTF();
+    		}
+    	}
+    	catch(IOException | RuntimeException e) {
+    		channel.close();
+    		throw e;
+    	}
+    	windowRecords = Math.max(1, windowBytes / RECORD_BYTES);
+    	read = 0;
+    	windowEnd = 0;
+    }
+
+    public TraceReader(File file) throws IOException {
+    	this(file, DEFAULT_WINDOW);
+    }
+
+    //Getter methods
+    public String[] getTypes() {
+    	return types.clone();
+    }
+
+    public long getCount() {
+    	return count;
+    }
+
+    public boolean hasNext() {
+    	return read < count;
+    }
+
+    //number of records read so far
+    public long getRead() {
+    	return read;
+    }
+
+    public long getArrival() {
+    	return arrival;
+    }
+
+    public int getType() {
+    	return type;
+    }
+
+    public long getCPUtime() {
+    	return cpuTime;
+    }
+
+    public long getBurstTime() {
+    	return burstTime;
+    }
+
+    public long getIOTime() {
+    	return ioTime;
+    }
+
+    //decodes the next record. Its fields are then available from the getters. Only valid while hasNext().
+    public void next() throws IOException {
+    	if(read == windowEnd) {
+    		long records = Math.min(windowRecords, count - read);
+    		window = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + read * RECORD_BYTES, records * RECORD_BYTES);
+    		windowEnd = read + records;
+    	}
+    	long a = window.getLong();
+    	int t = window.getInt();
+    	int c = window.getInt();
+    	int b = window.getInt();
+    	int i = window.getInt();
+    	if(a < arrival || t < 0 || t >= types.length || c < 0 || b < 0 || i < 0) {
+    		throw new IOException("trace record " + read + " is out of arrival order or has a bad field");
+    	}
+    	arrival = a;
+    	type = t;
+    	cpuTime = c;
+    	burstTime = b;
+    	ioTime = i;
+    	read++;
+    }
+
+   /**Continues from a saved position, as if the first n records had just been read
+    *
+    *@param n -- the number of records already read
+    *@param a -- the arrival time of the last of them, which the next may not come before
+    */
+    public void seek(long n, long a) throws IOException {
+    	if(n < 0 || n > count) {
+    		throw new IOException("can't continue from record " + n + " of a trace of " + count);
+    	}
+    	read = n;
+    	windowEnd = n; //the next record maps a new window
+    	window = null;
+    	arrival = a;
+    }
+
+    public void close() throws IOException {
+    	window = null;
+    	channel.close();
+    }
+}
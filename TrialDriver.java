@@ -1,4 +1,5 @@
 import java.util.*;
+import java.io.*;
 /**
  * @(#)TrialDriver.java
  *
@@ -13,58 +14,63 @@ import java.util.*;
  */
 
 public class TrialDriver {
-	//arrays holding different cmd-line parameter values
-	//study 1
-	public static String qVals[] = {"0","2","5","10","15","20","30","40","50","60","70","80","90","100","125","150","175","200"}; //18
-	
-	//study 2
-	public static String cVals[] = {"1","2","3","4","5","6","7","8","9","10","15","20"}; //12
-	
-	//final strings for parameter tags
-	public static final String Q = "-q";
-	public static final String T = "-t";
-	public static final String C = "-c";
-	public static final String W = "-w";
-	public static final String N = "-n";
-	public static final String B = "-b";
-	
-	//final strings for constant parameter values
-	public static final String STOP = "10000000"; //10 million time units
-	public static final String SWITCH = "10";
-	public static final String QUANTUM = "10";
+	public static final String DEFAULT_SWEEP = "study2.sweep"; //the sweep run when none is named
     
-    //Run all trials for each study
+    //Runs every trial of a sweep file (see SweepConfig): java TrialDriver [sweep-file] [threads]
+    //threads is the number of trials to run at once (default: one per core). The older form, java TrialDriver [threads] [seed]
+    //[precision], runs the default sweep with the seed and precision given, in place of any the file sets.
     public static void main(String args[]) {
-    	//build constant part of args string
-    	//String params[] = new String[7]; //for study 1
-    	String altParams[] = new String[9]; //for study 2
-    	/*params[0] = T;
-    	params[1] = STOP;
-    	params[2] = B;
-    	params[3] = W;
-    	params[4] = SWITCH;
-    	params[5] = Q;
-    	//run all trials for study 1
-    	for(int i = 0; i < 18; i++) { //each q
-    		params[6] = qVals[i];
-    		SchedulerSimulation.main(params);
-    	}*/
-    	
-    	//build uniform parts for study 2
-    	altParams[0] = T;
-    	altParams[1] = STOP;
-    	altParams[2] = B;
-    	altParams[3] = Q;
-    	altParams[4] = QUANTUM;
-    	altParams[5] = W;
-    	altParams[6] = SWITCH;
-    	altParams[7] = C;
-    	//run all trials for study 2
-        for(int i = 0; i < 12; i++) { //each cpu val
-    		altParams[8] = cVals[i];
-        	SchedulerSimulation.main(altParams);
+    	String sweepFile = DEFAULT_SWEEP;
+    	int threads = 0;
+    	String seed = null;
+    	String precision = null;
+    	if(args.length > 0 && args[0].matches("-?\\d+")) {
+    		threads = Integer.parseInt(args[0]);
+    		if(args.length > 1) {
+    			seed = args[1];
+    		}
+    		if(args.length > 2) {
+    			precision = args[2];
+    		}
+    	}
+    	else {
+    		if(args.length > 0) {
+    			sweepFile = args[0];
+    		}
+    		if(args.length > 1) {
+    			threads = Integer.parseInt(args[1]);
+    		}
+    	}
+
+    	SweepConfig sweep;
+    	ResultCache cache = null;
+    	try {
+    		sweep = new SweepConfig(new File(sweepFile));
+    		if(seed != null) {
+    			sweep.setSeed(Long.parseLong(seed));
+    		}
+    		if(precision != null) {
+    			sweep.addFixed("--precision", precision);
+    		}
+    		if(sweep.getCacheDir() != null) {
+    			cache = new ResultCache(new File(sweep.getCacheDir()));
+    		}
+    	}
+    	catch(IOException e) {
+    		System.err.println(e.getMessage());
+    		System.exit(1);
+    		return;
+    	}
+
+    	SweepRunner runner = new SweepRunner(threads, System.out);
+    	runner.setCache(cache);
+    	List<String[]> trials = sweep.getTrials();
+        //trials are independent, so run them all at once. Output still comes out in sweep order.
+        runner.runAll(trials);
+        runner.shutdown();
+        ResultWriter.closeAll();
+        if(cache != null) {
+        	System.err.println(runner.getCacheHits() + " of " + trials.size() + " trials were read from the cache.");
         }
-        
-        
     }//end of main
 }//end of class
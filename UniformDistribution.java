@@ -0,0 +1,32 @@
+/**
+ * @(#)UniformDistribution.java
+ * Uniform distribution over the whole numbers from 0 up to twice the mean. This is the original distribution of burst times.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+public class UniformDistribution implements Distribution {
+	private double mean;
+	private int range; //samples are below this
+
+    public UniformDistribution(double m) {
+    	mean = m;
+    	range = ((int) m * 2);
+    	if(range <= 0) {
+    		throw new IllegalArgumentException("uniform needs a mean of at least 1, not " + m);
+    	}
+    }
+
+    public double sample(FastRandom r) {
+    	return r.nextInt(range);
+    }
+
+    public double getMean() {
+    	return mean;
+    }
+
+    public String toString() {
+    	return "uniform";
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * @(#)VerboseEventSink.java
+ * Prints the details of a running simulation as the human-readable lines of verbose mode.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+
+public class VerboseEventSink implements EventSink {
+	private PrintStream out; //where the lines are printed
+	private String types[]; //process type names, by type index
+
+   /**Constructor
+    *
+    *@param o -- the stream to print to
+    *@param t -- the process type names, by type index
+    */
+    public VerboseEventSink(PrintStream o, String t[]) {
+    	out = o;
+    	types = t;
+    }
+
+    public void initialArrival(int type, long time) {
+    	out.println("Added initial process generation event for type " + types[type] + "(" + type + ") at time " + time);
+    }
+
+    public void eventAdded(long eid, int kind, int type, long time) {
+    	//steals and balances don't belong to a process
+    	if(type < 0) {
+    		out.println("New Event: EventID(" + eid + "), Type: " + Event.kindName(kind) + ", Timestamp: " + time);
+    		return;
+    	}
+    	out.println("New Event: EventID(" + eid + "), Type: " + Event.kindName(kind) + " of type " + types[type] + "(" + type +
+    		"), Timestamp: " + time);
+    }
+
+    public void eventProcessed(int iteration, long time, long sinceLast, long eid, int kind, long pid) {
+    	out.println("****Event processing iteration " + iteration + " at time " + time + " (" + sinceLast + " since last event)");
+    	out.println("Event ID:" + eid + ", Type: " + Event.kindName(kind) + ", Process: " + pid + ", Timestamp: " + time);
+    }
+
+    public void procReady(long pid, int type, long time, long cpu, long burst, long io) {
+    	String s = ("Created Proc(" + pid + ") Type: " + types[type]);
+    	s += (" at time: " + time + " CPU service time: " + cpu + " Burst time: " + burst);
+    	s += (" I/O time: " + io);
+    	out.println(s);
+    }
+
+    public void queued(long pid) {
+    	out.println("Adding Proc(" + pid + ") to ready queue.");
+    }
+
+    public void requeued(long pid) {
+    	out.println("Returning Proc(" + pid + ") to ready queue.");
+    }
+
+    public void migrated(long pid, int from, int to, long time) {
+    	out.println("Moving Proc(" + pid + ") from CPU " + from + " to CPU " + to + " at time " + time);
+    }
+
+    public void assigned(long pid, int cpu, long time) {
+    	out.println("Assigning Proc(" + pid + ") to CPU " + cpu + " at time " + time);
+    }
+
+    //the stream belongs to whoever made this sink, so it is only flushed
+    public void close() {
+    	out.flush();
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * @(#)SimHarness.java
+ * The simulator side of bench.Harness. It sits in the default package with the simulator, so it can build simulations and
+ * reach into their fields the way the simulator itself does. Everything a simulation prints goes to a stream that throws
+ * it away.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+import java.io.*;
+import java.util.*;
+
+public class SimHarness implements bench.Harness {
+	private static final PrintStream NOWHERE = new PrintStream(OutputStream.nullOutputStream());
+
+	//event set benchmarks
+	private EventSet events;
+	private long delays[]; //exponential delays, used in turn
+	private int nextDelay;
+	private long eid;
+
+	//simulation benchmarks
+	private Simulation sim;
+	private long now; //time of the last event the simulation processed
+	private int kind; //kind code of the prepared events
+	private int slots[]; //process slot of each prepared event
+
+	private int nextType; //generateProc cycles through the process types
+
+	//distribution benchmarks
+	private Distribution dist; //null for legacy-exp
+	private long legacyMean;
+	private FastRandom rand;
+
+	public SimHarness() {
+		delays = new long[1 << 16];
+	}
+
+	//one pending event as an object, the way the event queue held them before the primitive event sets
+	private static final class PendingEvent implements Comparable<PendingEvent> {
+		final long time;
+		final int kind;
+		final int proc;
+		final long eid;
+
+		PendingEvent(long t, int k, int p, long e) {
+			time = t;
+			kind = k;
+			proc = p;
+			eid = e;
+		}
+
+		public int compareTo(PendingEvent o) {
+			if(Event.before(time, kind, eid, o.time, o.kind, o.eid)) {
+				return -1;
+			}
+			return (eid == o.eid) ? 0 : 1;
+		}
+	}
+
+	//the PriorityQueue of event objects the simulator used before EventHeap, kept for comparison as the priorityqueue event set
+	private static final class ObjectEventQueue implements EventSet {
+		private PriorityQueue<PendingEvent> q = new PriorityQueue<PendingEvent>();
+
+		public void add(long time, int kind, int proc, long eid) {
+			q.add(new PendingEvent(time, kind, proc, eid));
+		}
+
+		public void remove() {
+			q.poll();
+		}
+
+		public long peekTime() {
+			return q.peek().time;
+		}
+
+		public int peekKind() {
+			return q.peek().kind;
+		}
+
+		public int peekProc() {
+			return q.peek().proc;
+		}
+
+		public long peekEid() {
+			return q.peek().eid;
+		}
+
+		public int size() {
+			return q.size();
+		}
+
+		public boolean isEmpty() {
+			return q.isEmpty();
+		}
+
+		public void save(CheckpointWriter w) {
+			throw new UnsupportedOperationException("the priorityqueue event set is only for benchmarks");
+		}
+
+		public void restore(CheckpointReader r) {
+			throw new UnsupportedOperationException("the priorityqueue event set is only for benchmarks");
+		}
+	}
+
+	public void fillEventSet(String type, int size, long meanDelay) {
+		Random r = new Random(432);
+		for(int i = 0; i < delays.length; i++) {
+			delays[i] = 1 + (long) (-Math.log(1.0 - r.nextDouble()) * meanDelay);
+		}
+		sim = new Simulation(NOWHERE);
+		sim.eventSetType = type;
+		events = type.equals("priorityqueue") ? new ObjectEventQueue() : sim.createEventSet();
+		if(events == null) {
+			throw new IllegalArgumentException("Unknown event set '" + type + "'");
+		}
+		eid = 0;
+		nextDelay = 0;
+		for(int i = 0; i < size; i++) {
+			events.add(nextDelay(), (int) (eid % 5), 0, eid);
+			eid++;
+		}
+	}
+
+	private long nextDelay() {
+		long d = delays[nextDelay];
+		nextDelay = (nextDelay + 1) & (delays.length - 1);
+		return d;
+	}
+
+	public long holdEventSet() {
+		long t = events.peekTime();
+		events.remove();
+		events.add(t + nextDelay(), (int) (eid % 5), 0, eid);
+		eid++;
+		return t;
+	}
+
+	public void setUpSimulation(String args[], long until) {
+		sim = new Simulation(NOWHERE);
+		if(!sim.setUp(args)) {
+			throw new IllegalArgumentException("Can't set up a simulation with " + Arrays.toString(args));
+		}
+		now = 0;
+		int iteration = 0;
+		while(now <= until) {
+			now = sim.processNextEvent(now, iteration);
+			iteration++;
+		}
+	}
+
+	public void prepareEvents(String kindName, int n) {
+		switch(kindName) {
+			case "NEWPROC":
+				kind = Event.NEWPROC;
+				break;
+			case "IOFAULT":
+				kind = Event.IOFAULT;
+				break;
+			case "IODONE":
+				kind = Event.IODONE;
+				break;
+			case "PROCDONE":
+				kind = Event.PROCDONE;
+				break;
+			case "QUANTUM_UP":
+				kind = Event.QUANTUM_UP;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown event kind " + kindName);
+		}
+		slots = new int[n];
+		for(int i = 0; i < n; i++) {
+			slots[i] = sim.procgens[i % sim.procgens.length].generateProc(now, sim.procTable);
+			sim.procTable.setcpuInd(slots[i], i % sim.numcpus);
+		}
+	}
+
+	public void processPrepared() {
+		for(int i = 0; i < slots.length; i++) {
+			sim.processEvent(now, kind, slots[i], i);
+		}
+	}
+
+	public void setUpCPUs(int n) {
+		sim = new Simulation(NOWHERE);
+		sim.numcpus = n;
+		sim.createCPUs();
+		for(int i = 0; i < n - 1; i++) {
+			sim.idleCPUs.clear(i);
+		}
+	}
+
+	public int findIdleCPU() {
+		return sim.findIdleCPU();
+	}
+
+	public void setUpGenerators(String procgenFile) {
+		sim = new Simulation(NOWHERE);
+		sim.procgenFilename = procgenFile;
+		sim.rng = new FastRandom(432);
+		sim.procTable = new ProcTable(64);
+		sim.procgens = sim.createProcGenerators();
+		if(sim.procgens == null) {
+			throw new IllegalArgumentException("Can't read " + procgenFile);
+		}
+		nextType = 0;
+	}
+
+	public int generateProc() {
+		ProcGenerator pg = sim.procgens[nextType];
+		nextType++;
+		if(nextType == sim.procgens.length) {
+			nextType = 0;
+		}
+		//the process leaves straight away, so the table never grows
+		int slot = pg.generateProc(0, sim.procTable);
+		sim.procTable.release(slot);
+		return slot;
+	}
+
+	public void setUpDistribution(String spec, long mean) {
+		rand = new FastRandom(432);
+		if(spec.equals("legacy-exp")) {
+			dist = null;
+			legacyMean = mean;
+			return;
+		}
+		sim = new Simulation(NOWHERE);
+		dist = sim.createDistribution(spec, mean);
+	}
+
+	public double sampleDistribution() {
+		if(dist == null) {
+			//what ProcGenerator.exponentialRand did for every sample
+			Random r = new Random();
+			double u = r.nextDouble();
+			return (Math.log(1.0 - u)) / -(1.0 / legacyMean);
+		}
+		return dist.sample(rand);
+	}
+
+	public long runSimulation(String args[]) {
+		sim = new Simulation(NOWHERE);
+		sim.run(args);
+		return sim.eventsProcessed;
+	}
+}
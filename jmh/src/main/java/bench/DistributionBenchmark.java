@@ -0,0 +1,55 @@
+/**
+ * @(#)DistributionBenchmark.java
+ * Samples per second for each distribution a procgen file can declare, and for the exponential sampling ProcGenerator did
+ * before, which built a new java.util.Random and called Math.log for every sample. The empirical distribution reads a
+ * file of 100000 lognormal values written to a temporary file.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+package bench;
+
+import java.io.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DistributionBenchmark {
+	@Param({"legacy-exp", "exp", "uniform", "erlang:4", "hyperexp:4", "pareto:1.5", "lognormal:1", "weibull:0.5", "empirical"})
+	public String distribution;
+
+	@Param({"100"})
+	public long mean;
+
+	private Harness h;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		h = Harness.create();
+		String spec = distribution;
+		if(spec.equals("empirical")) {
+			File f = File.createTempFile("empirical", ".txt");
+			f.deleteOnExit();
+			Random r = new Random(432);
+			try(PrintWriter w = new PrintWriter(new FileWriter(f))) {
+				for(int i = 0; i < 100000; i++) {
+					w.println((long) Math.exp(3.0 + r.nextGaussian()));
+				}
+			}
+			spec = "empirical:" + f.getAbsolutePath();
+		}
+		h.setUpDistribution(spec, mean);
+	}
+
+	@Benchmark
+	public double sample() {
+		return h.sampleDistribution();
+	}
+}
@@ -0,0 +1,54 @@
+/**
+ * @(#)EndToEndBenchmark.java
+ * Whole simulations, reported as simulated events per second (the "events" counter) alongside the time per run. This is
+ * the number that decides how long a sweep takes.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class EndToEndBenchmark {
+	@Param({"pg.txt", "pg2.txt"})
+	public String procgen;
+
+	@Param({"1", "4", "64"})
+	public int cpus;
+
+	@Param({"0", "10"})
+	public int quantum;
+
+	@Param({"100000"})
+	public long stopTime;
+
+	private Harness h;
+	private String args[];
+
+	//simulated events processed, reported per second
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Events {
+		public long events;
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		h = Harness.create();
+		args = new String[] {"-t", "" + stopTime, "-f", Harness.procgenPath(procgen), "-c", "" + cpus, "-q", "" + quantum, "-b"};
+	}
+
+	@Benchmark
+	public void run(Events counter) {
+		counter.events += h.runSimulation(args);
+	}
+}
@@ -0,0 +1,45 @@
+/**
+ * @(#)EventSetBenchmark.java
+ * Event queue insert and poll, measured with the hold model: each operation removes the earliest pending event and adds one
+ * to replace it, so the queue stays the same size. Covers both event sets at small and large queue sizes, and for comparison
+ * the PriorityQueue of event objects they replaced. A mean delay of 1 makes most events share a timestamp, so nearly every
+ * comparison falls through to the kind and event id tie-breaks.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventSetBenchmark {
+	@Param({"heap", "calendar", "priorityqueue"})
+	public String eventSet;
+
+	@Param({"64", "4096", "262144"})
+	public int size;
+
+	@Param({"100", "1"})
+	public long meanDelay;
+
+	private Harness h;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		h = Harness.create();
+		h.fillEventSet(eventSet, size, meanDelay);
+	}
+
+	@Benchmark
+	public long hold() {
+		return h.holdEventSet();
+	}
+}
@@ -0,0 +1,36 @@
+/**
+ * @(#)FindIdleCPUBenchmark.java
+ * Cost of Simulation.findIdleCPU when only the last cpu is idle, the worst case for a search from the first cpu.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FindIdleCPUBenchmark {
+	@Param({"1", "16", "1024"})
+	public int cpus;
+
+	private Harness h;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		h = Harness.create();
+		h.setUpCPUs(cpus);
+	}
+
+	@Benchmark
+	public int findIdleCPU() {
+		return h.findIdleCPU();
+	}
+}
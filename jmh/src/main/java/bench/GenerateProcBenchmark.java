@@ -0,0 +1,36 @@
+/**
+ * @(#)GenerateProcBenchmark.java
+ * Cost of ProcGenerator.generateProc, cycling through the process types of a procgen file.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GenerateProcBenchmark {
+	@Param({"pg.txt", "pg2.txt"})
+	public String procgen;
+
+	private Harness h;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		h = Harness.create();
+		h.setUpGenerators(Harness.procgenPath(procgen));
+	}
+
+	@Benchmark
+	public int generateProc() {
+		return h.generateProc();
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * @(#)Harness.java
+ * The operations the benchmarks measure. JMH won't generate code for benchmarks in the default package, and classes in a
+ * named package can't refer to the simulator's classes, which are all in the default package. So the benchmarks call the
+ * simulator through this interface, and SimHarness, which lives in the default package next to the simulator, implements
+ * it. Each benchmark state holds its own SimHarness, so every call site sees one implementation and the JIT inlines
+ * straight through the interface.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+package bench;
+
+public interface Harness {
+
+   /**Creates an event set and fills it with pending events whose delays are exponential with the given mean
+    *
+    *@param type -- the event set, as given to --event-set, or priorityqueue for a PriorityQueue of event objects
+    *@param size -- number of pending events
+    *@param meanDelay -- mean time between an event and the one that replaces it
+    */
+	public void fillEventSet(String type, int size, long meanDelay);
+
+	//removes the earliest event, and adds one to replace it. Returns the removed event's time.
+	public long holdEventSet();
+
+   /**Sets up a simulation from command line parameters, and runs it until the given time so its queues are in a steady state
+    *
+    *@param args -- the simulation's command line parameters
+    *@param until -- time to run until
+    */
+	public void setUpSimulation(String args[], long until);
+
+   /**Creates processes for a batch of events of one kind, each on its own cpu where the kind needs one
+    *
+    *@param kind -- the name of the event kind's constant in Event, like NEWPROC
+    *@param n -- number of events in the batch
+    */
+	public void prepareEvents(String kind, int n);
+
+	//sends every prepared event through processEvent
+	public void processPrepared();
+
+	//sets up a simulation with n cpus where every cpu but the last is busy
+	public void setUpCPUs(int n);
+
+	public int findIdleCPU();
+
+	//reads the process generators from a procgen file
+	public void setUpGenerators(String procgenFile);
+
+	//generates a process, cycling through the process types, and frees its slot again. Returns the slot.
+	public int generateProc();
+
+   /**Sets up a distribution the way a procgen file declares it. The name legacy-exp gives the exponential sampling
+    *ProcGenerator used before distributions were pluggable, for comparison.
+    *
+    *@param spec -- the declaration, like pareto:1.5
+    *@param mean -- the distribution's mean
+    */
+	public void setUpDistribution(String spec, long mean);
+
+	//draws one sample from the distribution
+	public double sampleDistribution();
+
+   /**Runs a complete simulation with its output thrown away
+    *
+    *@param args -- the simulation's command line parameters
+    *@return long -- number of events processed
+    */
+	public long runSimulation(String args[]);
+
+	//creates the simulator's implementation of this interface
+	public static Harness create() {
+		try {
+			return (Harness) Class.forName("SimHarness").getDeclaredConstructor().newInstance();
+		}
+		catch(ReflectiveOperationException e) {
+			throw new IllegalStateException("SimHarness isn't on the class path", e);
+		}
+	}
+
+	//resolves a procgen file name against -Dsim.home
+	public static String procgenPath(String name) {
+		return new java.io.File(System.getProperty("sim.home", "."), name).getPath();
+	}
+}
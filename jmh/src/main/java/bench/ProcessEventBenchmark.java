@@ -0,0 +1,53 @@
+/**
+ * @(#)ProcessEventBenchmark.java
+ * Cost of Simulation.processEvent for each event kind. Before every iteration a simulation is run to a steady state, and
+ * before every invocation a batch of fresh processes is made for events of the kind being measured, so processing an event
+ * never sees a process an earlier event already used up. Reported time is per event.
+ *
+ * @author Iain St. John -- CSC 432 Operating Systems -- Programming Project 2 CPU Scheduler Simulation
+ * @version 1.00 2016/2/23
+ */
+
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProcessEventBenchmark {
+	public static final int BATCH = 1024; //events per invocation
+
+	@Param({"NEWPROC", "IOFAULT", "IODONE", "PROCDONE", "QUANTUM_UP"})
+	public String kind;
+
+	@Param({"16"})
+	public int cpus;
+
+	@Param({"10"})
+	public int quantum;
+
+	private Harness h;
+
+	@Setup(Level.Iteration)
+	public void setUpSimulation() {
+		h = Harness.create();
+		String args[] = {"-t", "1000000000", "-f", Harness.procgenPath("pg2.txt"), "-c", "" + cpus, "-q", "" + quantum};
+		h.setUpSimulation(args, 20000);
+	}
+
+	@Setup(Level.Invocation)
+	public void prepare() {
+		h.prepareEvents(kind, BATCH);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void processEvent() {
+		h.processPrepared();
+	}
+}